@@ -0,0 +1,72 @@
+package com.example.crm_gym.config;
+
+import com.example.crm_gym.services.MetricsService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty("datasource.replica.urls")
+    public ReadReplicaDataSource readReplicaDataSource(HikariDataSource primaryDataSource, DataSourceProperties properties,
+                                                       MetricsService metricsService,
+                                                       @Value("${datasource.replica.urls}") List<String> urls,
+                                                       @Value("${datasource.replica.username:${spring.datasource.username:}}") String username,
+                                                       @Value("${datasource.replica.password:${spring.datasource.password:}}") String password,
+                                                       @Value("${datasource.replica.max-pool-size:10}") int maxPoolSize,
+                                                       @Value("${datasource.replica.lag-query:SELECT COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)}") String lagQuery,
+                                                       @Value("${datasource.replica.max-lag:PT5S}") Duration maxLag,
+                                                       @Value("${datasource.replica.check-interval:PT5S}") Duration checkInterval) {
+        List<ReadReplicaDataSource.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(urls.get(i))
+                    .username(username)
+                    .password(password)
+                    .build();
+            replica.setPoolName("replica-" + i);
+            replica.setMaximumPoolSize(maxPoolSize);
+            replica.setReadOnly(true);
+            // Let the pool start even while a replica is down; the health check keeps it out of rotation.
+            replica.setInitializationFailTimeout(-1);
+            replicas.add(new ReadReplicaDataSource.Replica("replica-" + i, replica));
+        }
+        ReadReplicaDataSource dataSource = new ReadReplicaDataSource(primaryDataSource, replicas, lagQuery, maxLag,
+                metricsService.getMeterRegistry());
+        dataSource.startHealthChecks(checkInterval);
+        return dataSource;
+    }
+
+    // Connections are fetched lazily so the read-only flag of the surrounding transaction is known
+    // by the time one is needed; read-only transactions then draw from the replicas.
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ObjectProvider<ReadReplicaDataSource> readReplicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        readReplicaDataSource.ifAvailable(dataSource::setReadOnlyDataSource);
+        return dataSource;
+    }
+}
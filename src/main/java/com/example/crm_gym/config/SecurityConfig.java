@@ -1,10 +1,14 @@
 package com.example.crm_gym.config;
 
+import com.example.crm_gym.security.BulkheadPasswordEncoder;
 import com.example.crm_gym.security.CustomAccessDeniedHandler;
 import com.example.crm_gym.security.CustomAuthenticationEntryPoint;
 import com.example.crm_gym.security.CustomAuthenticationFailureHandler;
 import com.example.crm_gym.security.MyUserDetailsService;
 import com.example.crm_gym.security.JwtAuthenticationFilter;
+import com.example.crm_gym.security.PasswordEncoderCalibration;
+import com.example.crm_gym.security.PasswordHashingExecutor;
+import com.example.crm_gym.security.Role;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -18,10 +22,10 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import jakarta.servlet.DispatcherType;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.web.access.AccessDeniedHandler;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -48,6 +52,12 @@ public class SecurityConfig {
     @Autowired
     private CustomAuthenticationFailureHandler customAuthenticationFailureHandler;
 
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private PasswordEncoderCalibration passwordEncoderCalibration;
+
     @Bean
     public UserDetailsService userDetailsService(){
         return new MyUserDetailsService();
@@ -67,9 +77,13 @@ public class SecurityConfig {
                 .cors(withDefaults())
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(HttpMethod.POST, "/trainees").permitAll()
                         .requestMatchers(HttpMethod.POST, "/trainers").permitAll()
                         .requestMatchers(HttpMethod.POST, "/user/login").permitAll()
+                        // Calendar apps cannot send a bearer token; the controller checks the feed token instead.
+                        .requestMatchers(HttpMethod.GET, "/trainers/*/calendar.ics", "/trainees/*/calendar.ics").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/reports/utilization/rebuild").hasRole(Role.TRAINER.name())
                         .anyRequest().authenticated())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
@@ -122,7 +136,7 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder(5);
+        return new BulkheadPasswordEncoder(passwordEncoderCalibration.createEncoder(), passwordHashingExecutor);
     }
 
 }
\ No newline at end of file
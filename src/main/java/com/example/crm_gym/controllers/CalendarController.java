@@ -0,0 +1,224 @@
+package com.example.crm_gym.controllers;
+
+import com.example.crm_gym.dto.CalendarFeedVersion;
+import com.example.crm_gym.logger.TransactionLogger;
+import com.example.crm_gym.security.Role;
+import com.example.crm_gym.services.CalendarFeedService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@Slf4j
+@Api(produces = "text/calendar", value = "iCalendar feeds of trainer and trainee schedules")
+public class CalendarController {
+
+    private static final MediaType TEXT_CALENDAR = MediaType.parseMediaType("text/calendar;charset=UTF-8");
+    private static final String TOKEN_PARAM = "token";
+
+    private final CalendarFeedService calendarFeedService;
+
+    @Autowired
+    public CalendarController(CalendarFeedService calendarFeedService) {
+        this.calendarFeedService = calendarFeedService;
+    }
+
+    @GetMapping("/trainers/{username}/calendar.ics")
+    @ApiOperation(value = "Subscribe to a trainer's sessions as an iCalendar feed")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Feed is streamed as it is read"),
+            @ApiResponse(code = 304, message = "Feed has not changed since the given ETag or date"),
+            @ApiResponse(code = 401, message = "Neither a bearer token nor a valid feed token was given"),
+            @ApiResponse(code = 404, message = "Trainer not found"),
+            @ApiResponse(code = 500, message = "Application failed to process the request")
+    })
+    public ResponseEntity<StreamingResponseBody> getTrainerCalendar(@PathVariable String username,
+                                                                    @RequestParam(name = TOKEN_PARAM, required = false) String token,
+                                                                    Principal principal, WebRequest webRequest,
+                                                                    HttpServletRequest request) {
+        return calendar(Role.TRAINER, username, token, principal, webRequest, request);
+    }
+
+    @GetMapping("/trainees/{username}/calendar.ics")
+    @ApiOperation(value = "Subscribe to a trainee's sessions as an iCalendar feed")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Feed is streamed as it is read"),
+            @ApiResponse(code = 304, message = "Feed has not changed since the given ETag or date"),
+            @ApiResponse(code = 401, message = "Neither a bearer token nor a valid feed token was given"),
+            @ApiResponse(code = 404, message = "Trainee not found"),
+            @ApiResponse(code = 500, message = "Application failed to process the request")
+    })
+    public ResponseEntity<StreamingResponseBody> getTraineeCalendar(@PathVariable String username,
+                                                                    @RequestParam(name = TOKEN_PARAM, required = false) String token,
+                                                                    Principal principal, WebRequest webRequest,
+                                                                    HttpServletRequest request) {
+        return calendar(Role.TRAINEE, username, token, principal, webRequest, request);
+    }
+
+    @GetMapping("/trainers/{username}/calendar-token")
+    @ApiOperation(value = "Get the URL a calendar app subscribes to for the trainer's own feed")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Feed token and URL"),
+            @ApiResponse(code = 403, message = "Feed belongs to another user"),
+            @ApiResponse(code = 404, message = "Trainer not found")
+    })
+    public ResponseEntity<Map<String, String>> getTrainerCalendarToken(@PathVariable String username, Principal principal) {
+        return issueToken(Role.TRAINER, "trainers", username, principal);
+    }
+
+    @GetMapping("/trainees/{username}/calendar-token")
+    @ApiOperation(value = "Get the URL a calendar app subscribes to for the trainee's own feed")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Feed token and URL"),
+            @ApiResponse(code = 403, message = "Feed belongs to another user"),
+            @ApiResponse(code = 404, message = "Trainee not found")
+    })
+    public ResponseEntity<Map<String, String>> getTraineeCalendarToken(@PathVariable String username, Principal principal) {
+        return issueToken(Role.TRAINEE, "trainees", username, principal);
+    }
+
+    @DeleteMapping("/trainers/{username}/calendar-token")
+    @ApiOperation(value = "Revoke every feed URL handed out for the trainer's own feed")
+    @ApiResponses(value = {
+            @ApiResponse(code = 204, message = "Feed URLs revoked"),
+            @ApiResponse(code = 403, message = "Feed belongs to another user"),
+            @ApiResponse(code = 404, message = "Trainer not found")
+    })
+    public ResponseEntity<Void> revokeTrainerCalendarTokens(@PathVariable String username, Principal principal) {
+        return revokeTokens(Role.TRAINER, username, principal);
+    }
+
+    @DeleteMapping("/trainees/{username}/calendar-token")
+    @ApiOperation(value = "Revoke every feed URL handed out for the trainee's own feed")
+    @ApiResponses(value = {
+            @ApiResponse(code = 204, message = "Feed URLs revoked"),
+            @ApiResponse(code = 403, message = "Feed belongs to another user"),
+            @ApiResponse(code = 404, message = "Trainee not found")
+    })
+    public ResponseEntity<Void> revokeTraineeCalendarTokens(@PathVariable String username, Principal principal) {
+        return revokeTokens(Role.TRAINEE, username, principal);
+    }
+
+    private ResponseEntity<Map<String, String>> issueToken(Role owner, String collection, String username, Principal principal) {
+        String transactionId = TransactionLogger.generateTransactionId();
+        TransactionLogger.logTransactionStart(transactionId, "Get Calendar Feed Token");
+        if (!principal.getName().equals(username)) {
+            TransactionLogger.logResponseDetails(transactionId, HttpStatus.FORBIDDEN.value(), "Feed of another user");
+            TransactionLogger.logTransactionEnd(transactionId, "Get Calendar Feed Token Failed");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        Optional<String> token = calendarFeedService.issueToken(owner, username, transactionId);
+        if (token.isEmpty()) {
+            TransactionLogger.logResponseDetails(transactionId, HttpStatus.NOT_FOUND.value(), owner + " not found");
+            TransactionLogger.logTransactionEnd(transactionId, "Get Calendar Feed Token Failed");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        Map<String, String> response = new HashMap<>();
+        response.put(TOKEN_PARAM, token.get());
+        response.put("url", ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/{collection}/{username}/calendar.ics")
+                .queryParam(TOKEN_PARAM, token.get())
+                .buildAndExpand(collection, username)
+                .encode()
+                .toUriString());
+        TransactionLogger.logResponseDetails(transactionId, HttpStatus.OK.value(), "Calendar feed token issued");
+        TransactionLogger.logTransactionEnd(transactionId, "Get Calendar Feed Token");
+        return ResponseEntity.ok(response);
+    }
+
+    private ResponseEntity<Void> revokeTokens(Role owner, String username, Principal principal) {
+        String transactionId = TransactionLogger.generateTransactionId();
+        TransactionLogger.logTransactionStart(transactionId, "Revoke Calendar Feed Tokens");
+        if (!principal.getName().equals(username)) {
+            TransactionLogger.logResponseDetails(transactionId, HttpStatus.FORBIDDEN.value(), "Feed of another user");
+            TransactionLogger.logTransactionEnd(transactionId, "Revoke Calendar Feed Tokens Failed");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (!calendarFeedService.revokeTokens(owner, username, transactionId)) {
+            TransactionLogger.logResponseDetails(transactionId, HttpStatus.NOT_FOUND.value(), owner + " not found");
+            TransactionLogger.logTransactionEnd(transactionId, "Revoke Calendar Feed Tokens Failed");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        TransactionLogger.logResponseDetails(transactionId, HttpStatus.NO_CONTENT.value(), "Calendar feed tokens revoked");
+        TransactionLogger.logTransactionEnd(transactionId, "Revoke Calendar Feed Tokens");
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Serves the feed to a request with a bearer token as before, and otherwise only with the feed token of the
+     * owner's current generation; an anonymous request for an unknown owner is refused the same way as a bad token.
+     */
+    private ResponseEntity<StreamingResponseBody> calendar(Role owner, String username, String token, Principal principal,
+                                                           WebRequest webRequest, HttpServletRequest request) {
+        String transactionId = TransactionLogger.generateTransactionId();
+        TransactionLogger.logTransactionStart(transactionId, "Get Calendar Feed");
+        Map<String, String[]> parameters = new HashMap<>(request.getParameterMap());
+        parameters.remove(TOKEN_PARAM);
+        TransactionLogger.logRequestDetails(transactionId, request.getMethod(), request.getRequestURI(), parameters);
+
+        Optional<CalendarFeedVersion> version = calendarFeedService.findVersion(owner, username, transactionId);
+        if (principal == null && (version.isEmpty() || !calendarFeedService.isValidToken(owner, version.get(), token))) {
+            TransactionLogger.logResponseDetails(transactionId, HttpStatus.UNAUTHORIZED.value(), "Invalid calendar feed token");
+            TransactionLogger.logTransactionEnd(transactionId, "Get Calendar Feed Failed");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (version.isEmpty()) {
+            TransactionLogger.logResponseDetails(transactionId, HttpStatus.NOT_FOUND.value(), owner + " not found");
+            TransactionLogger.logTransactionEnd(transactionId, "Get Calendar Feed Failed");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        // Also sets the ETag and Last-Modified headers of the response.
+        if (webRequest.checkNotModified(version.get().getETag(), version.get().getLastModified().toEpochMilli())) {
+            TransactionLogger.logResponseDetails(transactionId, HttpStatus.NOT_MODIFIED.value(), "Calendar feed not modified");
+            TransactionLogger.logTransactionEnd(transactionId, "Get Calendar Feed");
+            return null;
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            calendarFeedService.writeFeed(owner, username, version.get(), outputStream, transactionId);
+            TransactionLogger.logTransactionEnd(transactionId, "Get Calendar Feed");
+        };
+        TransactionLogger.logResponseDetails(transactionId, HttpStatus.OK.value(), "Calendar Feed Started");
+        return ResponseEntity.ok()
+                .contentType(TEXT_CALENDAR)
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition(username))
+                .body(body);
+    }
+
+    // ContentDisposition quotes and escapes the name; only a non-ASCII name needs the RFC 5987 form.
+    private static String contentDisposition(String username) {
+        String filename = username + ".ics";
+        ContentDisposition.Builder inline = ContentDisposition.inline();
+        if (StandardCharsets.US_ASCII.newEncoder().canEncode(filename)) {
+            inline.filename(filename);
+        } else {
+            inline.filename(filename, StandardCharsets.UTF_8);
+        }
+        return inline.build().toString();
+    }
+}
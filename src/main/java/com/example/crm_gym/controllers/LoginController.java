@@ -1,8 +1,14 @@
 package com.example.crm_gym.controllers;
 
+import com.example.crm_gym.dto.PersonDTO;
+import com.example.crm_gym.exception.InvalidCredentialsException;
+import com.example.crm_gym.logger.TransactionLogger;
+import com.example.crm_gym.models.User;
+import com.example.crm_gym.security.Role;
 import com.example.crm_gym.services.UserService;
 import com.example.crm_gym.utils.JwtUtil;
 import io.swagger.annotations.Api;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -10,6 +16,7 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -28,12 +35,15 @@ public class LoginController {
     private JwtUtil jwtUtil;
 
     @PostMapping("/login")
-    public ResponseEntity<Map<String, String>> loginUser(@RequestBody Map<String, String> loginData) {
+    public ResponseEntity<Map<String, String>> loginUser(@RequestBody Map<String, String> loginData, HttpServletRequest request) {
         String username = loginData.get("username");
         String password = loginData.get("password");
 
-        userService.authenticateUser(username, password);
-        String token = jwtUtil.generateToken(username);
+        // The remote address is the client resolved from X-Forwarded-For by the container, which only trusts the header
+        // from internal proxies (server.forward-headers-strategy=native).
+        User user = userService.authenticateUser(username, password, request.getRemoteAddr())
+                .orElseThrow(() -> new InvalidCredentialsException("Invalid password for username: " + username));
+        String token = jwtUtil.generateToken(user, userService.getRole(user));
         Map<String, String> response = new HashMap<>();
         response.put("token", token);
         return ResponseEntity.ok(response);
@@ -50,4 +60,16 @@ public class LoginController {
         response.put("message", "Password updated successfully.");
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<PersonDTO>> searchPeople(@RequestParam("q") String query,
+                                                        @RequestParam(name = "size", required = false) Integer size) {
+        String transactionId = TransactionLogger.generateTransactionId();
+        TransactionLogger.logTransactionStart(transactionId, "Search People");
+
+        List<PersonDTO> people = userService.searchPeople(query, size, transactionId);
+
+        TransactionLogger.logTransactionEnd(transactionId, "Search People");
+        return ResponseEntity.ok(people);
+    }
 }
@@ -0,0 +1,81 @@
+package com.example.crm_gym.controllers;
+
+import com.example.crm_gym.dto.ReportGranularity;
+import com.example.crm_gym.dto.UtilizationReportDTO;
+import com.example.crm_gym.logger.TransactionLogger;
+import com.example.crm_gym.services.ReportService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Optional;
+
+@RestController
+@Slf4j
+@RequestMapping("/reports")
+@Api(produces = "application/json", value = "Operations for reporting on trainer activity")
+public class ReportController {
+
+    private final ReportService reportService;
+
+    @Autowired
+    public ReportController(ReportService reportService) {
+        this.reportService = reportService;
+    }
+
+    @GetMapping("/utilization")
+    @ApiOperation(value = "Get minutes taught by a trainer per day, week or month, by training type", response = UtilizationReportDTO.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Successfully built the utilization report."),
+            @ApiResponse(code = 404, message = "Trainer not found."),
+            @ApiResponse(code = 500, message = "Application failed to process the request.")
+    })
+    public ResponseEntity<?> getTrainerUtilization(
+            @RequestParam("trainerUsername") String trainerUsername,
+            @RequestParam(name = "granularity", defaultValue = "DAY") ReportGranularity granularity,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to,
+            HttpServletRequest request) {
+        String transactionId = TransactionLogger.generateTransactionId();
+        TransactionLogger.logTransactionStart(transactionId, "Get Trainer Utilization");
+        TransactionLogger.logRequestDetails(transactionId, request.getMethod(), request.getRequestURI(), request.getParameterMap());
+
+        Optional<UtilizationReportDTO> report = reportService.getTrainerUtilization(trainerUsername, granularity, from, to, transactionId);
+        if (report.isEmpty()) {
+            TransactionLogger.logResponseDetails(transactionId, HttpStatus.NOT_FOUND.value(), "Trainer not found");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Collections.singletonMap("error", "Trainer not found"));
+        }
+
+        TransactionLogger.logResponseDetails(transactionId, HttpStatus.OK.value(), "Trainer utilization retrieved");
+        TransactionLogger.logTransactionEnd(transactionId, "Get Trainer Utilization");
+        return ResponseEntity.ok(report.get());
+    }
+
+    @PostMapping("/utilization/rebuild")
+    @ApiOperation(value = "Rebuild the trainer utilization summary from the trainings table")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Successfully rebuilt the utilization summary."),
+            @ApiResponse(code = 403, message = "Only trainers may rebuild the summary."),
+            @ApiResponse(code = 500, message = "Application failed to process the request.")
+    })
+    public ResponseEntity<?> rebuildTrainerUtilization() {
+        String transactionId = TransactionLogger.generateTransactionId();
+        TransactionLogger.logTransactionStart(transactionId, "Rebuild Trainer Utilization");
+
+        int rows = reportService.rebuildTrainerUtilization(transactionId);
+
+        TransactionLogger.logTransactionEnd(transactionId, "Rebuild Trainer Utilization");
+        return ResponseEntity.ok(Collections.singletonMap("rows", rows));
+    }
+}
@@ -4,8 +4,11 @@ import com.example.crm_gym.dto.*;
 import com.example.crm_gym.logger.TransactionLogger;
 import com.example.crm_gym.models.Trainee;
 import com.example.crm_gym.models.Trainer;
+import com.example.crm_gym.security.Role;
+import com.example.crm_gym.services.RegistrationService;
 import com.example.crm_gym.services.TraineeService;
 import com.example.crm_gym.services.TrainerService;
+import com.example.crm_gym.services.TrainingService;
 import com.example.crm_gym.utils.JwtUtil;
 import io.micrometer.core.annotation.Timed;
 import io.swagger.annotations.Api;
@@ -31,12 +34,17 @@ public class TraineeController {
 
     private final TraineeService traineeService;
     private final TrainerService trainerService;
+    private final TrainingService trainingService;
+    private final RegistrationService registrationService;
     private final JwtUtil jwtUtil;
 
     @Autowired
-    public TraineeController(TraineeService traineeService, TrainerService trainerService, JwtUtil jwtUtil) {
+    public TraineeController(TraineeService traineeService, TrainerService trainerService, TrainingService trainingService,
+                             RegistrationService registrationService, JwtUtil jwtUtil) {
         this.traineeService = traineeService;
         this.trainerService = trainerService;
+        this.trainingService = trainingService;
+        this.registrationService = registrationService;
         this.jwtUtil = jwtUtil;
     }
 
@@ -63,7 +71,7 @@ public class TraineeController {
 
         Optional<Trainee> trainee = traineeService.create(firstName, lastName, dateOfBirth, address, transactionId);
         if (trainee.isPresent()) {
-            String token = jwtUtil.generateToken(trainee.get().getUser().getUsername());
+            String token = jwtUtil.generateToken(trainee.get().getUser(), Role.TRAINEE);
             Map<String, String> response = new HashMap<>();
             response.put("username", trainee.get().getUser().getUsername());
             response.put("password", trainee.get().getUser().getPassword());
@@ -77,6 +85,32 @@ public class TraineeController {
         }
     }
 
+    @PostMapping("/batch")
+    @ApiOperation(value = "Register a batch of trainees", response = RegistrationResultDTO.class, responseContainer = "List")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Batch processed, see per-row results"),
+            @ApiResponse(code = 400, message = "Batch is empty or too large"),
+            @ApiResponse(code = 500, message = "Application failed to process the request")
+    })
+    @Timed(value = "api.response.time", description = "API Response Time for Register Trainee Batch")
+    public ResponseEntity<?> registerTrainees(@RequestBody List<TraineeRegistrationDTO> trainees, HttpServletRequest request) {
+        String transactionId = TransactionLogger.generateTransactionId();
+        TransactionLogger.logTransactionStart(transactionId, "Trainee Batch Registration");
+        TransactionLogger.logRequestDetails(transactionId, request.getMethod(), request.getRequestURI(), request.getParameterMap());
+
+        if (trainees == null || trainees.isEmpty() || trainees.size() > registrationService.getMaxBatchSize()) {
+            TransactionLogger.logResponseDetails(transactionId, HttpStatus.BAD_REQUEST.value(), "Invalid batch size");
+            TransactionLogger.logTransactionEnd(transactionId, "Trainee Batch Registration Failed");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Collections.singletonMap("error",
+                    "Batch must contain between 1 and " + registrationService.getMaxBatchSize() + " trainees"));
+        }
+
+        List<RegistrationResultDTO> results = registrationService.registerTrainees(trainees, transactionId);
+        TransactionLogger.logResponseDetails(transactionId, HttpStatus.OK.value(), "Trainee batch processed");
+        TransactionLogger.logTransactionEnd(transactionId, "Trainee Batch Registration");
+        return ResponseEntity.ok(results);
+    }
+
     @GetMapping("/{username}")
     @ApiOperation(value = "Get a trainee", response = Trainee.class)
     @ApiResponses(value = {
@@ -160,10 +194,10 @@ public class TraineeController {
     }
 
     @GetMapping("/trainings")
-    @ApiOperation(value = "Get a trainee's trainings", response = Trainee.class)
+    @ApiOperation(value = "Get a page of a trainee's trainings, newest first", response = TrainingPageDTO.class)
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Successfully retrieved the trainee's trainings."),
-            @ApiResponse(code = 400, message = "Invalid input data."),
+            @ApiResponse(code = 400, message = "Invalid input data or cursor."),
             @ApiResponse(code = 404, message = "No trainings found for the given criteria."),
             @ApiResponse(code = 500, message = "Application failed to process the request.")
     })
@@ -173,15 +207,17 @@ public class TraineeController {
             @RequestParam(name = "toDate", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") Date toDate,
             @Valid @RequestParam(name = "trainerName", required = false) String trainerName,
             @Valid @RequestParam(name = "trainingType", required = false) String trainingTypeName,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", required = false) Integer size,
             HttpServletRequest request) {
         String transactionId = TransactionLogger.generateTransactionId();
         TransactionLogger.logTransactionStart(transactionId, "GetTrainee's Trainings");
         TransactionLogger.logRequestDetails(transactionId, request.getMethod(), request.getRequestURI(), request.getParameterMap());
 
-        Optional<List<TrainingDTO>> optionalTrainings = traineeService.getTrainingsByTraineeUsernameAndCriteria(username,
-                fromDate, toDate, trainerName, trainingTypeName, transactionId);
+        TrainingPageDTO page = trainingService.getTraineeTrainingsPage(username, fromDate, toDate, trainerName,
+                trainingTypeName, cursor, size, transactionId);
 
-        if (!optionalTrainings.isPresent() || optionalTrainings.get().isEmpty()) {
+        if (cursor == null && page.getTrainings().isEmpty()) {
             TransactionLogger.logResponseDetails(transactionId, HttpStatus.NOT_FOUND.value(), "No trainings found");
             TransactionLogger.logTransactionEnd(transactionId, "Get Trainee Trainings Failed");
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -190,7 +226,35 @@ public class TraineeController {
 
         TransactionLogger.logResponseDetails(transactionId, HttpStatus.OK.value(), "Get Trainee Trainings Success");
         TransactionLogger.logTransactionEnd(transactionId, "Get Trainee Trainings");
-        return ResponseEntity.ok(optionalTrainings.get());
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/dashboard")
+    @ApiOperation(value = "Get a trainee's training totals, weekly minutes, trend and streaks", response = TraineeDashboardDTO.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Successfully built the trainee's dashboard."),
+            @ApiResponse(code = 404, message = "Trainee not found."),
+            @ApiResponse(code = 500, message = "Application failed to process the request.")
+    })
+    public ResponseEntity<?> getTraineeDashboard(
+            @RequestParam("username") String username,
+            @RequestParam(name = "weeks", required = false) Integer weeks,
+            HttpServletRequest request) {
+        String transactionId = TransactionLogger.generateTransactionId();
+        TransactionLogger.logTransactionStart(transactionId, "Get Trainee Dashboard");
+        TransactionLogger.logRequestDetails(transactionId, request.getMethod(), request.getRequestURI(), request.getParameterMap());
+
+        Optional<TraineeDashboardDTO> dashboard = traineeService.getDashboard(username, weeks, transactionId);
+
+        if (dashboard.isEmpty()) {
+            TransactionLogger.logResponseDetails(transactionId, HttpStatus.NOT_FOUND.value(), "Trainee not found");
+            TransactionLogger.logTransactionEnd(transactionId, "Get Trainee Dashboard Failed");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Collections.singletonMap("error", "Trainee not found"));
+        }
+
+        TransactionLogger.logResponseDetails(transactionId, HttpStatus.OK.value(), "Get Trainee Dashboard Success");
+        TransactionLogger.logTransactionEnd(transactionId, "Get Trainee Dashboard");
+        return ResponseEntity.ok(dashboard.get());
     }
 
     @GetMapping("/trainers")
@@ -239,12 +303,18 @@ public class TraineeController {
         TransactionLogger.logTransactionStart(transactionId, "update Trainee's Trainers");
         TransactionLogger.logRequestDetails(transactionId, request.getMethod(), request.getRequestURI(), request.getParameterMap());
 
-        List<Trainer> trainers = trainerService.getTrainersByUsernames(trainerUsernames, transactionId);
-        List<TrainerDTO> updatedTrainerDTOs = traineeService.updateTraineeTrainers(username, trainers, transactionId);
+        Optional<List<TrainerDTO>> updatedTrainerDTOs = traineeService.updateTraineeTrainers(username, trainerUsernames, transactionId);
+
+        if (updatedTrainerDTOs.isEmpty()) {
+            TransactionLogger.logResponseDetails(transactionId, HttpStatus.NOT_FOUND.value(), "Trainee not found");
+            TransactionLogger.logTransactionEnd(transactionId, "updateTraineeTrainers");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Collections.singletonMap("error", "Trainee not found"));
+        }
 
         TransactionLogger.logResponseDetails(transactionId, HttpStatus.OK.value(), "Trainee's Trainers updated.");
         TransactionLogger.logTransactionEnd(transactionId, "updateTraineeTrainers");
-        return ResponseEntity.ok(updatedTrainerDTOs);
+        return ResponseEntity.ok(updatedTrainerDTOs.get());
     }
 
     @PatchMapping("/active")
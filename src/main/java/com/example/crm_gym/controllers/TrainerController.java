@@ -3,7 +3,10 @@ package com.example.crm_gym.controllers;
 import com.example.crm_gym.dto.*;
 import com.example.crm_gym.logger.TransactionLogger;
 import com.example.crm_gym.models.*;
+import com.example.crm_gym.security.Role;
+import com.example.crm_gym.services.RegistrationService;
 import com.example.crm_gym.services.TrainerService;
+import com.example.crm_gym.services.TrainingService;
 import com.example.crm_gym.utils.JwtUtil;
 import io.micrometer.core.annotation.Timed;
 import io.swagger.annotations.Api;
@@ -28,11 +31,16 @@ import java.util.*;
 public class TrainerController {
 
     private final TrainerService trainerService;
+    private final TrainingService trainingService;
+    private final RegistrationService registrationService;
     private final JwtUtil jwtUtil;
 
     @Autowired
-    public TrainerController(TrainerService trainerService, JwtUtil jwtUtil) {
+    public TrainerController(TrainerService trainerService, TrainingService trainingService,
+                             RegistrationService registrationService, JwtUtil jwtUtil) {
         this.trainerService = trainerService;
+        this.trainingService = trainingService;
+        this.registrationService = registrationService;
         this.jwtUtil = jwtUtil;
     }
 
@@ -57,7 +65,7 @@ public class TrainerController {
 
         Optional<Trainer> trainer = trainerService.create(firstName, lastName, specializationId, transactionId);
         if (trainer.isPresent()) {
-            String token = jwtUtil.generateToken(trainer.get().getUser().getUsername());
+            String token = jwtUtil.generateToken(trainer.get().getUser(), Role.TRAINER);
             Map<String, String> response = new HashMap<>();
             response.put("username", trainer.get().getUser().getUsername());
             response.put("password", trainer.get().getUser().getPassword());
@@ -74,6 +82,32 @@ public class TrainerController {
         }
     }
 
+    @PostMapping("/batch")
+    @ApiOperation(value = "Register a batch of trainers", response = RegistrationResultDTO.class, responseContainer = "List")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Batch processed, see per-row results"),
+            @ApiResponse(code = 400, message = "Batch is empty or too large"),
+            @ApiResponse(code = 500, message = "Application failed to process the request")
+    })
+    @Timed(value = "api.response.time", description = "API Response Time for Register Trainer Batch")
+    public ResponseEntity<?> registerTrainers(@RequestBody List<TrainerRegistrationDTO> trainers, HttpServletRequest request) {
+        String transactionId = TransactionLogger.generateTransactionId();
+        TransactionLogger.logTransactionStart(transactionId, "Trainer Batch Registration");
+        TransactionLogger.logRequestDetails(transactionId, request.getMethod(), request.getRequestURI(), request.getParameterMap());
+
+        if (trainers == null || trainers.isEmpty() || trainers.size() > registrationService.getMaxBatchSize()) {
+            TransactionLogger.logResponseDetails(transactionId, HttpStatus.BAD_REQUEST.value(), "Invalid batch size");
+            TransactionLogger.logTransactionEnd(transactionId, "Trainer Batch Registration Failed");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Collections.singletonMap("error",
+                    "Batch must contain between 1 and " + registrationService.getMaxBatchSize() + " trainers"));
+        }
+
+        List<RegistrationResultDTO> results = registrationService.registerTrainers(trainers, transactionId);
+        TransactionLogger.logResponseDetails(transactionId, HttpStatus.OK.value(), "Trainer batch processed");
+        TransactionLogger.logTransactionEnd(transactionId, "Trainer Batch Registration");
+        return ResponseEntity.ok(results);
+    }
+
     @GetMapping("/{username}")
     @ApiOperation(value = "Get a trainer", response = Trainer.class)
     @ApiResponses(value = {
@@ -135,11 +169,36 @@ public class TrainerController {
         }
     }
 
+    @GetMapping("/directory")
+    @ApiOperation(value = "Search the trainer directory with facet counts", response = TrainerDirectoryDTO.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Successfully searched the trainer directory."),
+            @ApiResponse(code = 500, message = "Application failed to process the request.")
+    })
+    public ResponseEntity<TrainerDirectoryDTO> searchDirectory(
+            @RequestParam(name = "specialization", required = false) TrainingTypeName specialization,
+            @RequestParam(name = "isActive", required = false) Boolean isActive,
+            @RequestParam(name = "minTrainees", required = false) Integer minTrainees,
+            @RequestParam(name = "maxTrainees", required = false) Integer maxTrainees,
+            @RequestParam(name = "size", required = false) Integer size,
+            HttpServletRequest request) {
+        String transactionId = TransactionLogger.generateTransactionId();
+        TransactionLogger.logTransactionStart(transactionId, "Search Trainer Directory");
+        TransactionLogger.logRequestDetails(transactionId, request.getMethod(), request.getRequestURI(), request.getParameterMap());
+
+        TrainerDirectoryDTO directory = trainerService.searchDirectory(specialization, isActive, minTrainees, maxTrainees,
+                size, transactionId);
+
+        TransactionLogger.logResponseDetails(transactionId, HttpStatus.OK.value(), "Trainer directory searched");
+        TransactionLogger.logTransactionEnd(transactionId, "Search Trainer Directory");
+        return ResponseEntity.ok(directory);
+    }
+
     @GetMapping("/trainings")
-    @ApiOperation(value = "Get a trainer's trainings", response = Trainer.class)
+    @ApiOperation(value = "Get a page of a trainer's trainings, newest first", response = TrainingPageDTO.class)
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Successfully retrieved the trainer's trainings."),
-            @ApiResponse(code = 400, message = "Invalid input data."),
+            @ApiResponse(code = 400, message = "Invalid input data or cursor."),
             @ApiResponse(code = 404, message = "No trainings found for the given criteria."),
             @ApiResponse(code = 500, message = "Application failed to process the request.")
     })
@@ -148,17 +207,19 @@ public class TrainerController {
             @RequestParam(name = "fromDate", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") Date fromDate,
             @RequestParam(name = "toDate", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") Date toDate,
             @RequestParam(name = "traineeName", required = false) String traineeName,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", required = false) Integer size,
             HttpServletRequest request) {
         String transactionId = TransactionLogger.generateTransactionId();
         TransactionLogger.logTransactionStart(transactionId, "Get Trainer's Trainings");
         TransactionLogger.logRequestDetails(transactionId, request.getMethod(), request.getRequestURI(), request.getParameterMap());
 
-        Optional<List<TrainingDTO>> optionalTrainingDTOs = trainerService.getTrainingsByTrainerUsernameAndCriteria(username,
-                fromDate, toDate, traineeName, transactionId);
-        if (optionalTrainingDTOs.isPresent() && !optionalTrainingDTOs.get().isEmpty()) {
+        TrainingPageDTO page = trainingService.getTrainerTrainingsPage(username, fromDate, toDate, traineeName,
+                cursor, size, transactionId);
+        if (cursor != null || !page.getTrainings().isEmpty()) {
             TransactionLogger.logResponseDetails(transactionId, HttpStatus.OK.value(), "Trainer's Trainings returned successfully");
             TransactionLogger.logTransactionEnd(transactionId, "Get Trainer's Trainings");
-            return ResponseEntity.ok(optionalTrainingDTOs.get());
+            return ResponseEntity.ok(page);
         } else {
             TransactionLogger.logResponseDetails(transactionId, HttpStatus.NOT_FOUND.value(), "No trainings found for the given criteria");
             TransactionLogger.logTransactionEnd(transactionId, "Get Trainer's Trainings");
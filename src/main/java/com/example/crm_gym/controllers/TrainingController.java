@@ -1,10 +1,13 @@
 package com.example.crm_gym.controllers;
 
+import com.example.crm_gym.dto.ExportFormat;
+import com.example.crm_gym.exception.UnsupportedExportFormatException;
 import com.example.crm_gym.logger.TransactionLogger;
 import com.example.crm_gym.models.Trainee;
 import com.example.crm_gym.models.Training;
 import com.example.crm_gym.services.TraineeService;
 import com.example.crm_gym.services.TrainerService;
+import com.example.crm_gym.services.TrainingExportService;
 import com.example.crm_gym.services.TrainingService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -15,10 +18,14 @@ import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalTime;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Map;
@@ -32,12 +39,15 @@ public class TrainingController {
     private final TrainingService trainingService;
     private final TraineeService traineeService;
     private final TrainerService trainerService;
+    private final TrainingExportService trainingExportService;
 
     @Autowired
-    public TrainingController(TrainingService trainingService, TraineeService traineeService, TrainerService trainerService) {
+    public TrainingController(TrainingService trainingService, TraineeService traineeService, TrainerService trainerService,
+                              TrainingExportService trainingExportService) {
         this.trainingService = trainingService;
         this.traineeService = traineeService;
         this.trainerService = trainerService;
+        this.trainingExportService = trainingExportService;
     }
 
     @PostMapping
@@ -45,7 +55,7 @@ public class TrainingController {
     @ApiResponses(value = {
             @ApiResponse(code = 201, message = "Successfully created a training"),
             @ApiResponse(code = 400, message = "Invalid input data"),
-            @ApiResponse(code = 409, message = "Conflict, training already exists"),
+            @ApiResponse(code = 409, message = "Conflict, the trainer or trainee already has a training at that time"),
             @ApiResponse(code = 500, message = "Application failed to process the request")
     })
     @ResponseStatus(HttpStatus.CREATED)
@@ -54,6 +64,7 @@ public class TrainingController {
             @Valid @RequestParam("trainerUsername") String trainerUsername,
             @Valid @RequestParam("trainingName") String trainingName,
             @Valid @RequestParam("trainingDate") @DateTimeFormat(pattern = "yyyy-MM-dd") Date trainingDate,
+            @RequestParam(name = "startTime", required = false) @DateTimeFormat(pattern = "HH:mm") LocalTime startTime,
             @Valid @RequestParam("trainingDuration") int trainingDuration,
             HttpServletRequest request) {
         String transactionId = TransactionLogger.generateTransactionId();
@@ -61,7 +72,7 @@ public class TrainingController {
         TransactionLogger.logRequestDetails(transactionId, request.getMethod(), request.getRequestURI(), request.getParameterMap());
 
         Optional<Training> createdTraining = trainingService.create(
-                traineeUsername, trainerUsername, trainingName, trainingDate, trainingDuration, transactionId);
+                traineeUsername, trainerUsername, trainingName, trainingDate, startTime, trainingDuration, transactionId);
 
         if (!createdTraining.isPresent()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -72,4 +83,39 @@ public class TrainingController {
                 .body(Collections.singletonMap("message", "Training created successfully"));
     }
 
+    @GetMapping("/export")
+    @ApiOperation(value = "Stream the training history as NDJSON or CSV")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Export started, rows are streamed as they are read"),
+            @ApiResponse(code = 400, message = "Unsupported export format"),
+            @ApiResponse(code = 500, message = "Application failed to process the request")
+    })
+    public ResponseEntity<StreamingResponseBody> exportTrainings(
+            @RequestParam(name = "format", defaultValue = "ndjson") String format,
+            @RequestParam(name = "trainerUsername", required = false) String trainerUsername,
+            @RequestParam(name = "fromDate", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") Date fromDate,
+            @RequestParam(name = "toDate", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") Date toDate,
+            HttpServletRequest request) {
+        String transactionId = TransactionLogger.generateTransactionId();
+        TransactionLogger.logTransactionStart(transactionId, "Export Trainings");
+        TransactionLogger.logRequestDetails(transactionId, request.getMethod(), request.getRequestURI(), request.getParameterMap());
+
+        ExportFormat exportFormat = ExportFormat.of(format).orElseThrow(() -> {
+            TransactionLogger.logResponseDetails(transactionId, HttpStatus.BAD_REQUEST.value(), "Unsupported export format");
+            TransactionLogger.logTransactionEnd(transactionId, "Export Trainings Failed");
+            return new UnsupportedExportFormatException("Unsupported export format: " + format);
+        });
+
+        StreamingResponseBody body = outputStream -> {
+            trainingExportService.export(exportFormat, trainerUsername, fromDate, toDate, outputStream, transactionId);
+            TransactionLogger.logTransactionEnd(transactionId, "Export Trainings");
+        };
+        TransactionLogger.logResponseDetails(transactionId, HttpStatus.OK.value(), "Export Trainings Started");
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"trainings." + exportFormat.getFileExtension() + "\"")
+                .body(body);
+    }
+
 }
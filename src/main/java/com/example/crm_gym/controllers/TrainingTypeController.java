@@ -1,5 +1,6 @@
 package com.example.crm_gym.controllers;
 
+import com.example.crm_gym.dto.TrainingTypeDTO;
 import com.example.crm_gym.logger.TransactionLogger;
 import com.example.crm_gym.models.Trainee;
 import com.example.crm_gym.models.TrainingType;
@@ -15,11 +16,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @RestController
 @Slf4j
@@ -43,16 +41,10 @@ public class TrainingTypeController {
     public ResponseEntity<?> getAllTrainingTypes() {
         String transactionId = TransactionLogger.generateTransactionId();
         TransactionLogger.logTransactionStart(transactionId, "Get Training Types");
-        List<TrainingType> trainingTypes = trainingTypeService.getAllTrainingTypes();
-        List<Map<String, Object>> response = trainingTypes.stream().map(type -> {
-            Map<String, Object> typeData = new HashMap<>();
-            typeData.put("id", type.getId());
-            typeData.put("name", type.getName().name());
-            return typeData;
-        }).collect(Collectors.toList());
+        List<TrainingTypeDTO> trainingTypes = trainingTypeService.getAllTrainingTypes();
         TransactionLogger.logResponseDetails(transactionId, HttpStatus.OK.value(), "Retrieving training types");
         TransactionLogger.logTransactionEnd(transactionId, "Get All Training type");
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(trainingTypes);
     }
 
     @PostMapping
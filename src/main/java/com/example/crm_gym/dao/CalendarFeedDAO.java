@@ -0,0 +1,18 @@
+package com.example.crm_gym.dao;
+
+import com.example.crm_gym.dto.CalendarFeedVersion;
+import com.example.crm_gym.security.Role;
+
+import java.util.Optional;
+
+public interface CalendarFeedDAO {
+    Optional<CalendarFeedVersion> findVersion(Role owner, String username);
+
+    void bump(Role owner, Long ownerId);
+
+    boolean revokeTokens(Role owner, String username);
+
+    void bumpTrainersOfTrainee(Long traineeId);
+
+    void bumpTraineesOfTrainer(Long trainerId);
+}
@@ -0,0 +1,30 @@
+package com.example.crm_gym.dao;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+public enum FetchPlan {
+    BASIC(null),
+    TRAINEE_PROFILE("Trainee.profile"),
+    TRAINER_CARD("Trainer.card"),
+    TRAINING_HISTORY("Training.history");
+
+    private static final String FETCH_GRAPH_HINT = "jakarta.persistence.fetchgraph";
+
+    private final String graphName;
+
+    FetchPlan(String graphName) {
+        this.graphName = graphName;
+    }
+
+    public String getGraphName() {
+        return graphName;
+    }
+
+    public <T> TypedQuery<T> applyTo(EntityManager entityManager, TypedQuery<T> query) {
+        if (graphName != null) {
+            query.setHint(FETCH_GRAPH_HINT, entityManager.getEntityGraph(graphName));
+        }
+        return query;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.crm_gym.dao;
+
+import com.example.crm_gym.dto.PersonDTO;
+
+import java.util.function.Consumer;
+
+public interface PeopleScanDAO {
+    long streamPeople(Consumer<PersonDTO> sink);
+}
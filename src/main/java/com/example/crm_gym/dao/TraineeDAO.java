@@ -1,16 +1,20 @@
 package com.example.crm_gym.dao;
 
+import com.example.crm_gym.dto.TraineeDTO;
 import com.example.crm_gym.models.Trainee;
 import com.example.crm_gym.models.Trainer;
 import com.example.crm_gym.models.Training;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface TraineeDAO extends BaseDAO<Trainee> {
     Optional<Trainee> save(Trainee trainee);
+    List<Trainee> saveAll(List<Trainee> trainees);
     boolean addTrainer(Trainee trainee, Trainer trainer);
+    boolean updateTrainers(Trainee trainee, List<Trainer> trainers);
     boolean addTraining(Trainee trainee, Training training);
     Optional<Trainee> update(Trainee updatedTrainee);
     boolean delete(Trainee trainee);
@@ -19,7 +23,9 @@ public interface TraineeDAO extends BaseDAO<Trainee> {
     boolean deleteTrainingFromList(Trainee trainee, Training training);
     Optional<Trainee> findById(Long id);
     Optional<Trainee> findByUsername(String username);
-    Optional<List<Trainer>> findTrainersNotAssignedToTraineeByUsername(String traineeUsername);
+    Optional<Trainee> findByUsername(String username, FetchPlan plan);
+    Optional<TraineeDTO> findProfileView(String username);
+    Map<String, List<Long>> findTrainerAssignments();
     Optional<List<Training>> findTrainingsByTraineeUsernameAndCriteria(String username, Date fromDate, Date toDate, String trainerName, String trainingTypeName);
     Optional<List<Trainee>> findAll();
 }
@@ -1,15 +1,18 @@
 package com.example.crm_gym.dao;
 
+import com.example.crm_gym.dto.TrainerDTO;
 import com.example.crm_gym.models.Trainee;
 import com.example.crm_gym.models.Trainer;
 import com.example.crm_gym.models.Training;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface TrainerDAO extends BaseDAO<Trainer> {
     Optional<Trainer> save(Trainer trainer);
+    List<Trainer> saveAll(List<Trainer> trainers);
     boolean addTrainee(Trainer trainer, Trainee trainee);
     boolean addTraining(Trainer trainer, Training training);
     Optional<Trainer> update(Trainer trainer);
@@ -20,8 +23,12 @@ public interface TrainerDAO extends BaseDAO<Trainer> {
     boolean deleteTrainingFromList(Trainer trainer, Training training);
     Optional<Trainer> findById(Long id);
     Optional<Trainer> findByUsername(String username);
+    Optional<Trainer> findByUsername(String username, FetchPlan plan);
+    Optional<TrainerDTO> findProfileView(String username);
     List<Trainer> findTrainersByUsernames(List<String> trainerUsernames);
-    Optional<List<Trainer>> findTrainersNotAssignedToTraineeByUsername(String traineeUsername);
+    List<Trainer> findTrainersByIds(List<Long> ids);
+    List<Long> findActiveTrainerIds();
+    Map<Long, Integer> countTraineesPerTrainer();
     Optional<List<Trainer>> findAll();
     Optional<List<Training>> findTrainingsByTrainerUsernameAndCriteria(String username, Date fromDate, Date toDate, String traineeName);
 }
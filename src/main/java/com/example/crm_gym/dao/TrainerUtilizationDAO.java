@@ -0,0 +1,14 @@
+package com.example.crm_gym.dao;
+
+import com.example.crm_gym.dto.UtilizationRowDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface TrainerUtilizationDAO {
+    void add(Long trainerId, LocalDate trainingDate, Long trainingTypeId, long minutes, int sessions);
+    void deleteByTrainer(Long trainerId);
+    List<UtilizationRowDTO> findAll();
+    List<UtilizationRowDTO> aggregateTraineeTrainings(Long traineeId);
+    int rebuild();
+}
@@ -1,6 +1,9 @@
 package com.example.crm_gym.dao;
 
+import com.example.crm_gym.dto.TrainingDTO;
+import com.example.crm_gym.dto.TrainingSlotDTO;
 import com.example.crm_gym.models.Training;
+import com.example.crm_gym.utils.TrainingCursor;
 
 import java.util.Date;
 import java.util.List;
@@ -14,4 +17,7 @@ public interface TrainingDAO extends BaseDAO<Training> {
     Optional<List<Training>> findAll();
     Optional<List<Training>> findTrainingsByTraineeUsernameAndCriteria(String username, Date fromDate, Date toDate, String trainerName, String trainingTypeName);
     Optional<List<Training>> findTrainingsByTrainerUsernameAndCriteria(String username, Date fromDate, Date toDate, String traineeName);
+    List<TrainingDTO> findTraineeTrainingsPage(String username, Date fromDate, Date toDate, String trainerName, String trainingTypeName, TrainingCursor after, int limit);
+    List<TrainingSlotDTO> findScheduledSlots();
+    List<TrainingDTO> findTrainerTrainingsPage(String username, Date fromDate, Date toDate, String traineeName, TrainingCursor after, int limit);
 }
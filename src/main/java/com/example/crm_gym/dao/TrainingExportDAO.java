@@ -0,0 +1,14 @@
+package com.example.crm_gym.dao;
+
+import com.example.crm_gym.dto.CalendarEntryDTO;
+import com.example.crm_gym.dto.TrainingExportRow;
+import com.example.crm_gym.security.Role;
+
+import java.util.Date;
+import java.util.function.Consumer;
+
+public interface TrainingExportDAO {
+    long streamTrainings(String trainerUsername, Date fromDate, Date toDate, Consumer<TrainingExportRow> sink);
+
+    long streamSchedule(Role owner, String username, Consumer<CalendarEntryDTO> sink);
+}
@@ -0,0 +1,9 @@
+package com.example.crm_gym.dao;
+
+import com.example.crm_gym.dto.TrainingFactDTO;
+
+import java.util.function.Consumer;
+
+public interface TrainingFactScanDAO {
+    long streamTrainingFacts(Consumer<TrainingFactDTO> sink);
+}
@@ -10,5 +10,6 @@ public interface TrainingTypeDAO extends BaseDAO<TrainingType> {
     Optional<TrainingType> update(TrainingType trainingType);
     boolean delete(TrainingType trainingType);
     Optional<TrainingType> findById(Long id);
+    TrainingType getReference(Long id);
     Optional<List<TrainingType>> findAll();
 }
@@ -1,9 +1,12 @@
 package com.example.crm_gym.dao;
 
 import com.example.crm_gym.models.User;
+import com.example.crm_gym.security.Role;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface UserDAO {
     boolean save(User user);
@@ -12,6 +15,9 @@ public interface UserDAO {
     boolean deleteByUsername(String username);
     Optional<User> findById(Long id);
     Optional<User> findByUsername(String username);
+    Role findRole(User user);
     Optional<User> findByFirstAndLastName(String firstName, String lastName);
     Optional<List<User>> findAll();
+    Set<String> findRegisteredNames(Collection<String> firstNames, Collection<String> lastNames);
+    String generateUniqueUsername(String firstName, String lastName);
 }
@@ -0,0 +1,5 @@
+package com.example.crm_gym.dao;
+
+public interface UsernameCounterDAO {
+    int nextSuffix(String baseName);
+}
@@ -0,0 +1,45 @@
+package com.example.crm_gym.dto;
+
+import com.example.crm_gym.models.TrainingTypeName;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Date;
+
+public class CalendarEntryDTO {
+    private final Long trainingId;
+    private final LocalDate trainingDate;
+    private final LocalTime startTime;
+    private final int trainingDuration;
+    private final String trainingName;
+    private final TrainingTypeName trainingType;
+    private final String traineeUsername;
+    private final String trainerUsername;
+
+    public CalendarEntryDTO(Long trainingId, Date trainingDate, LocalTime startTime, int trainingDuration, String trainingName,
+                            TrainingTypeName trainingType, String traineeUsername, String trainerUsername) {
+        this(trainingId, UtilizationRowDTO.toLocalDate(trainingDate), startTime, trainingDuration, trainingName, trainingType,
+                traineeUsername, trainerUsername);
+    }
+
+    public CalendarEntryDTO(Long trainingId, LocalDate trainingDate, LocalTime startTime, int trainingDuration, String trainingName,
+                            TrainingTypeName trainingType, String traineeUsername, String trainerUsername) {
+        this.trainingId = trainingId;
+        this.trainingDate = trainingDate;
+        this.startTime = startTime;
+        this.trainingDuration = trainingDuration;
+        this.trainingName = trainingName;
+        this.trainingType = trainingType;
+        this.traineeUsername = traineeUsername;
+        this.trainerUsername = trainerUsername;
+    }
+
+    public Long getTrainingId() { return trainingId; }
+    public LocalDate getTrainingDate() { return trainingDate; }
+    public LocalTime getStartTime() { return startTime; }
+    public int getTrainingDuration() { return trainingDuration; }
+    public String getTrainingName() { return trainingName; }
+    public TrainingTypeName getTrainingType() { return trainingType; }
+    public String getTraineeUsername() { return traineeUsername; }
+    public String getTrainerUsername() { return trainerUsername; }
+}
@@ -0,0 +1,40 @@
+package com.example.crm_gym.dto;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+public class CalendarFeedVersion {
+    private final Long ownerId;
+    private final String eTag;
+    private final Instant lastModified;
+    private final long tokenGeneration;
+
+    public CalendarFeedVersion(Long ownerId, String eTag, Instant lastModified, long tokenGeneration) {
+        this.ownerId = ownerId;
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+        this.tokenGeneration = tokenGeneration;
+    }
+
+    // The owner id keeps the tag from repeating for a new owner that takes over a deleted owner's username; HTTP dates
+    // carry whole seconds, so the version tells apart changes made within the same second.
+    public static CalendarFeedVersion of(Long ownerId, long version, Instant updatedAt, long tokenGeneration) {
+        return new CalendarFeedVersion(ownerId, "\"" + Long.toString(ownerId, 36) + "-" + Long.toString(version, 36) + "\"",
+                updatedAt.truncatedTo(ChronoUnit.SECONDS), tokenGeneration);
+    }
+
+    public Long getOwnerId() { return ownerId; }
+    public String getETag() { return eTag; }
+    public Instant getLastModified() { return lastModified; }
+    public long getTokenGeneration() { return tokenGeneration; }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof CalendarFeedVersion other && eTag.equals(other.eTag);
+    }
+
+    @Override
+    public int hashCode() {
+        return eTag.hashCode();
+    }
+}
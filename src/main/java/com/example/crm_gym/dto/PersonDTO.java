@@ -0,0 +1,29 @@
+package com.example.crm_gym.dto;
+
+import com.example.crm_gym.security.Role;
+
+public class PersonDTO {
+    private final String username;
+    private final String firstName;
+    private final String lastName;
+    private final boolean active;
+    private final Role role;
+
+    public PersonDTO(String username, String firstName, String lastName, Boolean active, Role role) {
+        this.username = username;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.active = Boolean.TRUE.equals(active);
+        this.role = role;
+    }
+
+    public PersonDTO(String username, String firstName, String lastName, Boolean active, String role) {
+        this(username, firstName, lastName, active, Role.valueOf(role));
+    }
+
+    public String getUsername() { return username; }
+    public String getFirstName() { return firstName; }
+    public String getLastName() { return lastName; }
+    public boolean isActive() { return active; }
+    public Role getRole() { return role; }
+}
@@ -0,0 +1,40 @@
+package com.example.crm_gym.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RegistrationResultDTO {
+    private int row;
+    private String username;
+    private String password;
+    private String error;
+
+    public RegistrationResultDTO(int row) {
+        this.row = row;
+    }
+
+    public static RegistrationResultDTO success(int row, String username, String password) {
+        RegistrationResultDTO result = new RegistrationResultDTO(row);
+        result.setUsername(username);
+        result.setPassword(password);
+        return result;
+    }
+
+    public static RegistrationResultDTO failure(int row, String error) {
+        RegistrationResultDTO result = new RegistrationResultDTO(row);
+        result.setError(error);
+        return result;
+    }
+
+    public int getRow() { return row; }
+    public void setRow(int row) { this.row = row; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public String getPassword() { return password; }
+    public void setPassword(String password) { this.password = password; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,25 @@
+package com.example.crm_gym.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+public enum ReportGranularity {
+    DAY,
+    WEEK,
+    MONTH;
+
+    public long bucketOf(LocalDate day) {
+        return switch (this) {
+            case DAY -> day.toEpochDay();
+            case WEEK -> day.with(DayOfWeek.MONDAY).toEpochDay();
+            case MONTH -> day.getYear() * 12L + day.getMonthValue() - 1;
+        };
+    }
+
+    public LocalDate startOf(long bucket) {
+        return switch (this) {
+            case DAY, WEEK -> LocalDate.ofEpochDay(bucket);
+            case MONTH -> LocalDate.of((int) (bucket / 12), (int) (bucket % 12) + 1, 1);
+        };
+    }
+}
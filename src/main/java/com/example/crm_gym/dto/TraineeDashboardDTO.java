@@ -0,0 +1,71 @@
+package com.example.crm_gym.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+public class TraineeDashboardDTO {
+    private String username;
+    private long sessions;
+    private long totalMinutes;
+    private Map<String, Long> minutesByType;
+    private List<Week> weeklyMinutes;
+    private double weeklyTrend;
+    private int currentStreakWeeks;
+    private int longestStreakWeeks;
+
+    public TraineeDashboardDTO(String username, long sessions, long totalMinutes, Map<String, Long> minutesByType,
+                               List<Week> weeklyMinutes, double weeklyTrend, int currentStreakWeeks, int longestStreakWeeks) {
+        this.username = username;
+        this.sessions = sessions;
+        this.totalMinutes = totalMinutes;
+        this.minutesByType = minutesByType;
+        this.weeklyMinutes = weeklyMinutes;
+        this.weeklyTrend = weeklyTrend;
+        this.currentStreakWeeks = currentStreakWeeks;
+        this.longestStreakWeeks = longestStreakWeeks;
+    }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public long getSessions() { return sessions; }
+    public void setSessions(long sessions) { this.sessions = sessions; }
+
+    public long getTotalMinutes() { return totalMinutes; }
+    public void setTotalMinutes(long totalMinutes) { this.totalMinutes = totalMinutes; }
+
+    public Map<String, Long> getMinutesByType() { return minutesByType; }
+    public void setMinutesByType(Map<String, Long> minutesByType) { this.minutesByType = minutesByType; }
+
+    public List<Week> getWeeklyMinutes() { return weeklyMinutes; }
+    public void setWeeklyMinutes(List<Week> weeklyMinutes) { this.weeklyMinutes = weeklyMinutes; }
+
+    public double getWeeklyTrend() { return weeklyTrend; }
+    public void setWeeklyTrend(double weeklyTrend) { this.weeklyTrend = weeklyTrend; }
+
+    public int getCurrentStreakWeeks() { return currentStreakWeeks; }
+    public void setCurrentStreakWeeks(int currentStreakWeeks) { this.currentStreakWeeks = currentStreakWeeks; }
+
+    public int getLongestStreakWeeks() { return longestStreakWeeks; }
+    public void setLongestStreakWeeks(int longestStreakWeeks) { this.longestStreakWeeks = longestStreakWeeks; }
+
+    public static class Week {
+        @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
+        private LocalDate weekStart;
+        private long minutes;
+
+        public Week(LocalDate weekStart, long minutes) {
+            this.weekStart = weekStart;
+            this.minutes = minutes;
+        }
+
+        public LocalDate getWeekStart() { return weekStart; }
+        public void setWeekStart(LocalDate weekStart) { this.weekStart = weekStart; }
+
+        public long getMinutes() { return minutes; }
+        public void setMinutes(long minutes) { this.minutes = minutes; }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.crm_gym.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TrainerDirectoryDTO {
+    private List<TrainerDTO> trainers;
+    private int total;
+    private Map<String, Map<String, Integer>> facets;
+
+    public TrainerDirectoryDTO(List<TrainerDTO> trainers, int total, Map<String, Map<String, Integer>> facets) {
+        this.trainers = trainers;
+        this.total = total;
+        this.facets = facets;
+    }
+
+    public List<TrainerDTO> getTrainers() { return trainers; }
+    public void setTrainers(List<TrainerDTO> trainers) { this.trainers = trainers; }
+
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+
+    public Map<String, Map<String, Integer>> getFacets() { return facets; }
+    public void setFacets(Map<String, Map<String, Integer>> facets) { this.facets = facets; }
+}
@@ -0,0 +1,25 @@
+package com.example.crm_gym.dto;
+
+public class TrainerRegistrationDTO {
+    private String firstName;
+    private String lastName;
+    private Long specializationId;
+
+    public TrainerRegistrationDTO() {
+    }
+
+    public TrainerRegistrationDTO(String firstName, String lastName, Long specializationId) {
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.specializationId = specializationId;
+    }
+
+    public String getFirstName() { return firstName; }
+    public void setFirstName(String firstName) { this.firstName = firstName; }
+
+    public String getLastName() { return lastName; }
+    public void setLastName(String lastName) { this.lastName = lastName; }
+
+    public Long getSpecializationId() { return specializationId; }
+    public void setSpecializationId(Long specializationId) { this.specializationId = specializationId; }
+}
@@ -0,0 +1,40 @@
+package com.example.crm_gym.dto;
+
+import com.example.crm_gym.models.TrainingTypeName;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+@JsonPropertyOrder({"id", "trainingDate", "trainingName", "trainingType", "trainingDuration", "traineeUsername", "trainerUsername"})
+public class TrainingExportRow {
+    private final Long id;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
+    private final LocalDate trainingDate;
+    private final String trainingName;
+    private final TrainingTypeName trainingType;
+    private final int trainingDuration;
+    private final String traineeUsername;
+    private final String trainerUsername;
+
+    public TrainingExportRow(Long id, Date trainingDate, String trainingName, TrainingTypeName trainingType,
+                             int trainingDuration, String traineeUsername, String trainerUsername) {
+        this.id = id;
+        this.trainingDate = new java.sql.Date(trainingDate.getTime()).toLocalDate();
+        this.trainingName = trainingName;
+        this.trainingType = trainingType;
+        this.trainingDuration = trainingDuration;
+        this.traineeUsername = traineeUsername;
+        this.trainerUsername = trainerUsername;
+    }
+
+    public Long getId() { return id; }
+    public LocalDate getTrainingDate() { return trainingDate; }
+    public String getTrainingName() { return trainingName; }
+    public TrainingTypeName getTrainingType() { return trainingType; }
+    public int getTrainingDuration() { return trainingDuration; }
+    public String getTraineeUsername() { return traineeUsername; }
+    public String getTrainerUsername() { return trainerUsername; }
+}
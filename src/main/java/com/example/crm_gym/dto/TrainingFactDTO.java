@@ -0,0 +1,31 @@
+package com.example.crm_gym.dto;
+
+import com.example.crm_gym.models.TrainingTypeName;
+
+import java.util.Date;
+
+public class TrainingFactDTO {
+    private final Long trainingId;
+    private final Long traineeId;
+    private final Long trainerId;
+    private final TrainingTypeName trainingType;
+    private final Date trainingDate;
+    private final int trainingDuration;
+
+    public TrainingFactDTO(Long trainingId, Long traineeId, Long trainerId, TrainingTypeName trainingType,
+                           Date trainingDate, int trainingDuration) {
+        this.trainingId = trainingId;
+        this.traineeId = traineeId;
+        this.trainerId = trainerId;
+        this.trainingType = trainingType;
+        this.trainingDate = trainingDate;
+        this.trainingDuration = trainingDuration;
+    }
+
+    public Long getTrainingId() { return trainingId; }
+    public Long getTraineeId() { return traineeId; }
+    public Long getTrainerId() { return trainerId; }
+    public TrainingTypeName getTrainingType() { return trainingType; }
+    public Date getTrainingDate() { return trainingDate; }
+    public int getTrainingDuration() { return trainingDuration; }
+}
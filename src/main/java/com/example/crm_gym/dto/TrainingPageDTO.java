@@ -0,0 +1,22 @@
+package com.example.crm_gym.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TrainingPageDTO {
+    private List<TrainingDTO> trainings;
+    private String nextCursor;
+
+    public TrainingPageDTO(List<TrainingDTO> trainings, String nextCursor) {
+        this.trainings = trainings;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<TrainingDTO> getTrainings() { return trainings; }
+    public void setTrainings(List<TrainingDTO> trainings) { this.trainings = trainings; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -0,0 +1,29 @@
+package com.example.crm_gym.dto;
+
+import java.time.LocalTime;
+import java.util.Date;
+
+public class TrainingSlotDTO {
+    private final Long trainingId;
+    private final Long trainerId;
+    private final Long traineeId;
+    private final Date trainingDate;
+    private final LocalTime startTime;
+    private final int trainingDuration;
+
+    public TrainingSlotDTO(Long trainingId, Long trainerId, Long traineeId, Date trainingDate, LocalTime startTime, int trainingDuration) {
+        this.trainingId = trainingId;
+        this.trainerId = trainerId;
+        this.traineeId = traineeId;
+        this.trainingDate = trainingDate;
+        this.startTime = startTime;
+        this.trainingDuration = trainingDuration;
+    }
+
+    public Long getTrainingId() { return trainingId; }
+    public Long getTrainerId() { return trainerId; }
+    public Long getTraineeId() { return traineeId; }
+    public Date getTrainingDate() { return trainingDate; }
+    public LocalTime getStartTime() { return startTime; }
+    public int getTrainingDuration() { return trainingDuration; }
+}
@@ -16,6 +16,11 @@ public class TrainingTypeDTO {
         this.name = name;
     }
 
+    public TrainingTypeDTO(Long id, TrainingTypeName name) {
+        this.id = id;
+        this.name = name;
+    }
+
     public Long getId() {
         return id;
     }
@@ -0,0 +1,50 @@
+package com.example.crm_gym.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+public class UtilizationReportDTO {
+    private String trainerUsername;
+    private ReportGranularity granularity;
+    private List<Bucket> buckets;
+
+    public UtilizationReportDTO(String trainerUsername, ReportGranularity granularity, List<Bucket> buckets) {
+        this.trainerUsername = trainerUsername;
+        this.granularity = granularity;
+        this.buckets = buckets;
+    }
+
+    public String getTrainerUsername() { return trainerUsername; }
+    public void setTrainerUsername(String trainerUsername) { this.trainerUsername = trainerUsername; }
+
+    public ReportGranularity getGranularity() { return granularity; }
+    public void setGranularity(ReportGranularity granularity) { this.granularity = granularity; }
+
+    public List<Bucket> getBuckets() { return buckets; }
+    public void setBuckets(List<Bucket> buckets) { this.buckets = buckets; }
+
+    public static class Bucket {
+        @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
+        private LocalDate periodStart;
+        private long totalMinutes;
+        private Map<String, Long> minutesByType;
+
+        public Bucket(LocalDate periodStart, long totalMinutes, Map<String, Long> minutesByType) {
+            this.periodStart = periodStart;
+            this.totalMinutes = totalMinutes;
+            this.minutesByType = minutesByType;
+        }
+
+        public LocalDate getPeriodStart() { return periodStart; }
+        public void setPeriodStart(LocalDate periodStart) { this.periodStart = periodStart; }
+
+        public long getTotalMinutes() { return totalMinutes; }
+        public void setTotalMinutes(long totalMinutes) { this.totalMinutes = totalMinutes; }
+
+        public Map<String, Long> getMinutesByType() { return minutesByType; }
+        public void setMinutesByType(Map<String, Long> minutesByType) { this.minutesByType = minutesByType; }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.crm_gym.dto;
+
+import com.example.crm_gym.models.TrainingTypeName;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+public class UtilizationRowDTO {
+    private final Long trainerId;
+    private final LocalDate trainingDate;
+    private final Long trainingTypeId;
+    private final TrainingTypeName trainingType;
+    private final long minutes;
+    private final long sessions;
+
+    public UtilizationRowDTO(Long trainerId, LocalDate trainingDate, Long trainingTypeId, TrainingTypeName trainingType,
+                             long minutes, long sessions) {
+        this.trainerId = trainerId;
+        this.trainingDate = trainingDate;
+        this.trainingTypeId = trainingTypeId;
+        this.trainingType = trainingType;
+        this.minutes = minutes;
+        this.sessions = sessions;
+    }
+
+    public UtilizationRowDTO(Long trainerId, Date trainingDate, Long trainingTypeId, TrainingTypeName trainingType,
+                             Long minutes, Long sessions) {
+        this(trainerId, toLocalDate(trainingDate), trainingTypeId, trainingType, minutes, sessions);
+    }
+
+    public static LocalDate toLocalDate(Date date) {
+        return date instanceof java.sql.Date sqlDate ? sqlDate.toLocalDate()
+                : date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    public Long getTrainerId() { return trainerId; }
+    public LocalDate getTrainingDate() { return trainingDate; }
+    public Long getTrainingTypeId() { return trainingTypeId; }
+    public TrainingTypeName getTrainingType() { return trainingType; }
+    public long getMinutes() { return minutes; }
+    public long getSessions() { return sessions; }
+}
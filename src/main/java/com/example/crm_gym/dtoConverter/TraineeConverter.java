@@ -2,10 +2,11 @@ package com.example.crm_gym.dtoConverter;
 
 import com.example.crm_gym.dto.TraineeDTO;
 import com.example.crm_gym.dto.TrainerDTO;
-import com.example.crm_gym.dto.TrainingTypeDTO;
 import com.example.crm_gym.dto.UserDTO;
 import com.example.crm_gym.models.Trainee;
 import com.example.crm_gym.models.User;
+import com.example.crm_gym.services.TrainingTypeRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -14,6 +15,13 @@ import java.util.stream.Collectors;
 @Component
 public class TraineeConverter implements Converter<TraineeDTO, Trainee> {
 
+    private final TrainingTypeRegistry trainingTypeRegistry;
+
+    @Autowired
+    public TraineeConverter(TrainingTypeRegistry trainingTypeRegistry) {
+        this.trainingTypeRegistry = trainingTypeRegistry;
+    }
+
     @Override
     public TraineeDTO convertToDto(Trainee trainee) {
         if (trainee == null) {
@@ -36,7 +44,7 @@ public class TraineeConverter implements Converter<TraineeDTO, Trainee> {
                                 trainer.getUser().getLastName(),
                                 trainer.getUser().isActive()
                         ),
-                        new TrainingTypeDTO(trainer.getSpecialization().getName())
+                        trainingTypeRegistry.toDto(trainer.getSpecialization())
                 )).collect(Collectors.toList());
 
         TraineeDTO traineeDTO = new TraineeDTO(
@@ -1,9 +1,10 @@
 package com.example.crm_gym.dtoConverter;
 
 import com.example.crm_gym.dto.TrainerDTO;
-import com.example.crm_gym.dto.TrainingTypeDTO;
 import com.example.crm_gym.dto.UserDTO;
 import com.example.crm_gym.models.Trainer;
+import com.example.crm_gym.services.TrainingTypeRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -12,6 +13,13 @@ import java.util.stream.Collectors;
 @Component
 public class TrainerConverter implements Converter<TrainerDTO, Trainer> {
 
+    private final TrainingTypeRegistry trainingTypeRegistry;
+
+    @Autowired
+    public TrainerConverter(TrainingTypeRegistry trainingTypeRegistry) {
+        this.trainingTypeRegistry = trainingTypeRegistry;
+    }
+
     @Override
     public TrainerDTO convertToDto(Trainer trainer) {
         if (trainer == null) {
@@ -25,9 +33,7 @@ public class TrainerConverter implements Converter<TrainerDTO, Trainer> {
                 trainer.getUser().isActive()
         );
 
-        TrainingTypeDTO trainingTypeDTO = new TrainingTypeDTO(trainer.getSpecialization().getName());
-
-        return new TrainerDTO(userDTO, trainingTypeDTO);
+        return new TrainerDTO(userDTO, trainingTypeRegistry.toDto(trainer.getSpecialization()));
     }
 
     @Override
@@ -2,9 +2,10 @@ package com.example.crm_gym.dtoConverter;
 
 import com.example.crm_gym.dto.TrainerDTO;
 import com.example.crm_gym.dto.TrainingDTO;
-import com.example.crm_gym.dto.TrainingTypeDTO;
 import com.example.crm_gym.dto.UserDTO;
 import com.example.crm_gym.models.Training;
+import com.example.crm_gym.services.TrainingTypeRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -13,6 +14,13 @@ import java.util.stream.Collectors;
 @Component
 public class TrainingConverter implements Converter<TrainingDTO, Training> {
 
+    private final TrainingTypeRegistry trainingTypeRegistry;
+
+    @Autowired
+    public TrainingConverter(TrainingTypeRegistry trainingTypeRegistry) {
+        this.trainingTypeRegistry = trainingTypeRegistry;
+    }
+
     @Override
     public TrainingDTO convertToDto(Training training) {
         if (training == null) {
@@ -26,13 +34,13 @@ public class TrainingConverter implements Converter<TrainingDTO, Training> {
                         training.getTrainer().getUser().getLastName(),
                         training.getTrainer().getUser().isActive()
                 ),
-                new TrainingTypeDTO(training.getTrainingType().getName())
+                trainingTypeRegistry.toDto(training.getTrainingType())
         );
 
         return new TrainingDTO(
                 training.getTrainingName(),
                 training.getTrainingDate(),
-                new TrainingTypeDTO(training.getTrainingType().getName()),
+                trainingTypeRegistry.toDto(training.getTrainingType()),
                 training.getTrainingDuration(),
                 trainerDTO
         );
@@ -0,0 +1,24 @@
+package com.example.crm_gym.events;
+
+import com.example.crm_gym.dto.PersonDTO;
+import com.example.crm_gym.models.User;
+import com.example.crm_gym.security.Role;
+
+/**
+ * A trainee or trainer was saved or had their name or active flag changed. The person is copied when the event is
+ * published, so listeners that run after commit see the state that was written.
+ */
+public class PersonChangedEvent {
+    private final PersonDTO person;
+
+    public PersonChangedEvent(PersonDTO person) {
+        this.person = person;
+    }
+
+    public static PersonChangedEvent of(User user, Role role) {
+        return new PersonChangedEvent(new PersonDTO(user.getUsername(), user.getFirstName(), user.getLastName(),
+                user.isActive(), role));
+    }
+
+    public PersonDTO getPerson() { return person; }
+}
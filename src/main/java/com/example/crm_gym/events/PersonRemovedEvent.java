@@ -0,0 +1,15 @@
+package com.example.crm_gym.events;
+
+/**
+ * A trainee or trainer is being deleted. Published before the rows are removed, so listeners that run inside the
+ * transaction can still read the person's trainings; listeners that run after commit only fire if the delete did.
+ */
+public class PersonRemovedEvent {
+    private final String username;
+
+    public PersonRemovedEvent(String username) {
+        this.username = username;
+    }
+
+    public String getUsername() { return username; }
+}
@@ -0,0 +1,12 @@
+package com.example.crm_gym.events;
+
+public class TraineeRemovedEvent extends PersonRemovedEvent {
+    private final Long traineeId;
+
+    public TraineeRemovedEvent(Long traineeId, String username) {
+        super(username);
+        this.traineeId = traineeId;
+    }
+
+    public Long getTraineeId() { return traineeId; }
+}
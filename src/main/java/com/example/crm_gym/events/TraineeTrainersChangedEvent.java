@@ -0,0 +1,38 @@
+package com.example.crm_gym.events;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Trainers were assigned to or unassigned from a trainee, or the trainee's whole list was replaced.
+ */
+public class TraineeTrainersChangedEvent {
+
+    public enum Change { ASSIGNED, UNASSIGNED, REPLACED }
+
+    private final String traineeUsername;
+    private final Change change;
+    private final List<Long> trainerIds;
+
+    public TraineeTrainersChangedEvent(String traineeUsername, Change change, Collection<Long> trainerIds) {
+        this.traineeUsername = traineeUsername;
+        this.change = change;
+        this.trainerIds = List.copyOf(trainerIds);
+    }
+
+    public static TraineeTrainersChangedEvent assigned(String traineeUsername, Long trainerId) {
+        return new TraineeTrainersChangedEvent(traineeUsername, Change.ASSIGNED, List.of(trainerId));
+    }
+
+    public static TraineeTrainersChangedEvent unassigned(String traineeUsername, Long trainerId) {
+        return new TraineeTrainersChangedEvent(traineeUsername, Change.UNASSIGNED, List.of(trainerId));
+    }
+
+    public static TraineeTrainersChangedEvent replaced(String traineeUsername, Collection<Long> trainerIds) {
+        return new TraineeTrainersChangedEvent(traineeUsername, Change.REPLACED, trainerIds);
+    }
+
+    public String getTraineeUsername() { return traineeUsername; }
+    public Change getChange() { return change; }
+    public List<Long> getTrainerIds() { return trainerIds; }
+}
@@ -0,0 +1,24 @@
+package com.example.crm_gym.events;
+
+import com.example.crm_gym.dto.PersonDTO;
+import com.example.crm_gym.models.Trainer;
+import com.example.crm_gym.security.Role;
+
+public class TrainerChangedEvent extends PersonChangedEvent {
+    private final Long trainerId;
+    private final Long specializationId;
+
+    public TrainerChangedEvent(Long trainerId, PersonDTO person, Long specializationId) {
+        super(person);
+        this.trainerId = trainerId;
+        this.specializationId = specializationId;
+    }
+
+    public static TrainerChangedEvent of(Trainer trainer) {
+        return new TrainerChangedEvent(trainer.getId(), of(trainer.getUser(), Role.TRAINER).getPerson(),
+                trainer.getSpecialization() == null ? null : trainer.getSpecialization().getId());
+    }
+
+    public Long getTrainerId() { return trainerId; }
+    public Long getSpecializationId() { return specializationId; }
+}
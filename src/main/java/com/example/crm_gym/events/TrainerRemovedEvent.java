@@ -0,0 +1,12 @@
+package com.example.crm_gym.events;
+
+public class TrainerRemovedEvent extends PersonRemovedEvent {
+    private final Long trainerId;
+
+    public TrainerRemovedEvent(Long trainerId, String username) {
+        super(username);
+        this.trainerId = trainerId;
+    }
+
+    public Long getTrainerId() { return trainerId; }
+}
@@ -0,0 +1,32 @@
+package com.example.crm_gym.events;
+
+import com.example.crm_gym.models.Training;
+
+/**
+ * A training was created, updated or deleted. Holds copies of the training before and after the change; the first
+ * is null for a new training and the second for a deleted one.
+ */
+public class TrainingChangedEvent {
+    private final TrainingSnapshot previous;
+    private final TrainingSnapshot current;
+
+    public TrainingChangedEvent(TrainingSnapshot previous, TrainingSnapshot current) {
+        this.previous = previous;
+        this.current = current;
+    }
+
+    public static TrainingChangedEvent created(Training training) {
+        return new TrainingChangedEvent(null, TrainingSnapshot.of(training));
+    }
+
+    public static TrainingChangedEvent updated(TrainingSnapshot previous, Training training) {
+        return new TrainingChangedEvent(previous, TrainingSnapshot.of(training));
+    }
+
+    public static TrainingChangedEvent removed(Training training) {
+        return new TrainingChangedEvent(TrainingSnapshot.of(training), null);
+    }
+
+    public TrainingSnapshot getPrevious() { return previous; }
+    public TrainingSnapshot getCurrent() { return current; }
+}
@@ -0,0 +1,50 @@
+package com.example.crm_gym.events;
+
+import com.example.crm_gym.models.Training;
+import com.example.crm_gym.models.TrainingType;
+
+import java.time.LocalTime;
+import java.util.Date;
+
+/**
+ * The ids and schedule of a training at the moment it was copied. Trainings without their own type count under the
+ * trainer's specialization.
+ */
+public class TrainingSnapshot {
+    private final Long trainingId;
+    private final Long traineeId;
+    private final Long trainerId;
+    private final Long trainingTypeId;
+    private final Date trainingDate;
+    private final LocalTime startTime;
+    private final int trainingDuration;
+
+    public TrainingSnapshot(Long trainingId, Long traineeId, Long trainerId, Long trainingTypeId, Date trainingDate,
+                            LocalTime startTime, int trainingDuration) {
+        this.trainingId = trainingId;
+        this.traineeId = traineeId;
+        this.trainerId = trainerId;
+        this.trainingTypeId = trainingTypeId;
+        this.trainingDate = trainingDate;
+        this.startTime = startTime;
+        this.trainingDuration = trainingDuration;
+    }
+
+    public static TrainingSnapshot of(Training training) {
+        TrainingType type = training.getTrainingType() != null || training.getTrainer() == null ? training.getTrainingType()
+                : training.getTrainer().getSpecialization();
+        return new TrainingSnapshot(training.getId(),
+                training.getTrainee() == null ? null : training.getTrainee().getId(),
+                training.getTrainer() == null ? null : training.getTrainer().getId(),
+                type == null ? null : type.getId(),
+                training.getTrainingDate(), training.getStartTime(), training.getTrainingDuration());
+    }
+
+    public Long getTrainingId() { return trainingId; }
+    public Long getTraineeId() { return traineeId; }
+    public Long getTrainerId() { return trainerId; }
+    public Long getTrainingTypeId() { return trainingTypeId; }
+    public Date getTrainingDate() { return trainingDate; }
+    public LocalTime getStartTime() { return startTime; }
+    public int getTrainingDuration() { return trainingDuration; }
+}
@@ -0,0 +1,4 @@
+package com.example.crm_gym.events;
+
+public class TrainingTypesChangedEvent {
+}
@@ -0,0 +1,7 @@
+package com.example.crm_gym.exception;
+
+public class BookingConflictException extends RuntimeException {
+    public BookingConflictException(String message) {
+        super(message);
+    }
+}
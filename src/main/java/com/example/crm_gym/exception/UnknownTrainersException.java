@@ -0,0 +1,16 @@
+package com.example.crm_gym.exception;
+
+import java.util.List;
+
+public class UnknownTrainersException extends RuntimeException {
+    private final List<String> usernames;
+
+    public UnknownTrainersException(List<String> usernames) {
+        super("Trainers not found: " + String.join(", ", usernames));
+        this.usernames = List.copyOf(usernames);
+    }
+
+    public List<String> getUsernames() {
+        return usernames;
+    }
+}
@@ -1,17 +1,37 @@
 package com.example.crm_gym.models;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import jakarta.validation.constraints.Size;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @Entity
 @Table(name = "trainees")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "trainee")
+@NaturalIdCache(region = "trainee-natural-id")
+@NamedEntityGraph(
+        name = "Trainee.profile",
+        attributeNodes = {
+                @NamedAttributeNode("user"),
+                @NamedAttributeNode(value = "trainers", subgraph = "trainer-card")
+        },
+        subgraphs = @NamedSubgraph(
+                name = "trainer-card",
+                attributeNodes = @NamedAttributeNode("user")
+        )
+)
 public class Trainee {
     @Id
-    @GeneratedValue(strategy=GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trainees_seq")
+    @SequenceGenerator(name = "trainees_seq", sequenceName = "trainees_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "date_of_birth")
@@ -22,19 +42,20 @@ public class Trainee {
     @Size(min = 10, max = 255, message = "Address name must be between 10 and 255 characters")
     private String address;
 
+    @NaturalId(mutable = true)
     @OneToOne(cascade = CascadeType.ALL)
     @JoinColumn(name = "user_id")
     private User user;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "trainee_trainer",
             joinColumns = @JoinColumn(name = "trainee_id"),
             inverseJoinColumns = @JoinColumn(name = "trainer_id")
     )
-    private List<Trainer> trainers = new ArrayList<>();
+    private Set<Trainer> trainers = new LinkedHashSet<>();
 
-    @OneToMany(mappedBy = "trainee", cascade = CascadeType.REMOVE, orphanRemoval = true, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "trainee", cascade = CascadeType.REMOVE, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<Training> trainings = new ArrayList<>();
 
     public Trainee(){
@@ -67,7 +88,7 @@ public class Trainee {
         return user;
     }
 
-    public List<Trainer> getTrainers() {
+    public Set<Trainer> getTrainers() {
         return trainers;
     }
 
@@ -87,7 +108,7 @@ public class Trainee {
         this.user = user;
     }
 
-    public void setTrainers(List<Trainer> trainers) {
+    public void setTrainers(Set<Trainer> trainers) {
         this.trainers = trainers;
     }
 
@@ -99,15 +120,29 @@ public class Trainee {
         this.trainings = trainings;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Trainee other)) {
+            return false;
+        }
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Trainee.class.hashCode();
+    }
+
     @Override
     public String toString() {
         return "Trainee{" +
                 "id=" + id +
                 ", dateOfBirth=" + dateOfBirth +
                 ", address='" + address + '\'' +
-                ", user=" + user +
-                ", trainers=" + trainers +
-                ", trainings=" + trainings +
+                ", username=" + (user != null ? user.getUsername() : null) +
                 '}';
     }
 }
@@ -1,27 +1,41 @@
 package com.example.crm_gym.models;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @Entity
 @Table(name = "trainers")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "trainer")
+@NaturalIdCache(region = "trainer-natural-id")
+@NamedEntityGraph(
+        name = "Trainer.card",
+        attributeNodes = @NamedAttributeNode("user")
+)
 public class Trainer {
     @Id
-    @GeneratedValue(strategy= GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trainers_seq")
+    @SequenceGenerator(name = "trainers_seq", sequenceName = "trainers_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "specialization_id", nullable = false)
     private TrainingType specialization;
 
+    @NaturalId(mutable = true)
     @OneToOne(cascade = CascadeType.ALL)
     @JoinColumn(name = "user_id", referencedColumnName = "userId")
     private User user;
 
-    @ManyToMany(mappedBy = "trainers", fetch = FetchType.EAGER)
-    private List<Trainee> trainees = new ArrayList<>();
+    @ManyToMany(mappedBy = "trainers", fetch = FetchType.LAZY)
+    private Set<Trainee> trainees = new LinkedHashSet<>();
 
     @OneToMany(mappedBy = "trainer", cascade = CascadeType.REMOVE, orphanRemoval = true)
     private List<Training> trainings = new ArrayList<>();
@@ -37,7 +51,7 @@ public class Trainer {
         this.user = user;
     }
 
-    public Trainer(TrainingType specialization, User user, List<Trainee> trainees, List<Training> trainings) {
+    public Trainer(TrainingType specialization, User user, Set<Trainee> trainees, List<Training> trainings) {
         this.specialization = specialization;
         this.user = user;
         this.trainees = trainees;
@@ -59,7 +73,7 @@ public class Trainer {
         return trainings;
     }
 
-    public List<Trainee> getTrainees() {
+    public Set<Trainee> getTrainees() {
         return trainees;
     }
 
@@ -71,7 +85,7 @@ public class Trainer {
         this.user = user;
     }
 
-    public void setTrainees(List<Trainee> trainees) {
+    public void setTrainees(Set<Trainee> trainees) {
         this.trainees = trainees;
     }
 
@@ -79,14 +93,27 @@ public class Trainer {
         this.trainings = trainings;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Trainer other)) {
+            return false;
+        }
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Trainer.class.hashCode();
+    }
+
     @Override
     public String toString() {
         return "Trainer{" +
                 "id=" + id +
-                ", specialization=" + specialization +
-                ", user=" + user +
-                ", trainees=" + trainees +
-                ", trainings=" + trainings +
+                ", username=" + (user != null ? user.getUsername() : null) +
                 '}';
     }
 }
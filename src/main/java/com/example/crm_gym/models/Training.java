@@ -3,20 +3,27 @@ package com.example.crm_gym.models;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Size;
 
+import java.time.LocalTime;
 import java.util.Date;
 
 @Entity
 @Table(name = "trainings")
+@NamedEntityGraph(
+        name = "Training.history",
+        attributeNodes = @NamedAttributeNode(value = "trainer", subgraph = "trainer-user"),
+        subgraphs = @NamedSubgraph(name = "trainer-user", attributeNodes = @NamedAttributeNode("user"))
+)
 public class Training {
     @Id
-    @GeneratedValue(strategy= GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trainings_seq")
+    @SequenceGenerator(name = "trainings_seq", sequenceName = "trainings_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "trainee_id")
     private Trainee trainee;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "trainer_id")
     private Trainer trainer;
 
@@ -32,6 +39,9 @@ public class Training {
     @Column(name = "training_date", nullable = false)
     private Date trainingDate;
 
+    @Column(name = "start_time")
+    private LocalTime startTime;
+
     @Column(name = "training_duration", nullable = false)
     private int trainingDuration;
 
@@ -85,6 +95,10 @@ public class Training {
         return trainingDate;
     }
 
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
     public int getTrainingDuration() {
         return trainingDuration;
     }
@@ -109,6 +123,10 @@ public class Training {
         this.trainingDate = trainingDate;
     }
 
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+    }
+
     public void setTrainingDuration(int trainingDuration) {
         this.trainingDuration = trainingDuration;
     }
@@ -117,11 +135,9 @@ public class Training {
     public String toString() {
         return "Training{" +
                 "id=" + id +
-                ", trainee=" + trainee +
-                ", trainer=" + trainer +
                 ", trainingName='" + trainingName + '\'' +
-                ", trainingType=" + trainingType +
                 ", trainingDate=" + trainingDate +
+                ", startTime=" + startTime +
                 ", trainingDuration=" + trainingDuration +
                 '}';
     }
@@ -15,10 +15,10 @@ public class TrainingType {
     @Enumerated(EnumType.STRING)
     private TrainingTypeName name;
 
-    @OneToMany(mappedBy = "trainingType", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "trainingType", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Training> trainings;
 
-    @OneToMany(mappedBy = "specialization", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "specialization", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Trainer> trainers;
 
     public TrainingType() {}
@@ -66,8 +66,6 @@ public class TrainingType {
         return "TrainingType{" +
                 "id=" + id +
                 ", name=" + name +
-                ", trainings=" + trainings +
-                ", trainers=" + (trainers != null ? "Trainers size: " + trainers.size() : null) +
                 '}';
     }
 }
\ No newline at end of file
@@ -3,13 +3,19 @@ package com.example.crm_gym.models;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
-import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 @Entity
 @Table(name = "users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
+@NaturalIdCache(region = "user-natural-id")
 public class User {
     @Id
-    @GeneratedValue(strategy= GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     @Column(name = "userid")
     private Long userId;
 
@@ -23,8 +29,8 @@ public class User {
     @NotNull(message = "Last Name is required")
     private String lastName;
 
+    @NaturalId
     @Column(nullable = false, unique = true)
-    @Immutable
     private String username;
 
     @Column(nullable = false)
@@ -33,12 +39,6 @@ public class User {
     @Column(name = "is_active", nullable = false)
     private Boolean isActive;
 
-    @OneToOne(mappedBy = "user", fetch = FetchType.EAGER)
-    private Trainee trainee;
-
-    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL)
-    private Trainer trainer;
-
     public User() {}
 
     public User(String firstName, String lastName) {
@@ -91,14 +91,6 @@ public class User {
         return isActive;
     }
 
-    public Trainee getTrainee() {
-        return trainee;
-    }
-
-    public Trainer getTrainer() {
-        return trainer;
-    }
-
     public void setUserId(Long userId) {
         this.userId = userId;
     }
@@ -123,14 +115,6 @@ public class User {
         isActive = active;
     }
 
-    public void setTrainee(Trainee trainee) {
-        this.trainee = trainee;
-    }
-
-    public void setTrainer(Trainer trainer) {
-        this.trainer = trainer;
-    }
-
     @Override
     public String toString() {
         return "User{" +
@@ -140,8 +124,6 @@ public class User {
                 ", username='" + username + '\'' +
                 ", password='" + password + '\'' +
                 ", isActive=" + isActive +
-                ", trainee=" + trainee +
-                ", trainer=" + trainer +
                 '}';
     }
 }
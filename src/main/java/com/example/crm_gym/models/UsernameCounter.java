@@ -0,0 +1,45 @@
+package com.example.crm_gym.models;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "username_counters")
+public class UsernameCounter {
+    @Id
+    @Column(name = "base_name")
+    private String baseName;
+
+    @Column(name = "last_suffix", nullable = false)
+    private int lastSuffix;
+
+    public UsernameCounter() {}
+
+    public UsernameCounter(String baseName, int lastSuffix) {
+        this.baseName = baseName;
+        this.lastSuffix = lastSuffix;
+    }
+
+    public String getBaseName() {
+        return baseName;
+    }
+
+    public int getLastSuffix() {
+        return lastSuffix;
+    }
+
+    public void setBaseName(String baseName) {
+        this.baseName = baseName;
+    }
+
+    public void setLastSuffix(int lastSuffix) {
+        this.lastSuffix = lastSuffix;
+    }
+
+    @Override
+    public String toString() {
+        return "UsernameCounter{" +
+                "baseName='" + baseName + '\'' +
+                ", lastSuffix=" + lastSuffix +
+                '}';
+    }
+}
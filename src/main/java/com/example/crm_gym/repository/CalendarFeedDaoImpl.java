@@ -0,0 +1,109 @@
+package com.example.crm_gym.repository;
+
+import com.example.crm_gym.dao.CalendarFeedDAO;
+import com.example.crm_gym.dto.CalendarFeedVersion;
+import com.example.crm_gym.exception.DaoException;
+import com.example.crm_gym.security.Role;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+@Transactional
+@Repository
+public class CalendarFeedDaoImpl implements CalendarFeedDAO {
+
+    // The feed columns are not mapped, so the statements name a query space of their own and leave cached
+    // trainers and trainees alone.
+    private static final String FEED_VERSIONS = "calendar_feed_versions";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<CalendarFeedVersion> findVersion(Role owner, String username) {
+        try {
+            List<Object[]> rows = statement("SELECT o.id, o.feed_version, o.feed_updated_at, o.feed_token_generation " +
+                            "FROM " + tableOf(owner) + " o " +
+                            "JOIN users u ON u.userid = o.user_id WHERE u.username = :username")
+                    .setParameter("username", username)
+                    .getResultList();
+            return rows.stream().findFirst().map(row -> CalendarFeedVersion.of(((Number) row[0]).longValue(),
+                    ((Number) row[1]).longValue(), ((Timestamp) row[2]).toInstant(), ((Number) row[3]).longValue()));
+        } catch (Exception e) {
+            log.error("Error reading calendar feed version of {} {}", owner, username, e);
+            throw new DaoException("Error reading calendar feed version of " + username, e);
+        }
+    }
+
+    @Override
+    public void bump(Role owner, Long ownerId) {
+        try {
+            statement("UPDATE " + tableOf(owner) + " SET feed_version = feed_version + 1, " +
+                    "feed_updated_at = CURRENT_TIMESTAMP WHERE id = :ownerId")
+                    .setParameter("ownerId", ownerId)
+                    .executeUpdate();
+        } catch (Exception e) {
+            log.error("Error bumping calendar feed version of {} with id: {}", owner, ownerId, e);
+            throw new DaoException("Error bumping calendar feed version of " + owner + " with id " + ownerId, e);
+        }
+    }
+
+    @Override
+    public boolean revokeTokens(Role owner, String username) {
+        try {
+            return statement("UPDATE " + tableOf(owner) + " SET feed_token_generation = feed_token_generation + 1 " +
+                    "WHERE user_id = (SELECT u.userid FROM users u WHERE u.username = :username)")
+                    .setParameter("username", username)
+                    .executeUpdate() > 0;
+        } catch (Exception e) {
+            log.error("Error revoking calendar feed tokens of {} {}", owner, username, e);
+            throw new DaoException("Error revoking calendar feed tokens of " + username, e);
+        }
+    }
+
+    @Override
+    public void bumpTrainersOfTrainee(Long traineeId) {
+        try {
+            statement("UPDATE trainers SET feed_version = feed_version + 1, feed_updated_at = CURRENT_TIMESTAMP " +
+                    "WHERE id IN (SELECT t.trainer_id FROM trainings t WHERE t.trainee_id = :traineeId)")
+                    .setParameter("traineeId", traineeId)
+                    .executeUpdate();
+        } catch (Exception e) {
+            log.error("Error bumping calendar feed versions of the trainers of trainee with id: {}", traineeId, e);
+            throw new DaoException("Error bumping calendar feed versions of trainee with id " + traineeId, e);
+        }
+    }
+
+    @Override
+    public void bumpTraineesOfTrainer(Long trainerId) {
+        try {
+            statement("UPDATE trainees SET feed_version = feed_version + 1, feed_updated_at = CURRENT_TIMESTAMP " +
+                    "WHERE id IN (SELECT t.trainee_id FROM trainings t WHERE t.trainer_id = :trainerId)")
+                    .setParameter("trainerId", trainerId)
+                    .executeUpdate();
+        } catch (Exception e) {
+            log.error("Error bumping calendar feed versions of the trainees of trainer with id: {}", trainerId, e);
+            throw new DaoException("Error bumping calendar feed versions of trainer with id " + trainerId, e);
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private NativeQuery statement(String sql) {
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(FEED_VERSIONS);
+    }
+
+    private static String tableOf(Role owner) {
+        return owner == Role.TRAINER ? "trainers" : "trainees";
+    }
+}
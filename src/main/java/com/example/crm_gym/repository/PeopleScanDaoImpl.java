@@ -0,0 +1,67 @@
+package com.example.crm_gym.repository;
+
+import com.example.crm_gym.dao.PeopleScanDAO;
+import com.example.crm_gym.dto.PersonDTO;
+import com.example.crm_gym.exception.DaoException;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.util.function.Consumer;
+
+// Deliberately not @Transactional, for the same reason as TrainingExportDaoImpl: the scan runs
+// through a stateless session so a full rebuild never fills a persistence context.
+@Slf4j
+@Repository
+public class PeopleScanDaoImpl implements PeopleScanDAO {
+
+    private static final String PEOPLE_HQL =
+            "SELECT new com.example.crm_gym.dto.PersonDTO(u.username, u.firstName, u.lastName, u.isActive, " +
+            "CASE WHEN tr.id IS NOT NULL THEN 'TRAINER' WHEN te.id IS NOT NULL THEN 'TRAINEE' ELSE 'USER' END) " +
+            "FROM User u LEFT JOIN Trainer tr ON tr.user = u LEFT JOIN Trainee te ON te.user = u";
+
+    private final SessionFactory sessionFactory;
+    private final int fetchSize;
+
+    @Autowired
+    public PeopleScanDaoImpl(EntityManagerFactory entityManagerFactory,
+                             @Value("${people.search.fetch-size:1000}") int fetchSize) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public long streamPeople(Consumer<PersonDTO> sink) {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Transaction transaction = session.beginTransaction();
+            try {
+                Query<PersonDTO> query = session.createQuery(PEOPLE_HQL, PersonDTO.class)
+                        .setFetchSize(fetchSize)
+                        .setReadOnly(true);
+                long count = 0;
+                try (ScrollableResults<PersonDTO> rows = query.scroll(ScrollMode.FORWARD_ONLY)) {
+                    while (rows.next()) {
+                        sink.accept(rows.get());
+                        count++;
+                    }
+                }
+                transaction.commit();
+                return count;
+            } catch (RuntimeException e) {
+                transaction.rollback();
+                throw e;
+            }
+        } catch (Exception e) {
+            log.error("Error streaming people for the search index", e);
+            throw new DaoException("Error streaming people for the search index", e);
+        }
+    }
+}
@@ -1,24 +1,30 @@
 package com.example.crm_gym.repository;
 
+import com.example.crm_gym.dao.FetchPlan;
 import com.example.crm_gym.dao.TraineeDAO;
+import com.example.crm_gym.dto.TraineeDTO;
+import com.example.crm_gym.dto.TrainerDTO;
+import com.example.crm_gym.dto.UserDTO;
 import com.example.crm_gym.exception.DaoException;
+import com.example.crm_gym.exception.HashingCapacityExceededException;
 import com.example.crm_gym.models.Trainee;
 import com.example.crm_gym.models.Trainer;
 import com.example.crm_gym.models.Training;
 import com.example.crm_gym.models.User;
+import com.example.crm_gym.services.TrainingTypeRegistry;
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.NoResultException;
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.PersistenceContext;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Date;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 @Slf4j
 @Transactional
@@ -30,22 +36,21 @@ public class TraineeDaoImpl implements TraineeDAO {
     private final UserDaoImpl userDao;
     private final TrainingDaoImpl trainingDao;
     private final TrainerDaoImpl trainerDao;
+    private final TrainingTypeRegistry trainingTypeRegistry;
 
     @Autowired
     @Lazy
-    public TraineeDaoImpl(UserDaoImpl userDao, TrainingDaoImpl trainingDao, TrainerDaoImpl trainerDao) {
+    public TraineeDaoImpl(UserDaoImpl userDao, TrainingDaoImpl trainingDao, TrainerDaoImpl trainerDao,
+                          TrainingTypeRegistry trainingTypeRegistry) {
         this.userDao = userDao;
         this.trainingDao = trainingDao;
         this.trainerDao = trainerDao;
+        this.trainingTypeRegistry = trainingTypeRegistry;
     }
 
     @Override
     public Optional<Trainee> save(Trainee trainee) {
         try {
-            Optional<User> existingUser = userDao.findByFirstAndLastName(trainee.getUser().getFirstName(), trainee.getUser().getLastName());
-            if (existingUser.isPresent() && existingUser.get().getTrainer() != null) {
-                throw new DaoException("User already registered.");
-            }
             boolean isUserSaved = userDao.save(trainee.getUser());
             if (!isUserSaved) {
                 throw new DaoException("Error saving user: " + trainee.getUser());
@@ -53,22 +58,41 @@ public class TraineeDaoImpl implements TraineeDAO {
             entityManager.persist(trainee);
             return Optional.of(trainee);
         }
+        catch (HashingCapacityExceededException e) {
+            throw e;
+        }
         catch(Exception e) {
             log.error("Error saving trainee: {}", trainee, e);
             throw new DaoException("Error saving trainee: " + trainee, e);
         }
     }
 
+    @Override
+    public List<Trainee> saveAll(List<Trainee> trainees) {
+        try {
+            for (Trainee trainee : trainees) {
+                entityManager.persist(trainee);
+            }
+            entityManager.flush();
+            entityManager.clear();
+            return trainees;
+        } catch (Exception e) {
+            log.error("Error saving batch of {} trainees", trainees.size(), e);
+            throw new DaoException("Error saving batch of " + trainees.size() + " trainees", e);
+        }
+    }
+
     @Override
     public boolean addTrainer(Trainee trainee, Trainer trainer) {
         try {
-            if (trainee.getTrainers().contains(trainer)) {
+            Trainee locked = lockAssignments(trainee);
+            if (!locked.getTrainers().add(trainer)) {
                 log.warn("Trainer with id {} is already associated with trainee with id {}", trainer.getId(), trainee.getId());
-                throw new DaoException("Trainer with id " + trainer.getId() + " already associated with trainee with id " + trainee.getId());
+                return false;
+            }
+            if (Hibernate.isInitialized(trainer.getTrainees())) {
+                trainer.getTrainees().add(locked);
             }
-            trainee.getTrainers().add(trainer);
-            trainer.getTrainees().add(trainee);
-            entityManager.merge(trainee);
             return true;
         } catch (Exception e) {
             log.error("Error adding trainer with id {} to trainee with id: {}", trainer.getId(), trainee.getId(), e);
@@ -76,6 +100,23 @@ public class TraineeDaoImpl implements TraineeDAO {
         }
     }
 
+    @Override
+    public boolean updateTrainers(Trainee trainee, List<Trainer> trainers) {
+        try {
+            Trainee locked = lockAssignments(trainee);
+            Set<Trainer> assigned = locked.getTrainers();
+            boolean removed = assigned.retainAll(new HashSet<>(trainers));
+            boolean added = false;
+            for (Trainer trainer : sortedById(trainers)) {
+                added |= assigned.add(trainer);
+            }
+            return removed || added;
+        } catch (Exception e) {
+            log.error("Error updating trainers of trainee with id: {}", trainee.getId(), e);
+            throw new DaoException("Error updating trainers of trainee with id " + trainee.getId(), e);
+        }
+    }
+
     @Override
     public boolean addTraining(Trainee trainee, Training training) {
         try {
@@ -122,45 +163,29 @@ public class TraineeDaoImpl implements TraineeDAO {
     @Override
     public boolean deleteByUsername(String username) {
         try {
-            entityManager.flush();
-            entityManager.clear();
-            Optional<User> optionalUser = userDao.findByUsername(username);
-            if (optionalUser.isPresent()) {
-                User user = optionalUser.get();
-                String hql = "FROM Trainee t WHERE t.user.id = :userId";
-                Trainee trainee = entityManager.createQuery(hql, Trainee.class)
-                        .setParameter("userId", user.getUserId())
-                        .getSingleResult();
-                entityManager.refresh(trainee);
-                if (Optional.ofNullable(trainee) != null) {
-                    return true;
-                }
-                return false;
-            } else {
-                log.error("User with username {} not found", username);
-                throw new DaoException("User with username " + username + " not found");
-            }
-        } catch (NoResultException e) {
-            log.warn("userId not found for trainee with username: {}", username, e);
-            throw new DaoException("userId not found for trainee with username: " + username, e);
+            Optional<Trainee> trainee = findByUsername(username);
+            trainee.ifPresent(entityManager::remove);
+            return trainee.isPresent();
         } catch (Exception e) {
-            log.error("Unexpected error occurred while deleting trainee by username: {}", username, e);
-            throw new DaoException("Unexpected error deleting trainee by username " + username, e);
+            log.error("Error deleting trainee by username: {}", username, e);
+            throw new DaoException("Error deleting trainee by username " + username, e);
         }
     }
 
     @Override
     public boolean deleteTrainerFromList(Trainee trainee, Trainer trainer) {
         try {
-            if (!trainee.getTrainers().contains(trainer)) {
-                log.warn("Training with id {} is not associated with trainee with id {}", trainer.getId(), trainee.getId());
-                throw new DaoException("Training with id " + trainee.getId() + " is not associated with trainee with id " + trainer.getId());
+            Trainee locked = lockAssignments(trainee);
+            if (!locked.getTrainers().remove(trainer)) {
+                log.warn("Trainer with id {} is not associated with trainee with id {}", trainer.getId(), trainee.getId());
+                return false;
+            }
+            if (Hibernate.isInitialized(trainer.getTrainees())) {
+                trainer.getTrainees().remove(locked);
             }
-            trainee.getTrainers().remove(trainer);
-            entityManager.merge(trainee);
             return true;
         } catch (Exception e) {
-            log.error("Error removing trainer with id {} from trainee with id: {}", trainee.getId(), trainer.getId(), e);
+            log.error("Error removing trainer with id {} from trainee with id: {}", trainer.getId(), trainee.getId(), e);
             throw new DaoException("Error removing trainer with id " + trainer.getId() + " from trainee with id " + trainee.getId(), e);
         }
     }
@@ -195,26 +220,22 @@ public class TraineeDaoImpl implements TraineeDAO {
 
     @Override
     public Optional<Trainee> findByUsername(String username) {
-        entityManager.flush();
-        entityManager.clear();
-        try {
-            Optional<User> optionalUser = userDao.findByUsername(username);
-            if (optionalUser.isPresent()) {
-                User user = optionalUser.get();
-                String hql = "FROM Trainee t WHERE t.user.id = :userId";
-                Trainee trainee = entityManager.createQuery(hql, Trainee.class)
-                        .setParameter("userId", user.getUserId())
-                        .getSingleResult();
-                entityManager.refresh(user);
-                entityManager.refresh(trainee);
-                return Optional.ofNullable(trainee);
-            } else {
-                log.error("User with username " + username + " not found");
-                throw new DaoException("Error finding trainee by username " + username);
+        return findByUsername(username, FetchPlan.BASIC);
+    }
+
+    @Override
+    public Optional<Trainee> findByUsername(String username, FetchPlan plan) {
+        try {
+            if (plan.getGraphName() == null) {
+                Session session = entityManager.unwrap(Session.class);
+                return session.bySimpleNaturalId(User.class).loadOptional(username)
+                        .flatMap(user -> session.bySimpleNaturalId(Trainee.class).loadOptional(user));
             }
-        } catch (NoResultException e) {
-            log.warn("User with username {} not found", username, e);
-            throw new DaoException("User with username " + username + " not found", e);
+            String hql = "SELECT t FROM Trainee t JOIN FETCH t.user u WHERE u.username = :username";
+            return plan.applyTo(entityManager, entityManager.createQuery(hql, Trainee.class))
+                    .setParameter("username", username)
+                    .getResultStream()
+                    .findFirst();
         } catch (Exception e) {
             log.error("Error finding trainee by username: {}", username, e);
             throw new DaoException("Error finding trainee by username " + username, e);
@@ -222,12 +243,51 @@ public class TraineeDaoImpl implements TraineeDAO {
     }
 
     @Override
-    public Optional<List<Trainer>> findTrainersNotAssignedToTraineeByUsername(String traineeUsername) {
+    public Optional<TraineeDTO> findProfileView(String username) {
+        try {
+            String hql = "SELECT u.username, u.firstName, u.lastName, u.isActive, t.dateOfBirth, t.address, " +
+                    "tu.username, tu.firstName, tu.lastName, tu.isActive, tr.specialization.id " +
+                    "FROM Trainee t JOIN t.user u " +
+                    "LEFT JOIN t.trainers tr LEFT JOIN tr.user tu " +
+                    "WHERE u.username = :username";
+            List<Object[]> rows = entityManager.createQuery(hql, Object[].class)
+                    .setParameter("username", username)
+                    .getResultList();
+            if (rows.isEmpty()) {
+                return Optional.empty();
+            }
+            Object[] first = rows.get(0);
+            TraineeDTO trainee = new TraineeDTO(
+                    new UserDTO((String) first[0], (String) first[1], (String) first[2], (Boolean) first[3]),
+                    (Date) first[4], (String) first[5]);
+            List<TrainerDTO> trainers = new ArrayList<>();
+            for (Object[] row : rows) {
+                if (row[6] != null) {
+                    trainers.add(new TrainerDTO(
+                            new UserDTO((String) row[6], (String) row[7], (String) row[8], (Boolean) row[9]),
+                            trainingTypeRegistry.findById((Long) row[10]).orElse(null)));
+                }
+            }
+            trainee.setTrainers(trainers);
+            return Optional.of(trainee);
+        } catch (Exception e) {
+            log.error("Error reading trainee profile by username: {}", username, e);
+            throw new DaoException("Error reading trainee profile by username " + username, e);
+        }
+    }
+
+    @Override
+    public Map<String, List<Long>> findTrainerAssignments() {
         try {
-            return trainerDao.findTrainersNotAssignedToTraineeByUsername(traineeUsername);
+            String hql = "SELECT u.username, tr.id FROM Trainee t JOIN t.user u JOIN t.trainers tr";
+            Map<String, List<Long>> assignments = new HashMap<>();
+            for (Object[] row : entityManager.createQuery(hql, Object[].class).getResultList()) {
+                assignments.computeIfAbsent((String) row[0], username -> new ArrayList<>()).add((Long) row[1]);
+            }
+            return assignments;
         } catch (Exception e) {
-            log.error("Error retrieving trainers not assigned to trainee with username: {}", traineeUsername, e);
-            throw new DaoException("Error retrieving trainers not assigned to trainee with username: " + traineeUsername, e);
+            log.error("Error retrieving trainer assignments", e);
+            throw new DaoException("Error retrieving trainer assignments", e);
         }
     }
 
@@ -244,7 +304,7 @@ public class TraineeDaoImpl implements TraineeDAO {
     @Override
     public Optional<List<Trainee>> findAll() {
         try {
-            String hql = "FROM Trainee";
+            String hql = "SELECT t FROM Trainee t JOIN FETCH t.user";
             List<Trainee> trainees = entityManager.createQuery(hql, Trainee.class).getResultList();
             return Optional.ofNullable(trainees);
         } catch (Exception e) {
@@ -252,4 +312,20 @@ public class TraineeDaoImpl implements TraineeDAO {
             throw new DaoException("Error finding trainees", e);
         }
     }
+
+    /**
+     * Every write to trainee_trainer goes through here: the trainee row is locked first and
+     * new rows are added in trainer id order, so concurrent updates always lock in the same order.
+     */
+    private Trainee lockAssignments(Trainee trainee) {
+        Trainee managed = entityManager.contains(trainee) ? trainee : entityManager.merge(trainee);
+        entityManager.lock(managed, LockModeType.PESSIMISTIC_WRITE);
+        return managed;
+    }
+
+    private static List<Trainer> sortedById(List<Trainer> trainers) {
+        List<Trainer> sorted = new ArrayList<>(trainers);
+        sorted.sort(Comparator.comparing(Trainer::getId));
+        return sorted;
+    }
 }
@@ -1,24 +1,27 @@
 package com.example.crm_gym.repository;
 
+import com.example.crm_gym.dao.FetchPlan;
 import com.example.crm_gym.dao.TraineeDAO;
 import com.example.crm_gym.dao.TrainerDAO;
 import com.example.crm_gym.dao.TrainingDAO;
 import com.example.crm_gym.dao.UserDAO;
+import com.example.crm_gym.dto.TrainerDTO;
+import com.example.crm_gym.dto.UserDTO;
 import com.example.crm_gym.exception.DaoException;
+import com.example.crm_gym.exception.HashingCapacityExceededException;
 import com.example.crm_gym.models.*;
+import com.example.crm_gym.services.TrainingTypeRegistry;
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Date;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 @Slf4j
 @Transactional
@@ -30,21 +33,20 @@ public class TrainerDaoImpl implements TrainerDAO {
     private EntityManager entityManager;
     private final UserDAO userDao;
     private final TrainingDAO trainingDao;
+    private final TrainingTypeRegistry trainingTypeRegistry;
 
     @Autowired
-    public TrainerDaoImpl(UserDAO userDao, TrainingDAO trainingDao, TraineeDAO traineeDao) {
+    public TrainerDaoImpl(UserDAO userDao, TrainingDAO trainingDao, TraineeDAO traineeDao,
+                          TrainingTypeRegistry trainingTypeRegistry) {
         this.userDao = userDao;
         this.trainingDao = trainingDao;
         this.traineeDao = traineeDao;
+        this.trainingTypeRegistry = trainingTypeRegistry;
     }
 
     @Override
     public Optional<Trainer> save(Trainer trainer) {
         try {
-            Optional<User> existingUser = userDao.findByFirstAndLastName(trainer.getUser().getFirstName(), trainer.getUser().getLastName());
-            if (existingUser.isPresent() && existingUser.get().getTrainee() != null) {
-                throw new DaoException("User already registered. Cannot register as a Trainer.");
-            }
             boolean isUserSaved = userDao.save(trainer.getUser());
             if (!isUserSaved) {
                 throw new DaoException("Error saving user: " + trainer.getUser());
@@ -52,6 +54,9 @@ public class TrainerDaoImpl implements TrainerDAO {
             entityManager.persist(trainer);
             return Optional.of(trainer);
         }
+        catch (HashingCapacityExceededException e) {
+            throw e;
+        }
         catch(Exception e) {
             log.error("Error saving trainer: {}", trainer, e);
             throw new DaoException("Error saving trainer: " + trainer, e);
@@ -59,24 +64,25 @@ public class TrainerDaoImpl implements TrainerDAO {
     }
 
     @Override
-    public boolean addTrainee(Trainer trainer, Trainee trainee) {
+    public List<Trainer> saveAll(List<Trainer> trainers) {
         try {
-            if (!trainer.getTrainees().contains(trainee)) {
-                trainer.getTrainees().add(trainee);
-                trainee.getTrainers().add(trainer);
-                traineeDao.addTrainer(trainee, trainer);
-                entityManager.merge(trainer);
-                return true;
-            } else {
-                log.warn("Trainee with id {} is already associated with trainer with id {}", trainee.getId(), trainer.getId());
-                return false;
+            for (Trainer trainer : trainers) {
+                entityManager.persist(trainer);
             }
+            entityManager.flush();
+            entityManager.clear();
+            return trainers;
         } catch (Exception e) {
-            log.error("Error adding trainee with id {} to trainer with id: {}", trainee.getId(), trainer.getId(), e);
-            throw new DaoException("Error adding trainee with id " + trainee.getId() + " to trainer with id " + trainer.getId(), e);
+            log.error("Error saving batch of {} trainers", trainers.size(), e);
+            throw new DaoException("Error saving batch of " + trainers.size() + " trainers", e);
         }
     }
 
+    @Override
+    public boolean addTrainee(Trainer trainer, Trainee trainee) {
+        return traineeDao.addTrainer(trainee, trainer);
+    }
+
     @Override
     public boolean addTraining(Trainer trainer, Training training) {
         try {
@@ -125,29 +131,11 @@ public class TrainerDaoImpl implements TrainerDAO {
     @Override
     public boolean deleteByUsername(String username) {
         try {
-            Optional<User> optionalUser = userDao.findByUsername(username);
-            if (optionalUser.isPresent()) {
-                User user = optionalUser.get();
-                Trainer trainer = entityManager.createQuery("SELECT t FROM Trainer t WHERE t.user.id = :userId", Trainer.class)
-                        .setParameter("userId", user.getUserId())
-                        .getSingleResult();
-                if (trainer != null) {
-                    Trainer attachedTrainer = entityManager.contains(trainer) ? trainer : entityManager.merge(trainer);
-                    entityManager.remove(attachedTrainer);
-                    return true;
-                } else {
-                    log.error("Trainer associated with user {} not found", username);
-                    throw new DaoException("Trainer associated with user " + username + " not found");
-                }
-            } else {
-                log.error("User with username {} not found", username);
-                throw new DaoException("User with username " + username + " not found");
-            }
-        } catch (NoResultException e) {
-            log.warn("userId not found for trainer with username: {}", username, e);
-            throw new DaoException("userId not found for trainer with username: " + username, e);
+            Optional<Trainer> trainer = findByUsername(username);
+            trainer.ifPresent(entityManager::remove);
+            return trainer.isPresent();
         } catch (Exception e) {
-            log.error("Error occurred while deleting trainer by username: {}", username, e);
+            log.error("Error deleting trainer by username: {}", username, e);
             throw new DaoException("Error deleting trainer by username " + username, e);
         }
     }
@@ -167,17 +155,7 @@ public class TrainerDaoImpl implements TrainerDAO {
 
     @Override
     public boolean deleteTraineeFromList(Trainer trainer, Trainee trainee) {
-        try {
-            if (trainer.getTrainees().remove(trainee)) {
-                entityManager.merge(trainer);
-                return true;
-            }
-            log.error("Trainee with id {} is not associated with trainer with id {}.", trainee.getId(), trainer.getId());
-            return false;
-        } catch (Exception e) {
-            log.error("Error removing trainee with id {} from trainer with id: {}", trainee.getId(), trainer.getId(), e);
-            throw new DaoException("Error removing trainee with id " + trainee.getId() + " from trainer with id " + trainer.getId(), e);
-        }
+        return traineeDao.deleteTrainerFromList(trainee, trainer);
     }
 
     @Override
@@ -209,22 +187,22 @@ public class TrainerDaoImpl implements TrainerDAO {
 
     @Override
     public Optional<Trainer> findByUsername(String username) {
-        try {
-            User user = userDao.findByUsername(username)
-                    .orElseThrow(() -> {
-                        log.error("User with username {} not found", username);
-                        return new DaoException("User with username " + username + " not found");
-                    });
-
-            String hql = "FROM Trainer t WHERE t.user.id = :userId";
-            Trainer trainer = entityManager.createQuery(hql, Trainer.class)
-                    .setParameter("userId", user.getUserId())
-                    .getSingleResult();
+        return findByUsername(username, FetchPlan.BASIC);
+    }
 
-            return Optional.ofNullable(trainer);
-        } catch (NoResultException e) {
-            log.warn("Trainer with username {} not found", username, e);
-            return Optional.empty();
+    @Override
+    public Optional<Trainer> findByUsername(String username, FetchPlan plan) {
+        try {
+            if (plan.getGraphName() == null) {
+                Session session = entityManager.unwrap(Session.class);
+                return session.bySimpleNaturalId(User.class).loadOptional(username)
+                        .flatMap(user -> session.bySimpleNaturalId(Trainer.class).loadOptional(user));
+            }
+            String hql = "SELECT t FROM Trainer t JOIN FETCH t.user u WHERE u.username = :username";
+            return plan.applyTo(entityManager, entityManager.createQuery(hql, Trainer.class))
+                    .setParameter("username", username)
+                    .getResultStream()
+                    .findFirst();
         } catch (Exception e) {
             log.error("Error finding trainer by username: {}", username, e);
             throw new DaoException("Error finding trainer by username " + username, e);
@@ -232,25 +210,59 @@ public class TrainerDaoImpl implements TrainerDAO {
     }
 
     @Override
-    public Optional<List<Trainer>> findTrainersNotAssignedToTraineeByUsername(String traineeUsername) {
+    public Optional<TrainerDTO> findProfileView(String username) {
         try {
-            String hql = "SELECT t FROM Trainer t WHERE t.id NOT IN " +
-                    "(SELECT tr.id FROM Trainee te JOIN te.trainers tr WHERE te.user.username = :username)" +
-                    " AND t.user.isActive = true";
+            String hql = "SELECT u.username, u.firstName, u.lastName, u.isActive, t.specialization.id " +
+                    "FROM Trainer t JOIN t.user u WHERE u.username = :username";
+            return entityManager.createQuery(hql, Object[].class)
+                    .setParameter("username", username)
+                    .getResultStream()
+                    .findFirst()
+                    .map(row -> new TrainerDTO(
+                            new UserDTO((String) row[0], (String) row[1], (String) row[2], (Boolean) row[3]),
+                            trainingTypeRegistry.findById((Long) row[4]).orElse(null)));
+        } catch (Exception e) {
+            log.error("Error reading trainer profile by username: {}", username, e);
+            throw new DaoException("Error reading trainer profile by username " + username, e);
+        }
+    }
 
-            TypedQuery<Trainer> query = entityManager.createQuery(hql, Trainer.class);
-            query.setParameter("username", traineeUsername);
+    @Override
+    public List<Trainer> findTrainersByIds(List<Long> ids) {
+        try {
+            String hql = "SELECT t FROM Trainer t WHERE t.id IN :ids ORDER BY t.id";
+            return FetchPlan.TRAINER_CARD.applyTo(entityManager, entityManager.createQuery(hql, Trainer.class))
+                    .setParameter("ids", ids)
+                    .getResultList();
+        } catch (Exception e) {
+            log.error("Error retrieving trainers by ids: {}", ids, e);
+            throw new DaoException("Error retrieving trainers by ids", e);
+        }
+    }
 
-            List<Trainer> trainers = query.getResultList();
+    @Override
+    public List<Long> findActiveTrainerIds() {
+        try {
+            return entityManager.createQuery("SELECT t.id FROM Trainer t WHERE t.user.isActive = true", Long.class)
+                    .getResultList();
+        } catch (Exception e) {
+            log.error("Error retrieving active trainer ids", e);
+            throw new DaoException("Error retrieving active trainer ids", e);
+        }
+    }
 
-            if (trainers.isEmpty()) {
-                log.info("No active trainers found not assigned to trainee with username: {}", traineeUsername);
-                return Optional.empty();
+    @Override
+    public Map<Long, Integer> countTraineesPerTrainer() {
+        try {
+            String hql = "SELECT tr.id, COUNT(t) FROM Trainee t JOIN t.trainers tr GROUP BY tr.id";
+            Map<Long, Integer> counts = new HashMap<>();
+            for (Object[] row : entityManager.createQuery(hql, Object[].class).getResultList()) {
+                counts.put((Long) row[0], ((Long) row[1]).intValue());
             }
-            return Optional.of(trainers);
+            return counts;
         } catch (Exception e) {
-            log.error("Error retrieving active trainers not assigned to trainee with username: {}", traineeUsername, e);
-            throw new DaoException("Error retrieving active trainers not assigned to trainee with username: " + traineeUsername, e);
+            log.error("Error counting trainees per trainer", e);
+            throw new DaoException("Error counting trainees per trainer", e);
         }
     }
 
@@ -258,7 +270,8 @@ public class TrainerDaoImpl implements TrainerDAO {
     public Optional<List<Trainer>> findAll() {
         try {
             String hql = "FROM Trainer";
-            List<Trainer> trainers = entityManager.createQuery(hql, Trainer.class).getResultList();
+            List<Trainer> trainers = FetchPlan.TRAINER_CARD.applyTo(entityManager, entityManager.createQuery(hql, Trainer.class))
+                    .getResultList();
             return Optional.ofNullable(trainers);
         } catch (Exception e) {
             log.error("Error finding trainers", e);
@@ -270,7 +283,7 @@ public class TrainerDaoImpl implements TrainerDAO {
     public List<Trainer> findTrainersByUsernames(List<String> trainerUsernames) {
         try {
             String hql = "SELECT t FROM Trainer t WHERE t.user.username IN :usernames";
-            TypedQuery<Trainer> query = entityManager.createQuery(hql, Trainer.class);
+            TypedQuery<Trainer> query = FetchPlan.TRAINER_CARD.applyTo(entityManager, entityManager.createQuery(hql, Trainer.class));
             query.setParameter("usernames", trainerUsernames);
             return query.getResultList();
         } catch (Exception e) {
@@ -0,0 +1,151 @@
+package com.example.crm_gym.repository;
+
+import com.example.crm_gym.dao.TrainerUtilizationDAO;
+import com.example.crm_gym.dto.UtilizationRowDTO;
+import com.example.crm_gym.exception.DaoException;
+import com.example.crm_gym.models.TrainingTypeName;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Transactional
+@Repository
+public class TrainerUtilizationDaoImpl implements TrainerUtilizationDAO {
+
+    private static final String SUMMARY_TABLE = "trainer_daily_utilization";
+
+    // H2 has no INSERT ... ON CONFLICT DO UPDATE, so a missing row is claimed with an insert that skips on conflict
+    // after an update that matched nothing; if a concurrent writer inserted it first, the update is retried.
+    private static final String ADD_SQL =
+            "UPDATE trainer_daily_utilization SET minutes = minutes + :minutes, sessions = sessions + :sessions " +
+            "WHERE trainer_id = :trainerId AND training_date = :trainingDate AND training_type_id = :trainingTypeId";
+    private static final String CLAIM_SQL =
+            "INSERT INTO trainer_daily_utilization (trainer_id, training_date, training_type_id, minutes, sessions) " +
+            "VALUES (:trainerId, :trainingDate, :trainingTypeId, :minutes, :sessions) ON CONFLICT DO NOTHING";
+    private static final String DELETE_EMPTY_SQL =
+            "DELETE FROM trainer_daily_utilization WHERE trainer_id = :trainerId AND training_date = :trainingDate " +
+            "AND training_type_id = :trainingTypeId AND sessions <= 0";
+    // One statement reads the trainings it aggregates, so no training committed before it starts is left out.
+    private static final String REBUILD_SQL =
+            "INSERT INTO trainer_daily_utilization (trainer_id, training_date, training_type_id, minutes, sessions) " +
+            "SELECT t.trainer_id, t.training_date, COALESCE(t.training_type_id, tr.specialization_id), " +
+            "SUM(t.training_duration), COUNT(*) " +
+            "FROM trainings t JOIN trainers tr ON tr.id = t.trainer_id " +
+            "GROUP BY t.trainer_id, t.training_date, COALESCE(t.training_type_id, tr.specialization_id)";
+    private static final String AGGREGATE_HQL =
+            "SELECT new com.example.crm_gym.dto.UtilizationRowDTO(tr.id, t.trainingDate, COALESCE(tt.id, sp.id), " +
+            "COALESCE(tt.name, sp.name), SUM(t.trainingDuration), COUNT(t)) " +
+            "FROM Training t JOIN t.trainer tr JOIN tr.specialization sp LEFT JOIN t.trainingType tt ";
+    private static final String AGGREGATE_GROUP_BY =
+            " GROUP BY tr.id, t.trainingDate, COALESCE(tt.id, sp.id), COALESCE(tt.name, sp.name)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void add(Long trainerId, LocalDate trainingDate, Long trainingTypeId, long minutes, int sessions) {
+        try {
+            int updated = countStatement(ADD_SQL, trainerId, trainingDate, trainingTypeId, minutes, sessions).executeUpdate();
+            if (updated == 0 && sessions > 0
+                    && countStatement(CLAIM_SQL, trainerId, trainingDate, trainingTypeId, minutes, sessions).executeUpdate() == 0) {
+                countStatement(ADD_SQL, trainerId, trainingDate, trainingTypeId, minutes, sessions).executeUpdate();
+            } else if (sessions < 0) {
+                summaryStatement(DELETE_EMPTY_SQL, trainerId, trainingDate, trainingTypeId).executeUpdate();
+            }
+        } catch (Exception e) {
+            log.error("Error adding {} minutes to trainer {} on {}", minutes, trainerId, trainingDate, e);
+            throw new DaoException("Error updating utilization of trainer with id " + trainerId, e);
+        }
+    }
+
+    @Override
+    public void deleteByTrainer(Long trainerId) {
+        try {
+            entityManager.createNativeQuery("DELETE FROM trainer_daily_utilization WHERE trainer_id = :trainerId")
+                    .unwrap(NativeQuery.class)
+                    .addSynchronizedQuerySpace(SUMMARY_TABLE)
+                    .setParameter("trainerId", trainerId)
+                    .executeUpdate();
+        } catch (Exception e) {
+            log.error("Error deleting utilization of trainer with id: {}", trainerId, e);
+            throw new DaoException("Error deleting utilization of trainer with id " + trainerId, e);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<UtilizationRowDTO> findAll() {
+        try {
+            String sql = "SELECT u.trainer_id, u.training_date, u.training_type_id, tt.name, u.minutes, u.sessions " +
+                    "FROM trainer_daily_utilization u JOIN training_types tt ON tt.id = u.training_type_id";
+            List<Object[]> rows = entityManager.createNativeQuery(sql).getResultList();
+            List<UtilizationRowDTO> result = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                result.add(new UtilizationRowDTO(((Number) row[0]).longValue(), ((Date) row[1]).toLocalDate(),
+                        ((Number) row[2]).longValue(), TrainingTypeName.valueOf((String) row[3]),
+                        ((Number) row[4]).longValue(), ((Number) row[5]).longValue()));
+            }
+            return result;
+        } catch (Exception e) {
+            log.error("Error retrieving trainer utilization", e);
+            throw new DaoException("Error retrieving trainer utilization", e);
+        }
+    }
+
+    @Override
+    public List<UtilizationRowDTO> aggregateTraineeTrainings(Long traineeId) {
+        try {
+            return entityManager.createQuery(AGGREGATE_HQL + "WHERE t.trainee.id = :traineeId" + AGGREGATE_GROUP_BY,
+                            UtilizationRowDTO.class)
+                    .setParameter("traineeId", traineeId)
+                    .getResultList();
+        } catch (Exception e) {
+            log.error("Error aggregating trainings of trainee with id: {}", traineeId, e);
+            throw new DaoException("Error aggregating trainings of trainee with id " + traineeId, e);
+        }
+    }
+
+    @Override
+    public int rebuild() {
+        try {
+            entityManager.createNativeQuery("DELETE FROM trainer_daily_utilization")
+                    .unwrap(NativeQuery.class)
+                    .addSynchronizedQuerySpace(SUMMARY_TABLE)
+                    .executeUpdate();
+            return entityManager.createNativeQuery(REBUILD_SQL)
+                    .unwrap(NativeQuery.class)
+                    .addSynchronizedQuerySpace(SUMMARY_TABLE)
+                    .executeUpdate();
+        } catch (Exception e) {
+            log.error("Error rebuilding trainer utilization", e);
+            throw new DaoException("Error rebuilding trainer utilization", e);
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private NativeQuery summaryStatement(String sql, Long trainerId, LocalDate trainingDate, Long trainingTypeId) {
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(SUMMARY_TABLE)
+                .setParameter("trainerId", trainerId)
+                .setParameter("trainingDate", Date.valueOf(trainingDate))
+                .setParameter("trainingTypeId", trainingTypeId);
+    }
+
+    @SuppressWarnings("rawtypes")
+    private NativeQuery countStatement(String sql, Long trainerId, LocalDate trainingDate, Long trainingTypeId, long minutes,
+                                       int sessions) {
+        return summaryStatement(sql, trainerId, trainingDate, trainingTypeId)
+                .setParameter("minutes", minutes)
+                .setParameter("sessions", sessions);
+    }
+}
@@ -1,19 +1,31 @@
 package com.example.crm_gym.repository;
 
+import com.example.crm_gym.dao.FetchPlan;
 import com.example.crm_gym.dao.TrainingDAO;
+import com.example.crm_gym.dto.TrainerDTO;
+import com.example.crm_gym.dto.TrainingDTO;
+import com.example.crm_gym.dto.TrainingSlotDTO;
+import com.example.crm_gym.dto.TrainingTypeDTO;
+import com.example.crm_gym.dto.UserDTO;
+import com.example.crm_gym.exception.BookingConflictException;
 import com.example.crm_gym.exception.DaoException;
 import com.example.crm_gym.models.*;
+import com.example.crm_gym.services.TrainingTypeRegistry;
+import com.example.crm_gym.utils.TrainingCursor;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.criteria.*;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Transactional
@@ -22,6 +34,12 @@ public class TrainingDaoImpl implements TrainingDAO {
 
     @PersistenceContext
     private EntityManager entityManager;
+    private final TrainingTypeRegistry trainingTypeRegistry;
+
+    @Autowired
+    public TrainingDaoImpl(TrainingTypeRegistry trainingTypeRegistry) {
+        this.trainingTypeRegistry = trainingTypeRegistry;
+    }
 
     @Override
     public Optional<Training> save(Training training) {
@@ -30,6 +48,12 @@ public class TrainingDaoImpl implements TrainingDAO {
             entityManager.flush();
             return Optional.of(training);
         } catch (Exception e) {
+            String constraint = violatedConstraint(e);
+            if (constraint != null && constraint.toLowerCase().startsWith("ex_trainings_")) {
+                log.warn("Training overlaps a session booked on another node: {}", training);
+                throw new BookingConflictException("Trainer or trainee already has a training overlapping " + training.getTrainingDate()
+                        + " at " + training.getStartTime());
+            }
             log.error("Error saving training: {}", training, e);
             throw new DaoException("Error saving training " + training, e);
         }
@@ -42,6 +66,12 @@ public class TrainingDaoImpl implements TrainingDAO {
             entityManager.flush();
             return updatedTraining;
         } catch (Exception e) {
+            String constraint = violatedConstraint(e);
+            if (constraint != null && constraint.toLowerCase().startsWith("ex_trainings_")) {
+                log.warn("Training update overlaps a session booked on another node: {}", updatedTraining);
+                throw new BookingConflictException("Trainer or trainee already has a training overlapping "
+                        + updatedTraining.getTrainingDate() + " at " + updatedTraining.getStartTime());
+            }
             log.error("Error updating training with id: {}", updatedTraining.getId(), e);
             throw new DaoException("Error updating training with id " + updatedTraining.getId(), e);
         }
@@ -87,35 +117,13 @@ public class TrainingDaoImpl implements TrainingDAO {
             CriteriaBuilder cb = entityManager.getCriteriaBuilder();
             CriteriaQuery<Training> query = cb.createQuery(Training.class);
             Root<Training> training = query.from(Training.class);
-
             Join<Training, Trainee> trainee = training.join("trainee");
             Join<Training, Trainer> trainer = training.join("trainer");
-            Join<Training, TrainingType> trainingType = training.join("trainingType");
-
-            Predicate criteria = cb.conjunction();
-
-            if (username != null && !username.isEmpty()) {
-                criteria = cb.and(criteria, cb.equal(trainee.get("user").get("username"), username));
-            }
-
-            if (fromDate != null) {
-                criteria = cb.and(criteria, cb.greaterThanOrEqualTo(training.get("trainingDate"), fromDate));
-            }
-            if (toDate != null) {
-                criteria = cb.and(criteria, cb.lessThanOrEqualTo(training.get("trainingDate"), toDate));
-            }
 
-            if (trainerName != null && !trainerName.isEmpty()) {
-                criteria = cb.and(criteria, cb.equal(trainer.get("user").get("username"), trainerName));
-            }
-
-            if (trainingTypeName != null && !trainingTypeName.isEmpty()) {
-                criteria = cb.and(criteria, cb.equal(trainingType.get("name"), trainingTypeName));
-            }
+            query.select(training).where(traineeCriteria(cb, training, trainee, trainer,
+                    username, fromDate, toDate, trainerName, trainingTypeName));
 
-            query.select(training).where(criteria);
-
-            TypedQuery<Training> typedQuery = entityManager.createQuery(query);
+            TypedQuery<Training> typedQuery = FetchPlan.TRAINING_HISTORY.applyTo(entityManager, entityManager.createQuery(query));
             List<Training> results = typedQuery.getResultList();
 
             if (results.isEmpty()) {
@@ -137,27 +145,11 @@ public class TrainingDaoImpl implements TrainingDAO {
             CriteriaBuilder cb = entityManager.getCriteriaBuilder();
             CriteriaQuery<Training> query = cb.createQuery(Training.class);
             Root<Training> training = query.from(Training.class);
-
             Join<Training, Trainer> trainer = training.join("trainer");
             Join<Training, Trainee> trainee = training.join("trainee");
 
-            Predicate criteria = cb.conjunction();
-
-            if (username != null && !username.isEmpty()) {
-                criteria = cb.and(criteria, cb.equal(trainer.get("user").get("username"), username));
-            }
-            if (fromDate != null) {
-                criteria = cb.and(criteria, cb.greaterThanOrEqualTo(training.get("trainingDate"), fromDate));
-            }
-            if (toDate != null) {
-                criteria = cb.and(criteria, cb.lessThanOrEqualTo(training.get("trainingDate"), toDate));
-            }
-            if (traineeName != null && !traineeName.isEmpty()) {
-                criteria = cb.and(criteria, cb.equal(trainee.get("user").get("username"), traineeName));
-            }
-
-            query.select(training).where(criteria);
-            TypedQuery<Training> typedQuery = entityManager.createQuery(query);
+            query.select(training).where(trainerCriteria(cb, training, trainer, trainee, username, fromDate, toDate, traineeName));
+            TypedQuery<Training> typedQuery = FetchPlan.TRAINING_HISTORY.applyTo(entityManager, entityManager.createQuery(query));
             List<Training> results = typedQuery.getResultList();
 
             if (results.isEmpty()) {
@@ -171,4 +163,133 @@ public class TrainingDaoImpl implements TrainingDAO {
         }
     }
 
+    @Override
+    public List<TrainingSlotDTO> findScheduledSlots() {
+        try {
+            String hql = "SELECT new com.example.crm_gym.dto.TrainingSlotDTO(t.id, t.trainer.id, t.trainee.id, t.trainingDate, "
+                    + "t.startTime, t.trainingDuration) FROM Training t WHERE t.startTime IS NOT NULL";
+            return entityManager.createQuery(hql, TrainingSlotDTO.class).getResultList();
+        } catch (Exception e) {
+            log.error("Error retrieving scheduled training slots", e);
+            throw new DaoException("Error retrieving scheduled training slots", e);
+        }
+    }
+
+    @Override
+    public List<TrainingDTO> findTraineeTrainingsPage(String username, Date fromDate, Date toDate, String trainerName,
+                                                      String trainingTypeName, TrainingCursor after, int limit) {
+        try {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+            Root<Training> training = query.from(Training.class);
+            Join<Training, Trainee> trainee = training.join("trainee");
+            Join<Training, Trainer> trainer = training.join("trainer");
+            Predicate criteria = traineeCriteria(cb, training, trainee, trainer,
+                    username, fromDate, toDate, trainerName, trainingTypeName);
+            return fetchPage(cb, query, training, trainer, criteria, after, limit);
+        } catch (Exception e) {
+            log.error("Error retrieving training page for trainee username: {}", username, e);
+            throw new DaoException("Error retrieving training page for trainee username: " + username, e);
+        }
+    }
+
+    @Override
+    public List<TrainingDTO> findTrainerTrainingsPage(String username, Date fromDate, Date toDate, String traineeName,
+                                                      TrainingCursor after, int limit) {
+        try {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+            Root<Training> training = query.from(Training.class);
+            Join<Training, Trainer> trainer = training.join("trainer");
+            Join<Training, Trainee> trainee = training.join("trainee");
+            Predicate criteria = trainerCriteria(cb, training, trainer, trainee, username, fromDate, toDate, traineeName);
+            return fetchPage(cb, query, training, trainer, criteria, after, limit);
+        } catch (Exception e) {
+            log.error("Error retrieving training page for trainer username: {}", username, e);
+            throw new DaoException("Error retrieving training page for trainer username: " + username, e);
+        }
+    }
+
+    private List<TrainingDTO> fetchPage(CriteriaBuilder cb, CriteriaQuery<Object[]> query, Root<Training> training,
+                                        Join<Training, Trainer> trainer, Predicate criteria, TrainingCursor after, int limit) {
+        Path<Date> trainingDate = training.get("trainingDate");
+        Path<Long> id = training.get("id");
+        if (after != null) {
+            criteria = cb.and(criteria, cb.or(
+                    cb.lessThan(trainingDate, after.getTrainingDate()),
+                    cb.and(cb.equal(trainingDate, after.getTrainingDate()), cb.lessThan(id, after.getId()))));
+        }
+        Join<Trainer, User> trainerUser = trainer.join("user");
+        query.multiselect(id, training.get("trainingName"), trainingDate, training.get("trainingType").get("id"),
+                        training.get("trainingDuration"), trainerUser.get("username"), trainerUser.get("firstName"),
+                        trainerUser.get("lastName"), trainerUser.get("isActive"))
+                .where(criteria)
+                .orderBy(cb.desc(trainingDate), cb.desc(id));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultStream()
+                .map(this::toHistoryView)
+                .collect(Collectors.toList());
+    }
+
+    private TrainingDTO toHistoryView(Object[] row) {
+        TrainingTypeDTO trainingType = trainingTypeRegistry.findById((Long) row[3]).orElse(null);
+        TrainerDTO trainer = new TrainerDTO(
+                new UserDTO((String) row[5], (String) row[6], (String) row[7], (Boolean) row[8]), trainingType);
+        TrainingDTO training = new TrainingDTO((String) row[1], (Date) row[2], trainingType, (Integer) row[4], trainer);
+        training.setId((Long) row[0]);
+        return training;
+    }
+
+    private Predicate traineeCriteria(CriteriaBuilder cb, Root<Training> training, Join<Training, Trainee> trainee,
+                                      Join<Training, Trainer> trainer, String username, Date fromDate, Date toDate,
+                                      String trainerName, String trainingTypeName) {
+        Predicate criteria = dateCriteria(cb, training, fromDate, toDate);
+        if (username != null && !username.isEmpty()) {
+            criteria = cb.and(criteria, cb.equal(trainee.get("user").get("username"), username));
+        }
+        if (trainerName != null && !trainerName.isEmpty()) {
+            criteria = cb.and(criteria, cb.equal(trainer.get("user").get("username"), trainerName));
+        }
+        if (trainingTypeName != null && !trainingTypeName.isEmpty()) {
+            criteria = cb.and(criteria, trainingTypeRegistry.findByName(trainingTypeName)
+                    .map(type -> cb.equal(training.get("trainingType").get("id"), type.getId()))
+                    .orElseGet(cb::disjunction));
+        }
+        return criteria;
+    }
+
+    private Predicate trainerCriteria(CriteriaBuilder cb, Root<Training> training, Join<Training, Trainer> trainer,
+                                      Join<Training, Trainee> trainee, String username, Date fromDate, Date toDate,
+                                      String traineeName) {
+        Predicate criteria = dateCriteria(cb, training, fromDate, toDate);
+        if (username != null && !username.isEmpty()) {
+            criteria = cb.and(criteria, cb.equal(trainer.get("user").get("username"), username));
+        }
+        if (traineeName != null && !traineeName.isEmpty()) {
+            criteria = cb.and(criteria, cb.equal(trainee.get("user").get("username"), traineeName));
+        }
+        return criteria;
+    }
+
+    private Predicate dateCriteria(CriteriaBuilder cb, Root<Training> training, Date fromDate, Date toDate) {
+        Predicate criteria = cb.conjunction();
+        if (fromDate != null) {
+            criteria = cb.and(criteria, cb.greaterThanOrEqualTo(training.get("trainingDate"), fromDate));
+        }
+        if (toDate != null) {
+            criteria = cb.and(criteria, cb.lessThanOrEqualTo(training.get("trainingDate"), toDate));
+        }
+        return criteria;
+    }
+
+
+    private static String violatedConstraint(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation.getConstraintName();
+            }
+        }
+        return null;
+    }
 }
@@ -0,0 +1,107 @@
+package com.example.crm_gym.repository;
+
+import com.example.crm_gym.dao.TrainingExportDAO;
+import com.example.crm_gym.dto.CalendarEntryDTO;
+import com.example.crm_gym.dto.TrainingExportRow;
+import com.example.crm_gym.exception.DaoException;
+import com.example.crm_gym.security.Role;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Deliberately not @Transactional: rows are read through a stateless session with its own
+// transaction so nothing is held in a persistence context while the export is being written.
+@Slf4j
+@Repository
+public class TrainingExportDaoImpl implements TrainingExportDAO {
+
+    private static final String EXPORT_HQL =
+            "SELECT new com.example.crm_gym.dto.TrainingExportRow(t.id, t.trainingDate, t.trainingName, tt.name, " +
+            "t.trainingDuration, traineeUser.username, trainerUser.username) " +
+            "FROM Training t " +
+            "JOIN t.trainee trainee JOIN trainee.user traineeUser " +
+            "JOIN t.trainer trainer JOIN trainer.user trainerUser " +
+            "LEFT JOIN t.trainingType tt " +
+            "WHERE (:trainerUsername IS NULL OR trainerUser.username = :trainerUsername) " +
+            "AND (:fromDate IS NULL OR t.trainingDate >= :fromDate) " +
+            "AND (:toDate IS NULL OR t.trainingDate <= :toDate) " +
+            "ORDER BY t.id";
+    private static final String SCHEDULE_HQL =
+            "SELECT new com.example.crm_gym.dto.CalendarEntryDTO(t.id, t.trainingDate, t.startTime, t.trainingDuration, " +
+            "t.trainingName, COALESCE(tt.name, sp.name), traineeUser.username, trainerUser.username) " +
+            "FROM Training t " +
+            "JOIN t.trainee trainee JOIN trainee.user traineeUser " +
+            "JOIN t.trainer trainer JOIN trainer.user trainerUser " +
+            "LEFT JOIN trainer.specialization sp LEFT JOIN t.trainingType tt ";
+
+    private final SessionFactory sessionFactory;
+    private final int fetchSize;
+
+    @Autowired
+    public TrainingExportDaoImpl(EntityManagerFactory entityManagerFactory,
+                                 @Value("${training.export.fetch-size:1000}") int fetchSize) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public long streamTrainings(String trainerUsername, Date fromDate, Date toDate, Consumer<TrainingExportRow> sink) {
+        try {
+            return scroll(session -> session.createQuery(EXPORT_HQL, TrainingExportRow.class)
+                    .setParameter("trainerUsername", trainerUsername)
+                    .setParameter("fromDate", fromDate)
+                    .setParameter("toDate", toDate), sink);
+        } catch (Exception e) {
+            log.error("Error streaming trainings for trainer username: {}", trainerUsername, e);
+            throw new DaoException("Error streaming trainings for export", e);
+        }
+    }
+
+    @Override
+    public long streamSchedule(Role owner, String username, Consumer<CalendarEntryDTO> sink) {
+        String ownerColumn = owner == Role.TRAINER ? "trainerUser.username" : "traineeUser.username";
+        try {
+            return scroll(session -> session.createQuery(SCHEDULE_HQL + "WHERE " + ownerColumn + " = :username " +
+                            "ORDER BY t.trainingDate, t.startTime, t.id", CalendarEntryDTO.class)
+                    .setParameter("username", username), sink);
+        } catch (Exception e) {
+            log.error("Error streaming schedule of {} {}", owner, username, e);
+            throw new DaoException("Error streaming schedule of " + username, e);
+        }
+    }
+
+    private <T> long scroll(Function<StatelessSession, Query<T>> queryFactory, Consumer<T> sink) {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Transaction transaction = session.beginTransaction();
+            try {
+                Query<T> query = queryFactory.apply(session)
+                        .setFetchSize(fetchSize)
+                        .setReadOnly(true);
+                long count = 0;
+                try (ScrollableResults<T> rows = query.scroll(ScrollMode.FORWARD_ONLY)) {
+                    while (rows.next()) {
+                        sink.accept(rows.get());
+                        count++;
+                    }
+                }
+                transaction.commit();
+                return count;
+            } catch (RuntimeException e) {
+                transaction.rollback();
+                throw e;
+            }
+        }
+    }
+}
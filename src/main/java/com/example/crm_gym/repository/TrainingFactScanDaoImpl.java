@@ -0,0 +1,67 @@
+package com.example.crm_gym.repository;
+
+import com.example.crm_gym.dao.TrainingFactScanDAO;
+import com.example.crm_gym.dto.TrainingFactDTO;
+import com.example.crm_gym.exception.DaoException;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.util.function.Consumer;
+
+// Deliberately not @Transactional, for the same reason as TrainingExportDaoImpl: the scan runs
+// through a stateless session so a full reload never fills a persistence context.
+@Slf4j
+@Repository
+public class TrainingFactScanDaoImpl implements TrainingFactScanDAO {
+
+    private static final String FACTS_HQL =
+            "SELECT new com.example.crm_gym.dto.TrainingFactDTO(t.id, t.trainee.id, tr.id, COALESCE(tt.name, sp.name), " +
+            "t.trainingDate, t.trainingDuration) " +
+            "FROM Training t JOIN t.trainer tr JOIN tr.specialization sp LEFT JOIN t.trainingType tt ORDER BY t.id";
+
+    private final SessionFactory sessionFactory;
+    private final int fetchSize;
+
+    @Autowired
+    public TrainingFactScanDaoImpl(EntityManagerFactory entityManagerFactory,
+                             @Value("${training.analytics.fetch-size:1000}") int fetchSize) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public long streamTrainingFacts(Consumer<TrainingFactDTO> sink) {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Transaction transaction = session.beginTransaction();
+            try {
+                Query<TrainingFactDTO> query = session.createQuery(FACTS_HQL, TrainingFactDTO.class)
+                        .setFetchSize(fetchSize)
+                        .setReadOnly(true);
+                long count = 0;
+                try (ScrollableResults<TrainingFactDTO> rows = query.scroll(ScrollMode.FORWARD_ONLY)) {
+                    while (rows.next()) {
+                        sink.accept(rows.get());
+                        count++;
+                    }
+                }
+                transaction.commit();
+                return count;
+            } catch (RuntimeException e) {
+                transaction.rollback();
+                throw e;
+            }
+        } catch (Exception e) {
+            log.error("Error streaming trainings for the analytics store", e);
+            throw new DaoException("Error streaming trainings for the analytics store", e);
+        }
+    }
+}
@@ -65,6 +65,11 @@ public class TrainingTypeDaoImpl implements TrainingTypeDAO {
         }
     }
 
+    @Override
+    public TrainingType getReference(Long id) {
+        return entityManager.getReference(TrainingType.class, id);
+    }
+
     @Override
     public Optional<List<TrainingType>> findAll() {
         try {
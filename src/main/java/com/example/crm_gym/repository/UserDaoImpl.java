@@ -1,23 +1,28 @@
 package com.example.crm_gym.repository;
 
 import com.example.crm_gym.dao.UserDAO;
+import com.example.crm_gym.dao.UsernameCounterDAO;
 import com.example.crm_gym.exception.DaoException;
+import com.example.crm_gym.exception.HashingCapacityExceededException;
 import com.example.crm_gym.models.User;
+import com.example.crm_gym.security.Role;
 import com.example.crm_gym.services.MetricsService;
 import com.example.crm_gym.utils.UserProfileUtil;
 import io.micrometer.core.instrument.Timer;
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Repository;
 
-import java.util.Collections;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Slf4j
 @Transactional
@@ -29,26 +34,20 @@ public class UserDaoImpl implements UserDAO {
 
     private final MetricsService metricsService;
     private final PasswordEncoder passwordEncoder;
+    private final UsernameCounterDAO usernameCounterDao;
 
     @Autowired
-    public UserDaoImpl(MetricsService metricsService, PasswordEncoder passwordEncoder) {
+    public UserDaoImpl(MetricsService metricsService, PasswordEncoder passwordEncoder, UsernameCounterDAO usernameCounterDao) {
         this.metricsService = metricsService;
         this.passwordEncoder = passwordEncoder;
+        this.usernameCounterDao = usernameCounterDao;
     }
 
     @Override
     public boolean save(User user) {
         Timer.Sample timerSample = metricsService.startQueryTimer();
         try {
-            Optional<User> optUser = findByFirstAndLastName(user.getFirstName(), user.getLastName());
-            if (optUser.isPresent()) {
-                User existingUser = optUser.get();
-                if (existingUser.getTrainer() != null) {
-                    throw new DaoException("User already registered as a Trainer.");
-                } else if (existingUser.getTrainee() != null) {
-                    throw new DaoException("User already registered as a Trainee.");
-                }
-            }
+            ensureNotRegistered(user.getFirstName(), user.getLastName());
             String username = generateUniqueUsername(user.getFirstName(), user.getLastName());
             String pass = UserProfileUtil.generatePassword();
             String hashPass = passwordEncoder.encode(pass);
@@ -56,7 +55,7 @@ public class UserDaoImpl implements UserDAO {
             user.setPassword(hashPass);
             entityManager.persist(user);
             return true;
-        } catch (DaoException e) {
+        } catch (DaoException | HashingCapacityExceededException e) {
             throw e;
         } catch (Exception e) {
             log.error("Error saving user: {}", user, e);
@@ -66,16 +65,38 @@ public class UserDaoImpl implements UserDAO {
         }
     }
 
+    @Override
     public String generateUniqueUsername(String firstName, String lastName) {
-        Optional<List<User>> optionalUsers = findAll();
-        List<User> existingUsers = optionalUsers.orElse(Collections.emptyList());
-        int suffix = 0;
-        while (true) {
-            String username = UserProfileUtil.generateUsername(firstName, lastName, suffix);
-            if (existingUsers.stream().noneMatch(t -> t.getUsername().equals(username))) {
-                return username;
-            }
-            suffix++;
+        String baseName = UserProfileUtil.generateUsername(firstName, lastName, 0);
+        String username = UserProfileUtil.generateUsername(firstName, lastName, usernameCounterDao.nextSuffix(baseName));
+        // Usernames are only assigned here, and each base name draws from its own counter, so a base name never hands
+        // out the same username twice. The one way two base names meet is a suffix: "Ann.Lee" with suffix 1 and
+        // "Ann.Lee1" with none are both "Ann.Lee1". That needs the username to end in a digit, so only those are
+        // checked against the users table, drawing the next suffix until one is free; every other username costs no
+        // extra query.
+        while (Character.isDigit(username.charAt(username.length() - 1)) && isUsernameTaken(username)) {
+            username = UserProfileUtil.generateUsername(firstName, lastName, usernameCounterDao.nextSuffix(baseName));
+        }
+        return username;
+    }
+
+    private boolean isUsernameTaken(String username) {
+        return entityManager.createQuery("SELECT COUNT(u) FROM User u WHERE u.username = :username", Long.class)
+                .setParameter("username", username)
+                .getSingleResult() > 0;
+    }
+
+    private void ensureNotRegistered(String firstName, String lastName) {
+        String hql = "SELECT COUNT(tr), COUNT(te) FROM User u LEFT JOIN Trainer tr ON tr.user = u LEFT JOIN Trainee te ON te.user = u " +
+                "WHERE u.firstName = :firstName AND u.lastName = :lastName";
+        Object[] counts = entityManager.createQuery(hql, Object[].class)
+                .setParameter("firstName", firstName)
+                .setParameter("lastName", lastName)
+                .getSingleResult();
+        if (((Number) counts[0]).longValue() > 0) {
+            throw new DaoException("User already registered as a Trainer.");
+        } else if (((Number) counts[1]).longValue() > 0) {
+            throw new DaoException("User already registered as a Trainee.");
         }
     }
 
@@ -113,10 +134,8 @@ public class UserDaoImpl implements UserDAO {
                 }
                 entityManager.remove(user);
                 return true;
-            } else {
-                log.error("User with username {} not found", username);
-                return false;
             }
+            return false;
         } catch (Exception e) {
             log.error("Error deleting user by username " + username, e);
             throw new DaoException("Error deleting user by username " + username, e);
@@ -137,20 +156,31 @@ public class UserDaoImpl implements UserDAO {
     @Override
     public Optional<User> findByUsername(String username) {
         try {
-            String hql = "FROM User u WHERE u.username = :username";
-            User user = entityManager.createQuery(hql, User.class)
-                    .setParameter("username", username)
-                    .getSingleResult();
-            return Optional.ofNullable(user);
-        } catch (NoResultException e) {
-            log.warn("No user found with username: {}", username);
-            throw new DaoException("No user found with username " + username, e);
+            return entityManager.unwrap(Session.class)
+                    .bySimpleNaturalId(User.class)
+                    .loadOptional(username);
         } catch (Exception e) {
             log.error("Error finding user with username " + username, e);
             throw new DaoException("Error finding user with username " + username, e);
         }
     }
 
+    @Override
+    public Role findRole(User user) {
+        try {
+            String hql = "SELECT CASE " +
+                    "WHEN EXISTS (SELECT 1 FROM Trainer t WHERE t.user = :user) THEN 'TRAINER' " +
+                    "WHEN EXISTS (SELECT 1 FROM Trainee t WHERE t.user = :user) THEN 'TRAINEE' " +
+                    "ELSE 'USER' END FROM User u WHERE u = :user";
+            return Role.valueOf(entityManager.createQuery(hql, String.class)
+                    .setParameter("user", user)
+                    .getSingleResult());
+        } catch (Exception e) {
+            log.error("Error resolving role for user {}", user.getUsername(), e);
+            throw new DaoException("Error resolving role for user " + user.getUsername(), e);
+        }
+    }
+
     @Override
     public Optional<User> findByFirstAndLastName(String firstName, String lastName) {
         try {
@@ -181,4 +211,25 @@ public class UserDaoImpl implements UserDAO {
             throw new DaoException("Error finding users", e);
         }
     }
+
+    @Override
+    public Set<String> findRegisteredNames(Collection<String> firstNames, Collection<String> lastNames) {
+        try {
+            String hql = "SELECT u.firstName, u.lastName FROM User u LEFT JOIN Trainer tr ON tr.user = u LEFT JOIN Trainee te ON te.user = u " +
+                    "WHERE u.firstName IN :firstNames AND u.lastName IN :lastNames " +
+                    "AND (tr.id IS NOT NULL OR te.id IS NOT NULL)";
+            List<Object[]> rows = entityManager.createQuery(hql, Object[].class)
+                    .setParameter("firstNames", firstNames)
+                    .setParameter("lastNames", lastNames)
+                    .getResultList();
+            Set<String> names = new HashSet<>();
+            for (Object[] row : rows) {
+                names.add(UserProfileUtil.generateUsername((String) row[0], (String) row[1], 0));
+            }
+            return names;
+        } catch (Exception e) {
+            log.error("Error finding registered users by names", e);
+            throw new DaoException("Error finding registered users by names", e);
+        }
+    }
 }
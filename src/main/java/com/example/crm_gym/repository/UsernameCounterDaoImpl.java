@@ -0,0 +1,76 @@
+package com.example.crm_gym.repository;
+
+import com.example.crm_gym.dao.UsernameCounterDAO;
+import com.example.crm_gym.exception.DaoException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+@Slf4j
+@Transactional
+@Repository
+public class UsernameCounterDaoImpl implements UsernameCounterDAO {
+
+    private static final String COUNTER_TABLE = "username_counters";
+
+    // Claims the next suffix for a base name in one statement; the row lock taken by the upsert
+    // serializes concurrent signups with the same first and last name.
+    private static final String ALLOCATE_SUFFIX_SQL =
+            "INSERT INTO username_counters (base_name, last_suffix) VALUES (:baseName, 0) " +
+            "ON CONFLICT (base_name) DO UPDATE SET last_suffix = username_counters.last_suffix + 1 " +
+            "RETURNING last_suffix";
+
+    // H2 has neither a conflict target nor RETURNING, so there the update row-locks an existing counter, a new base
+    // name is claimed with an insert that skips on conflict, and if a concurrent signup claimed it first the update is
+    // retried against the now committed row.
+    private static final String INCREMENT_SQL =
+            "UPDATE username_counters SET last_suffix = last_suffix + 1 WHERE base_name = :baseName";
+    private static final String CLAIM_SQL =
+            "INSERT INTO username_counters (base_name, last_suffix) VALUES (:baseName, 0) ON CONFLICT DO NOTHING";
+    private static final String READ_SQL =
+            "SELECT last_suffix FROM username_counters WHERE base_name = :baseName";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    private final boolean upsertReturning;
+
+    @Autowired
+    public UsernameCounterDaoImpl(EntityManagerFactory entityManagerFactory) {
+        this.upsertReturning = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+
+    @Override
+    public int nextSuffix(String baseName) {
+        try {
+            if (upsertReturning) {
+                return ((Number) statement(ALLOCATE_SUFFIX_SQL, baseName).getSingleResult()).intValue();
+            }
+            if (statement(INCREMENT_SQL, baseName).executeUpdate() == 0) {
+                if (statement(CLAIM_SQL, baseName).executeUpdate() == 1) {
+                    return 0;
+                }
+                statement(INCREMENT_SQL, baseName).executeUpdate();
+            }
+            return ((Number) statement(READ_SQL, baseName).getSingleResult()).intValue();
+        } catch (Exception e) {
+            log.error("Error allocating username suffix for base name: {}", baseName, e);
+            throw new DaoException("Error allocating username for " + baseName, e);
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private NativeQuery statement(String sql, String baseName) {
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(COUNTER_TABLE)
+                .setParameter("baseName", baseName);
+    }
+}
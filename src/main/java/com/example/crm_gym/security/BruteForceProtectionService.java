@@ -1,46 +1,73 @@
 package com.example.crm_gym.security;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.time.Clock;
+import java.time.Duration;
 
-import org.springframework.security.authentication.LockedException;
+import com.example.crm_gym.services.MetricsService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
 public class BruteForceProtectionService {
 
-    private static final int MAX_ATTEMPTS = 3;
-    private static final long LOCK_TIME_DURATION = 5;
-    private Map<String, Integer> attemptsCache = new ConcurrentHashMap<>();
-    private Map<String, LocalDateTime> lockoutTimeCache = new HashMap<>();
+    private static final int WINDOW_BUCKETS = 10;
+
+    private final LoginAttemptStore usernameAttempts;
+    private final LoginAttemptStore ipAttempts;
+
+    @Autowired
+    public BruteForceProtectionService(MetricsService metricsService,
+                                       @Value("${security.login.max-attempts:3}") int maxAttempts,
+                                       @Value("${security.login.ip-max-attempts:20}") int ipMaxAttempts,
+                                       @Value("${security.login.window:PT5M}") Duration window,
+                                       @Value("${security.login.lock-duration:PT5M}") Duration lockDuration,
+                                       @Value("${security.login.max-tracked-keys:100000}") int maxTrackedKeys) {
+        this.usernameAttempts = new LoginAttemptStore(maxAttempts, window, WINDOW_BUCKETS, lockDuration, maxTrackedKeys, Clock.systemUTC());
+        this.ipAttempts = new LoginAttemptStore(ipMaxAttempts, window, WINDOW_BUCKETS, lockDuration, maxTrackedKeys, Clock.systemUTC());
+        MeterRegistry registry = metricsService.getMeterRegistry();
+        registerMetrics(registry, "username", usernameAttempts);
+        registerMetrics(registry, "ip", ipAttempts);
+    }
 
     public void loginFailed(String username) {
-        int attempts = attemptsCache.getOrDefault(username, 0) + 1;
-        attemptsCache.put(username, attempts);
+        loginFailed(username, null);
+    }
 
-        if (attempts >= MAX_ATTEMPTS) {
-            lockoutTimeCache.put(username, LocalDateTime.now());
+    public void loginFailed(String username, String clientIp) {
+        if (username != null) {
+            usernameAttempts.recordFailure(username);
+        }
+        if (clientIp != null) {
+            ipAttempts.recordFailure(clientIp);
         }
     }
 
     public void loginSucceeded(String username) {
-        attemptsCache.remove(username);
-        lockoutTimeCache.remove(username);
+        usernameAttempts.reset(username);
     }
 
     public boolean isBlocked(String username) {
-        if (!lockoutTimeCache.containsKey(username)) {
-            return false;
-        }
+        return isBlocked(username, null);
+    }
 
-        LocalDateTime lockoutTime = lockoutTimeCache.get(username);
-        if (lockoutTime.plusMinutes(LOCK_TIME_DURATION).isBefore(LocalDateTime.now())) {
-            lockoutTimeCache.remove(username);
-            attemptsCache.remove(username);
-            return false;
-        }
-        return true;
+    public boolean isBlocked(String username, String clientIp) {
+        return (username != null && usernameAttempts.isLocked(username))
+                || (clientIp != null && ipAttempts.isLocked(clientIp));
+    }
+
+    private static void registerMetrics(MeterRegistry registry, String scope, LoginAttemptStore store) {
+        Gauge.builder("security.login.tracked.keys", store, LoginAttemptStore::trackedKeys)
+                .tag("scope", scope)
+                .register(registry);
+        FunctionCounter.builder("security.login.evictions", store, LoginAttemptStore::evictions)
+                .tag("scope", scope)
+                .register(registry);
+        FunctionCounter.builder("security.login.overflows", store, LoginAttemptStore::overflows)
+                .tag("scope", scope)
+                .register(registry);
     }
-}
\ No newline at end of file
+}
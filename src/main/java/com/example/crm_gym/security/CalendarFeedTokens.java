@@ -0,0 +1,71 @@
+package com.example.crm_gym.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Signs calendar feed URLs. Calendar apps subscribe to a plain URL and cannot send a bearer token, so the URL carries
+ * an HMAC of the feed owner and the owner's token generation; bumping the generation revokes every URL handed out
+ * before. Set calendar.feed.token-secret (Base64) so that URLs survive a restart.
+ */
+@Slf4j
+@Component
+public class CalendarFeedTokens {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKey key;
+
+    @Autowired
+    public CalendarFeedTokens(@Value("${calendar.feed.token-secret:}") String secret) {
+        byte[] keyBytes;
+        if (secret.isBlank()) {
+            log.warn("calendar.feed.token-secret is not set; calendar feed URLs stop working when the application restarts");
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = Base64.getDecoder().decode(secret);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+    }
+
+    public String sign(Role owner, Long ownerId, long generation) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(mac(owner, ownerId, generation));
+    }
+
+    public boolean verify(Role owner, Long ownerId, long generation, String token) {
+        if (token == null) {
+            return false;
+        }
+        byte[] presented;
+        try {
+            presented = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return MessageDigest.isEqual(mac(owner, ownerId, generation), presented);
+    }
+
+    // The owner id rather than the username, so a new owner who takes over a deleted owner's username does not
+    // inherit their URLs.
+    private byte[] mac(Role owner, Long ownerId, long generation) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal((owner.name() + ":" + ownerId + ":" + generation).getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign calendar feed token", e);
+        }
+    }
+}
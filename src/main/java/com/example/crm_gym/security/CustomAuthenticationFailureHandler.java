@@ -22,7 +22,9 @@ public class CustomAuthenticationFailureHandler implements AuthenticationFailure
     public void onAuthenticationFailure(HttpServletRequest request, HttpServletResponse response,
                                         AuthenticationException exception) throws IOException, ServletException {
         String username = request.getParameter("username");
-        bruteForceProtectionService.loginFailed(username);
+        // The remote address is the client resolved from X-Forwarded-For by the container, which only trusts the header
+        // from internal proxies (server.forward-headers-strategy=native).
+        bruteForceProtectionService.loginFailed(username, request.getRemoteAddr());
 
         String errorMessage;
         if (exception instanceof LockedException) {
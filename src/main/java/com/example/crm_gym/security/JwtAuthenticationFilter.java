@@ -2,11 +2,9 @@ package com.example.crm_gym.security;
 
 import com.example.crm_gym.utils.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Lazy;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -16,17 +14,21 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private JwtUtil jwtUtil;
-    private UserDetailsService userDetailsService;
+    private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache tokenCache;
+    private final TokenRevocationStore tokenRevocationStore;
 
     @Autowired
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, VerifiedTokenCache tokenCache, TokenRevocationStore tokenRevocationStore) {
         this.jwtUtil = jwtUtil;
-        this.userDetailsService = userDetailsService;
+        this.tokenCache = tokenCache;
+        this.tokenRevocationStore = tokenRevocationStore;
     }
 
     @Override
@@ -35,23 +37,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String token = null;
-
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            token = authorizationHeader.substring(7);
-            username = jwtUtil.extractUsername(token);
-        }
-
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String token = authorizationHeader.substring(7);
+            Optional<JwtPrincipal> principal = tokenCache.get(token);
+            if (principal.isEmpty()) {
+                principal = jwtUtil.parseToken(token);
+                principal.ifPresent(verified -> tokenCache.put(token, verified));
+            }
 
-            if (jwtUtil.validateToken(token, userDetails.getUsername())) {
+            // Tokens issued before a password change, deactivation or deletion are left unauthenticated.
+            principal.filter(verified -> !tokenRevocationStore.isRevoked(verified)).ifPresent(verified -> {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
+                        verified, null, List.of(new SimpleGrantedAuthority(verified.getRole().authority())));
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+            });
         }
         chain.doFilter(request, response);
     }
@@ -0,0 +1,60 @@
+package com.example.crm_gym.security;
+
+import java.security.Principal;
+import java.time.Instant;
+
+public class JwtPrincipal implements Principal {
+    private final String username;
+    private final Long userId;
+    private final Role role;
+    private final long tokenVersion;
+    private final Instant expiresAt;
+
+    public JwtPrincipal(String username, Long userId, Role role, long tokenVersion, Instant expiresAt) {
+        this.username = username;
+        this.userId = userId;
+        this.role = role;
+        this.tokenVersion = tokenVersion;
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public long getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    @Override
+    public String toString() {
+        return "JwtPrincipal{" +
+                "username='" + username + '\'' +
+                ", userId=" + userId +
+                ", role=" + role +
+                ", tokenVersion=" + tokenVersion +
+                ", expiresAt=" + expiresAt +
+                '}';
+    }
+}
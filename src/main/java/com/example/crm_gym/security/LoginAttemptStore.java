@@ -0,0 +1,153 @@
+package com.example.crm_gym.security;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Sliding-window failure counts per key, capped at {@code maxKeys} tracked keys. Only idle keys, neither locked nor
+ * holding attempts inside the window, are ever evicted. While every tracked key is live, new keys are not tracked on
+ * their own but share one overflow window, which locks all of them together once it reaches the attempt limit.
+ */
+public class LoginAttemptStore {
+
+    private final ConcurrentHashMap<String, AttemptWindow> windows = new ConcurrentHashMap<>();
+    private final int maxAttempts;
+    private final int maxKeys;
+    private final int bucketCount;
+    private final long bucketMillis;
+    private final long lockMillis;
+    private final Clock clock;
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong overflows = new AtomicLong();
+    private final AttemptWindow overflow;
+
+    public LoginAttemptStore(int maxAttempts, Duration window, int bucketCount, Duration lockDuration, int maxKeys, Clock clock) {
+        if (maxAttempts <= 0 || bucketCount <= 0 || maxKeys <= 0) {
+            throw new IllegalArgumentException("Attempt limit, bucket count and key cap must be positive");
+        }
+        this.maxAttempts = maxAttempts;
+        this.maxKeys = maxKeys;
+        this.bucketCount = bucketCount;
+        this.bucketMillis = Math.max(1, window.toMillis() / bucketCount);
+        this.lockMillis = lockDuration.toMillis();
+        this.clock = clock;
+        this.overflow = new AttemptWindow(bucketCount);
+    }
+
+    public boolean recordFailure(String key) {
+        long now = clock.millis();
+        AttemptWindow window = windows.get(key);
+        if (window == null) {
+            if (windows.size() >= maxKeys && !makeRoom(now)) {
+                overflows.incrementAndGet();
+                window = overflow;
+            } else {
+                window = windows.computeIfAbsent(key, k -> new AttemptWindow(bucketCount));
+            }
+        }
+        int attempts = window.increment(now / bucketMillis);
+        if (attempts >= maxAttempts) {
+            window.lockedUntil = now + lockMillis;
+            return true;
+        }
+        return false;
+    }
+
+    public boolean isLocked(String key) {
+        long now = clock.millis();
+        AttemptWindow window = windows.get(key);
+        if (window == null) {
+            return overflow.lockedUntil > now && windows.size() >= maxKeys;
+        }
+        if (window.lockedUntil > now) {
+            return true;
+        }
+        if (window.isIdle(now / bucketMillis, now)) {
+            windows.remove(key, window);
+        }
+        return false;
+    }
+
+    public int attempts(String key) {
+        AttemptWindow window = windows.get(key);
+        return window == null ? 0 : window.sum(clock.millis() / bucketMillis);
+    }
+
+    public void reset(String key) {
+        windows.remove(key);
+    }
+
+    public int trackedKeys() {
+        return windows.size();
+    }
+
+    public long evictions() {
+        return evictions.get();
+    }
+
+    public long overflows() {
+        return overflows.get();
+    }
+
+    private boolean makeRoom(long now) {
+        long currentBucket = now / bucketMillis;
+        windows.entrySet().removeIf(entry -> {
+            boolean idle = entry.getValue().isIdle(currentBucket, now);
+            if (idle) {
+                evictions.incrementAndGet();
+            }
+            return idle;
+        });
+        return windows.size() < maxKeys;
+    }
+
+    private static final class AttemptWindow {
+        // Each slot holds its bucket id and count together, so moving a slot to a new bucket and counting in it is
+        // one compare-and-set and never drops a concurrent increment.
+        private final AtomicReferenceArray<Bucket> buckets;
+        private volatile long lockedUntil;
+
+        private AttemptWindow(int bucketCount) {
+            this.buckets = new AtomicReferenceArray<>(bucketCount);
+        }
+
+        private int increment(long bucketId) {
+            int slot = (int) (bucketId % buckets.length());
+            Bucket current;
+            Bucket next;
+            do {
+                current = buckets.get(slot);
+                next = new Bucket(bucketId, current != null && current.id == bucketId ? current.count + 1 : 1);
+            } while (!buckets.compareAndSet(slot, current, next));
+            return sum(bucketId);
+        }
+
+        private int sum(long currentBucket) {
+            int total = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                Bucket bucket = buckets.get(i);
+                if (bucket != null && bucket.id > currentBucket - buckets.length() && bucket.id <= currentBucket) {
+                    total += bucket.count;
+                }
+            }
+            return total;
+        }
+
+        private boolean isIdle(long currentBucket, long now) {
+            return lockedUntil <= now && sum(currentBucket) == 0;
+        }
+    }
+
+    private static final class Bucket {
+        private final long id;
+        private final int count;
+
+        private Bucket(long id, int count) {
+            this.id = id;
+            this.count = count;
+        }
+    }
+}
@@ -11,9 +11,12 @@ import java.util.Collection;
 import java.util.stream.Collectors;
 
 public class MyUserDetails implements UserDetails {
-    private User user;
+    private final String username;
+    private final String password;
+
     public MyUserDetails(User user){
-        this.user = user;
+        this.username = user.getUsername();
+        this.password = user.getPassword();
     }
 
     @Override
@@ -22,10 +25,10 @@ public class MyUserDetails implements UserDetails {
     }
 
     @Override
-    public String getPassword() { return user.getPassword(); }
+    public String getPassword() { return password; }
 
     @Override
-    public String getUsername() { return user.getUsername(); }
+    public String getUsername() { return username; }
 
     @Override
     public boolean isAccountNonExpired() { return true; }
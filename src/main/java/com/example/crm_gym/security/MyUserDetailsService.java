@@ -24,4 +24,4 @@ public class MyUserDetailsService implements UserDetailsService {
         }
         return new MyUserDetails(user.get());
     }
-}
\ No newline at end of file
+}
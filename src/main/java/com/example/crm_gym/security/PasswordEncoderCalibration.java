@@ -0,0 +1,82 @@
+package com.example.crm_gym.security;
+
+import com.example.crm_gym.services.MetricsService;
+import io.micrometer.core.instrument.Gauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+@Slf4j
+@Component
+public class PasswordEncoderCalibration {
+
+    public static final String BCRYPT_ID = "bcrypt";
+
+    private static final int MIN_BCRYPT_COST = 4;
+    private static final int MAX_BCRYPT_COST = 31;
+    private static final int SAMPLES = 5;
+
+    private final int bcryptCost;
+    private final long targetMillis;
+
+    @Autowired
+    public PasswordEncoderCalibration(MetricsService metricsService,
+                                      @Value("${security.password.target-hash-ms:100}") long targetMillis,
+                                      @Value("${security.password.bcrypt.cost:0}") int fixedCost,
+                                      @Value("${security.password.bcrypt.min-cost:5}") int minCost,
+                                      @Value("${security.password.bcrypt.max-cost:14}") int maxCost) {
+        this.targetMillis = targetMillis;
+        int lower = Math.max(MIN_BCRYPT_COST, minCost);
+        int upper = Math.min(MAX_BCRYPT_COST, Math.max(lower, maxCost));
+        this.bcryptCost = fixedCost > 0 ? fixedCost : calibrate(lower, upper);
+        Gauge.builder("security.password.bcrypt.cost", this, PasswordEncoderCalibration::getBcryptCost)
+                .register(metricsService.getMeterRegistry());
+    }
+
+    public int getBcryptCost() {
+        return bcryptCost;
+    }
+
+    public PasswordEncoder createEncoder() {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT_ID, new BCryptPasswordEncoder(bcryptCost));
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT_ID, encoders);
+        // Hashes stored before the {id} prefix was introduced are plain BCrypt; they still verify and get upgraded on login.
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return encoder;
+    }
+
+    private int calibrate(int lower, int upper) {
+        long baseNanos = measure(lower);
+        long targetNanos = targetMillis * 1_000_000L;
+        int cost = lower;
+        // Each BCrypt cost step doubles the work, so extrapolate from the cheapest cost instead of timing expensive ones.
+        while (cost < upper && baseNanos << (cost + 1 - lower) <= targetNanos) {
+            cost++;
+        }
+        log.info("Calibrated BCrypt cost {} for a target of {} ms per hash ({} us at cost {})",
+                cost, targetMillis, baseNanos / 1_000, lower);
+        return cost;
+    }
+
+    private static long measure(int cost) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+        encoder.encode("calibration-warmup");
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration-sample-" + i);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return Math.max(1, samples[SAMPLES / 2]);
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.crm_gym.security;
+
+import com.example.crm_gym.exception.HashingCapacityExceededException;
+import com.example.crm_gym.services.MetricsService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Component
+public class PasswordHashingExecutor {
+
+    private static final String THREAD_PREFIX = "password-hashing-";
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final long retryAfterSeconds;
+    private final MeterRegistry registry;
+    private final Timer waitTimer;
+    private final Counter rejections;
+
+    @Autowired
+    public PasswordHashingExecutor(MetricsService metricsService,
+                                   @Value("${security.hashing.threads:0}") int threads,
+                                   @Value("${security.hashing.queue-capacity:64}") int queueCapacity,
+                                   @Value("${security.hashing.timeout-ms:5000}") long timeoutMillis,
+                                   @Value("${security.hashing.retry-after-seconds:1}") long retryAfterSeconds) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, THREAD_PREFIX + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMillis = timeoutMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.registry = metricsService.getMeterRegistry();
+        this.waitTimer = Timer.builder("security.hashing.queue.wait").register(registry);
+        this.rejections = Counter.builder("security.hashing.rejections").register(registry);
+        Gauge.builder("security.hashing.queue.depth", executor, pool -> pool.getQueue().size()).register(registry);
+        Gauge.builder("security.hashing.active", executor, ThreadPoolExecutor::getActiveCount).register(registry);
+    }
+
+    public <T> T execute(String operation, Supplier<T> task) {
+        if (isWorkerThread()) {
+            return timed(operation, task);
+        }
+        return await(submit(operation, task), timeoutMillis);
+    }
+
+    public <I, O> List<O> executeAll(String operation, List<I> inputs, Function<I, O> task) {
+        if (inputs.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // One queue slot per worker rather than per input, so a large batch cannot fill the queue on its own.
+        int slices = Math.min(executor.getMaximumPoolSize(), inputs.size());
+        int sliceSize = (inputs.size() + slices - 1) / slices;
+        List<Future<List<O>>> futures = new ArrayList<>();
+        try {
+            for (int from = 0; from < inputs.size(); from += sliceSize) {
+                List<I> slice = inputs.subList(from, Math.min(from + sliceSize, inputs.size()));
+                futures.add(submit(operation, () -> {
+                    List<O> outputs = new ArrayList<>(slice.size());
+                    for (I input : slice) {
+                        outputs.add(task.apply(input));
+                    }
+                    return outputs;
+                }));
+            }
+            List<O> results = new ArrayList<>(inputs.size());
+            for (Future<List<O>> future : futures) {
+                results.addAll(await(future, timeoutMillis * sliceSize));
+            }
+            return results;
+        } catch (RuntimeException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e;
+        }
+    }
+
+    public boolean isWorkerThread() {
+        return Thread.currentThread().getName().startsWith(THREAD_PREFIX);
+    }
+
+    private <T> Future<T> submit(String operation, Supplier<T> task) {
+        long queuedAt = System.nanoTime();
+        try {
+            return executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return timed(operation, task);
+            });
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw new HashingCapacityExceededException("Password hashing capacity exceeded, try again later", retryAfterSeconds);
+        }
+    }
+
+    private <T> T timed(String operation, Supplier<T> task) {
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            return task.get();
+        } finally {
+            sample.stop(Timer.builder("security.hashing.latency").tag("operation", operation).register(registry));
+        }
+    }
+
+    private <T> T await(Future<T> future, long timeoutMillis) {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejections.increment();
+            throw new HashingCapacityExceededException("Password hashing timed out, try again later", retryAfterSeconds);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.crm_gym.security;
+
+public enum Role {
+    TRAINEE,
+    TRAINER,
+    USER;
+
+    public String authority() {
+        return "ROLE_" + name();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.crm_gym.security;
+
+import com.example.crm_gym.utils.JwtUtil;
+import com.example.crm_gym.utils.TransactionHooks;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * When each user's tokens were last revoked. A JWT carries the stamp it was issued at and is rejected if its user's
+ * tokens were revoked after that, so password changes, deactivation and deletion take effect without a query per
+ * request. Stamps come from one clock that never repeats, so a token and a revocation are never issued at the same
+ * stamp. A revocation older than the token lifetime can no longer match a live token and is pruned on the next one.
+ * Revocations live in this process only; the JWT signing key does not survive a restart either.
+ */
+@Component
+public class TokenRevocationStore {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final Map<String, Long> revokedAt = new ConcurrentHashMap<>();
+
+    /**
+     * Invalidates every token issued to the user so far.
+     */
+    public void revokeTokens(String username) {
+        revoke(username);
+        // A login that read the old row before the change committed gets a token in between, so revoke again.
+        TransactionHooks.afterCompletion(committed -> revoke(username));
+    }
+
+    public long issueStamp() {
+        return next();
+    }
+
+    public boolean isRevoked(JwtPrincipal principal) {
+        Long revoked = revokedAt.get(principal.getUsername());
+        return revoked != null && principal.getTokenVersion() < revoked;
+    }
+
+    private void revoke(String username) {
+        long stamp = next();
+        revokedAt.merge(username, stamp, Math::max);
+        long expired = stamp - JwtUtil.EXPIRATION_MILLIS;
+        revokedAt.values().removeIf(revoked -> revoked < expired);
+    }
+
+    private long next() {
+        return clock.updateAndGet(previous -> Math.max(previous + 1, System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.crm_gym.security;
+
+import com.example.crm_gym.services.MetricsService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class VerifiedTokenCache {
+
+    private final Map<String, JwtPrincipal> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    @Autowired
+    public VerifiedTokenCache(MetricsService metricsService, @Value("${security.jwt.cache.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+        MeterRegistry registry = metricsService.getMeterRegistry();
+        this.hits = Counter.builder("security.jwt.cache.requests").tag("result", "hit").register(registry);
+        this.misses = Counter.builder("security.jwt.cache.requests").tag("result", "miss").register(registry);
+        this.evictions = Counter.builder("security.jwt.cache.evictions").register(registry);
+        Gauge.builder("security.jwt.cache.size", entries, Map::size).register(registry);
+    }
+
+    public Optional<JwtPrincipal> get(String token) {
+        JwtPrincipal principal = entries.get(token);
+        if (principal != null) {
+            if (!principal.isExpired(Instant.now())) {
+                hits.increment();
+                return Optional.of(principal);
+            }
+            entries.remove(token, principal);
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void put(String token, JwtPrincipal principal) {
+        if (entries.size() >= maxSize) {
+            makeRoom();
+        }
+        entries.put(token, principal);
+    }
+
+    private void makeRoom() {
+        Instant now = Instant.now();
+        entries.values().removeIf(principal -> principal.isExpired(now));
+        // Still full of live tokens: drop an arbitrary slice so the next puts do not rescan the whole map.
+        int toEvict = entries.size() - maxSize + Math.max(1, maxSize / 100);
+        Iterator<String> keys = entries.keySet().iterator();
+        while (toEvict-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.crm_gym.services;
+
+import com.example.crm_gym.dto.CalendarFeedVersion;
+import com.example.crm_gym.security.Role;
+import com.example.crm_gym.utils.LruCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * The most recently rendered calendar feeds, keyed by owner and username and tagged with the feed version they were
+ * rendered at. Versions live in the database; a feed is only served from here while its version still matches.
+ */
+@Component
+public class CalendarFeedCache {
+
+    private final LruCache<String, CachedFeed> feeds;
+
+    @Autowired
+    public CalendarFeedCache(@Value("${calendar.feed.cache.max-size:1000}") int maxSize) {
+        this.feeds = new LruCache<>(maxSize);
+    }
+
+    /**
+     * Returns the feed last rendered for the username if it was rendered at this version.
+     */
+    public Optional<byte[]> get(Role owner, String username, CalendarFeedVersion version) {
+        String key = owner + ":" + username;
+        Optional<CachedFeed> cached = feeds.get(key);
+        if (cached.isPresent() && !cached.get().version.equals(version)) {
+            feeds.remove(key, cached.get());
+            return Optional.empty();
+        }
+        return cached.map(feed -> feed.body);
+    }
+
+    public void put(Role owner, String username, CalendarFeedVersion version, byte[] body) {
+        feeds.put(owner + ":" + username, new CachedFeed(version, body));
+    }
+
+    public void clear() {
+        feeds.clear();
+    }
+
+    private static final class CachedFeed {
+        private final CalendarFeedVersion version;
+        private final byte[] body;
+
+        private CachedFeed(CalendarFeedVersion version, byte[] body) {
+            this.version = version;
+            this.body = body;
+        }
+    }
+}
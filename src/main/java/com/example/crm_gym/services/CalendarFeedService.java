@@ -0,0 +1,205 @@
+package com.example.crm_gym.services;
+
+import com.example.crm_gym.dao.CalendarFeedDAO;
+import com.example.crm_gym.dao.TrainingExportDAO;
+import com.example.crm_gym.dto.CalendarFeedVersion;
+import com.example.crm_gym.events.TraineeRemovedEvent;
+import com.example.crm_gym.events.TrainerRemovedEvent;
+import com.example.crm_gym.events.TrainingChangedEvent;
+import com.example.crm_gym.events.TrainingSnapshot;
+import com.example.crm_gym.exception.ServiceException;
+import com.example.crm_gym.security.CalendarFeedTokens;
+import com.example.crm_gym.security.Role;
+import com.example.crm_gym.utils.ICalendarWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+@Slf4j
+@Service
+public class CalendarFeedService {
+
+    private final CalendarFeedDAO calendarFeedDAO;
+    private final TrainingExportDAO trainingExportDAO;
+    private final CalendarFeedCache calendarFeedCache;
+    private final CalendarFeedTokens calendarFeedTokens;
+    private final int maxCachedBytes;
+
+    @Autowired
+    public CalendarFeedService(CalendarFeedDAO calendarFeedDAO, TrainingExportDAO trainingExportDAO,
+                               CalendarFeedCache calendarFeedCache, CalendarFeedTokens calendarFeedTokens,
+                               @Value("${calendar.feed.cache.max-bytes:262144}") int maxCachedBytes) {
+        this.calendarFeedDAO = calendarFeedDAO;
+        this.trainingExportDAO = trainingExportDAO;
+        this.calendarFeedCache = calendarFeedCache;
+        this.calendarFeedTokens = calendarFeedTokens;
+        this.maxCachedBytes = maxCachedBytes;
+    }
+
+    /**
+     * Returns the current version of the owner's feed, or empty if there is no such trainer or trainee.
+     */
+    @Transactional(readOnly = true)
+    public Optional<CalendarFeedVersion> findVersion(Role owner, String username, String transactionId) {
+        try {
+            Optional<CalendarFeedVersion> version = calendarFeedDAO.findVersion(owner, username);
+            if (version.isEmpty()) {
+                log.warn("[Transaction ID: {}] - No {} found for calendar feed: {}", transactionId, owner, username);
+            }
+            return version;
+        } catch (Exception e) {
+            log.error("[Transaction ID: {}] - Error resolving calendar feed of {} {}", transactionId, owner, username, e);
+            throw new ServiceException("Error resolving calendar feed of " + username, e);
+        }
+    }
+
+    /**
+     * Returns the token for the owner's feed URL, or empty if there is no such trainer or trainee. The token stays the
+     * same until it is revoked.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> issueToken(Role owner, String username, String transactionId) {
+        return findVersion(owner, username, transactionId)
+                .map(version -> calendarFeedTokens.sign(owner, version.getOwnerId(), version.getTokenGeneration()));
+    }
+
+    public boolean isValidToken(Role owner, CalendarFeedVersion version, String token) {
+        return calendarFeedTokens.verify(owner, version.getOwnerId(), version.getTokenGeneration(), token);
+    }
+
+    /**
+     * Revokes every feed URL handed out for the owner so far; returns false if there is no such trainer or trainee.
+     */
+    @Transactional
+    public boolean revokeTokens(Role owner, String username, String transactionId) {
+        try {
+            boolean revoked = calendarFeedDAO.revokeTokens(owner, username);
+            if (revoked) {
+                log.info("[Transaction ID: {}] - Revoked calendar feed tokens of {} {}", transactionId, owner, username);
+            } else {
+                log.warn("[Transaction ID: {}] - No {} found to revoke calendar feed tokens: {}", transactionId, owner, username);
+            }
+            return revoked;
+        } catch (Exception e) {
+            log.error("[Transaction ID: {}] - Error revoking calendar feed tokens of {} {}", transactionId, owner, username, e);
+            throw new ServiceException("Error revoking calendar feed tokens of " + username, e);
+        }
+    }
+
+    /**
+     * Writes the owner's feed, from the cache when it still holds this version, otherwise by streaming the owner's
+     * trainings straight into the response and keeping a copy if it is small enough.
+     */
+    public void writeFeed(Role owner, String username, CalendarFeedVersion version, OutputStream outputStream,
+                          String transactionId) throws IOException {
+        Optional<byte[]> cached = calendarFeedCache.get(owner, username, version);
+        if (cached.isPresent()) {
+            outputStream.write(cached.get());
+            outputStream.flush();
+            return;
+        }
+
+        CopyingOutputStream copy = new CopyingOutputStream(outputStream, maxCachedBytes);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(copy, StandardCharsets.UTF_8));
+        ICalendarWriter calendar = new ICalendarWriter(writer);
+        long events;
+        try {
+            calendar.beginCalendar(username + " trainings");
+            events = trainingExportDAO.streamSchedule(owner, username, entry -> {
+                try {
+                    calendar.writeEvent(entry, version.getLastModified());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            calendar.endCalendar();
+        } catch (RuntimeException e) {
+            log.error("[Transaction ID: {}] - Calendar feed of {} {} aborted", transactionId, owner, username, e);
+            throw new ServiceException("Calendar feed of " + username + " aborted", e);
+        }
+        if (copy.copied() != null) {
+            calendarFeedCache.put(owner, username, version, copy.copied());
+        }
+        log.info("[Transaction ID: {}] - Streamed {} calendar events of {} {}", transactionId, events, owner, username);
+    }
+
+    /**
+     * Bumps the feed versions of both owners of a changed training, in the transaction that changes it.
+     */
+    @EventListener
+    public void onTrainingChanged(TrainingChangedEvent event) {
+        Set<String> bumped = new HashSet<>();
+        for (TrainingSnapshot training : Arrays.asList(event.getPrevious(), event.getCurrent())) {
+            if (training == null) {
+                continue;
+            }
+            if (training.getTraineeId() != null && bumped.add(Role.TRAINEE + ":" + training.getTraineeId())) {
+                calendarFeedDAO.bump(Role.TRAINEE, training.getTraineeId());
+            }
+            if (training.getTrainerId() != null && bumped.add(Role.TRAINER + ":" + training.getTrainerId())) {
+                calendarFeedDAO.bump(Role.TRAINER, training.getTrainerId());
+            }
+        }
+    }
+
+    /**
+     * Removing a trainee removes their trainings from their trainers' feeds; published before the rows go.
+     */
+    @EventListener
+    public void onTraineeRemoved(TraineeRemovedEvent event) {
+        calendarFeedDAO.bumpTrainersOfTrainee(event.getTraineeId());
+    }
+
+    @EventListener
+    public void onTrainerRemoved(TrainerRemovedEvent event) {
+        calendarFeedDAO.bumpTraineesOfTrainer(event.getTrainerId());
+    }
+
+    private static final class CopyingOutputStream extends FilterOutputStream {
+        private final int limit;
+        private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+        private CopyingOutputStream(OutputStream out, int limit) {
+            super(out);
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            if (copy != null) {
+                copy.write(b);
+                checkLimit();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            if (copy != null) {
+                copy.write(b, off, len);
+                checkLimit();
+            }
+        }
+
+        private void checkLimit() {
+            if (copy.size() > limit) {
+                copy = null;
+            }
+        }
+
+        private byte[] copied() {
+            return copy == null ? null : copy.toByteArray();
+        }
+    }
+}
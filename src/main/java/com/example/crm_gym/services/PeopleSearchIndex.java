@@ -0,0 +1,343 @@
+package com.example.crm_gym.services;
+
+import com.example.crm_gym.dao.PeopleScanDAO;
+import com.example.crm_gym.dto.PersonDTO;
+import com.example.crm_gym.events.PersonChangedEvent;
+import com.example.crm_gym.events.PersonRemovedEvent;
+import com.example.crm_gym.security.Role;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Name search over users, trainees and trainers. Query tokens match indexed name and username tokens
+ * exactly, by prefix, within a small edit distance, or by trigram overlap; every query token has to match.
+ * Follows person events once their transaction commits, and writes that land while a rebuild is
+ * scanning are replayed onto the rebuilt segment before it is swapped in.
+ */
+@Slf4j
+@Component
+public class PeopleSearchIndex {
+
+    private static final double EXACT = 3.0;
+    private static final double PREFIX = 2.0;
+    private static final double FUZZY = 2.0;
+    private static final double MIN_TRIGRAM_SIMILARITY = 0.5;
+    private static final int MAX_EDITS = 2;
+
+    private final PeopleScanDAO peopleScanDAO;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "people-search-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Segment segment = new Segment();
+    private List<Consumer<Segment>> pendingWrites;
+
+    @Autowired
+    public PeopleSearchIndex(PeopleScanDAO peopleScanDAO) {
+        this.peopleScanDAO = peopleScanDAO;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildInBackground() {
+        rebuilder.execute(() -> {
+            try {
+                rebuild();
+            } catch (Exception e) {
+                log.error("People search rebuild failed", e);
+            }
+        });
+    }
+
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingWrites = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Segment rebuilt = new Segment();
+        long count;
+        try {
+            count = peopleScanDAO.streamPeople(rebuilt::put);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingWrites = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            pendingWrites.forEach(write -> write.accept(rebuilt));
+            pendingWrites = null;
+            segment = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Indexed {} people for search", count);
+    }
+
+    public List<PersonDTO> search(String query, int limit) {
+        List<String> queryTokens = tokenize(query);
+        if (queryTokens.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Integer, Double> scores = null;
+            for (String queryToken : queryTokens) {
+                Map<Integer, Double> tokenScores = segment.match(queryToken);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((ordinal, score) -> score + tokenScores.get(ordinal));
+                }
+            }
+            List<PersonDTO> people = segment.people;
+            Map<Integer, Double> ranked = scores;
+            return ranked.keySet().stream()
+                    .sorted(Comparator.<Integer>comparingDouble(ranked::get).reversed()
+                            .thenComparing(ordinal -> !people.get(ordinal).isActive())
+                            .thenComparing(ordinal -> people.get(ordinal).getUsername()))
+                    .limit(limit)
+                    .map(people::get)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes the person's current names and active flag; a null role keeps the role already indexed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonChanged(PersonChangedEvent event) {
+        write(segment -> segment.put(event.getPerson()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonRemoved(PersonRemovedEvent event) {
+        write(segment -> segment.remove(event.getUsername()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    private void write(Consumer<Segment> write) {
+        lock.writeLock().lock();
+        try {
+            write.accept(segment);
+            if (pendingWrites != null) {
+                pendingWrites.add(write);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    private static Set<String> trigrams(String token) {
+        String padded = "$" + token + "$";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private static int maxEdits(String token) {
+        return token.length() <= 2 ? 0 : token.length() <= 5 ? 1 : MAX_EDITS;
+    }
+
+    // Every string reachable from the token by deleting up to maxEdits characters, the token itself included.
+    private static Set<String> deletions(String token, int maxEdits) {
+        Set<String> deletions = new HashSet<>();
+        deletions.add(token);
+        Set<String> frontier = Set.of(token);
+        for (int edits = 0; edits < maxEdits; edits++) {
+            Set<String> next = new HashSet<>();
+            for (String current : frontier) {
+                for (int i = 0; i < current.length(); i++) {
+                    String deleted = current.substring(0, i) + current.substring(i + 1);
+                    if (deletions.add(deleted)) {
+                        next.add(deleted);
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return deletions;
+    }
+
+    // Optimal string alignment distance, so a swapped pair of letters counts as one typo.
+    private static int editDistance(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+
+    private static final class Segment {
+        private final Map<String, Integer> ordinals = new HashMap<>();
+        private final List<PersonDTO> people = new ArrayList<>();
+        private final TreeMap<String, BitSet> terms = new TreeMap<>();
+        private final Map<String, Set<String>> termsByTrigram = new HashMap<>();
+        private final Map<String, Set<String>> termsByDeletion = new HashMap<>();
+
+        private void put(PersonDTO person) {
+            Integer ordinal = ordinals.get(person.getUsername());
+            PersonDTO previous = ordinal == null ? null : people.get(ordinal);
+            if (ordinal == null) {
+                ordinal = people.size();
+                people.add(null);
+                ordinals.put(person.getUsername(), ordinal);
+            }
+            if (person.getRole() == null) {
+                Role role = previous == null ? Role.USER : previous.getRole();
+                person = new PersonDTO(person.getUsername(), person.getFirstName(), person.getLastName(), person.isActive(), role);
+            }
+            unindex(ordinal, previous);
+            people.set(ordinal, person);
+            for (String term : termsOf(person)) {
+                int document = ordinal;
+                terms.computeIfAbsent(term, key -> {
+                    trigrams(key).forEach(gram -> termsByTrigram.computeIfAbsent(gram, g -> new HashSet<>()).add(key));
+                    deletions(key, MAX_EDITS).forEach(deleted -> termsByDeletion.computeIfAbsent(deleted, d -> new HashSet<>()).add(key));
+                    return new BitSet();
+                }).set(document);
+            }
+        }
+
+        private void remove(String username) {
+            Integer ordinal = ordinals.get(username);
+            if (ordinal != null) {
+                unindex(ordinal, people.get(ordinal));
+                people.set(ordinal, null);
+            }
+        }
+
+        private void unindex(int ordinal, PersonDTO previous) {
+            if (previous == null) {
+                return;
+            }
+            for (String term : termsOf(previous)) {
+                BitSet documents = terms.get(term);
+                documents.clear(ordinal);
+                if (documents.isEmpty()) {
+                    terms.remove(term);
+                    trigrams(term).forEach(gram -> detach(termsByTrigram, gram, term));
+                    deletions(term, MAX_EDITS).forEach(deleted -> detach(termsByDeletion, deleted, term));
+                }
+            }
+        }
+
+        private static void detach(Map<String, Set<String>> postings, String key, String term) {
+            Set<String> terms = postings.get(key);
+            if (terms != null && terms.remove(term) && terms.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+
+        private Map<Integer, Double> match(String queryToken) {
+            Map<Integer, Double> scores = new HashMap<>();
+            for (Map.Entry<String, BitSet> term : terms.subMap(queryToken, true, queryToken + Character.MAX_VALUE, false).entrySet()) {
+                double score = term.getKey().equals(queryToken)
+                        ? EXACT
+                        : PREFIX + (double) queryToken.length() / term.getKey().length();
+                credit(scores, term.getValue(), Math.min(score, EXACT - 0.01));
+            }
+
+            // Typo candidates are the terms sharing a deletion with the query (symmetric delete): two tokens within k
+            // edits, a swapped pair counting as one, both reduce to a common string by at most k deletions each.
+            // Unlike trigrams this also finds short tokens with one typo, which often share none ("kmi" and "kim").
+            int maxEdits = maxEdits(queryToken);
+            Set<String> typos = new HashSet<>();
+            Set<String> candidates = new HashSet<>();
+            for (String deleted : deletions(queryToken, maxEdits)) {
+                candidates.addAll(termsByDeletion.getOrDefault(deleted, Set.of()));
+            }
+            for (String term : candidates) {
+                if (term.startsWith(queryToken)) {
+                    continue;
+                }
+                int distance = editDistance(queryToken, term);
+                if (distance <= maxEdits) {
+                    credit(scores, terms.get(term), FUZZY - 0.5 * distance);
+                    typos.add(term);
+                }
+            }
+
+            Set<String> queryGrams = trigrams(queryToken);
+            Map<String, Integer> sharedGrams = new HashMap<>();
+            for (String gram : queryGrams) {
+                for (String term : termsByTrigram.getOrDefault(gram, Set.of())) {
+                    sharedGrams.merge(term, 1, Integer::sum);
+                }
+            }
+            for (Map.Entry<String, Integer> candidate : sharedGrams.entrySet()) {
+                String term = candidate.getKey();
+                if (term.startsWith(queryToken) || typos.contains(term)) {
+                    continue;
+                }
+                double similarity = 2.0 * candidate.getValue() / (queryGrams.size() + trigrams(term).size());
+                if (similarity >= MIN_TRIGRAM_SIMILARITY) {
+                    credit(scores, terms.get(term), similarity);
+                }
+            }
+            return scores;
+        }
+
+        private static void credit(Map<Integer, Double> scores, BitSet documents, double score) {
+            documents.stream().forEach(ordinal -> scores.merge(ordinal, score, Math::max));
+        }
+
+        private static Set<String> termsOf(PersonDTO person) {
+            Set<String> terms = new HashSet<>();
+            terms.addAll(tokenize(person.getFirstName()));
+            terms.addAll(tokenize(person.getLastName()));
+            terms.addAll(tokenize(person.getUsername()));
+            return terms;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.crm_gym.services;
+
+import com.example.crm_gym.dao.TraineeDAO;
+import com.example.crm_gym.dao.TrainerDAO;
+import com.example.crm_gym.dao.TrainingTypeDAO;
+import com.example.crm_gym.dao.UserDAO;
+import com.example.crm_gym.dto.RegistrationResultDTO;
+import com.example.crm_gym.dto.TraineeRegistrationDTO;
+import com.example.crm_gym.dto.TrainerRegistrationDTO;
+import com.example.crm_gym.events.PersonChangedEvent;
+import com.example.crm_gym.events.TrainerChangedEvent;
+import com.example.crm_gym.models.Trainee;
+import com.example.crm_gym.models.Trainer;
+import com.example.crm_gym.models.User;
+import com.example.crm_gym.security.PasswordHashingExecutor;
+import com.example.crm_gym.security.Role;
+import com.example.crm_gym.utils.UserProfileUtil;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Deliberately not @Transactional: every chunk commits on its own so a bad row cannot roll back the rest of the batch.
+@Slf4j
+@Service
+public class RegistrationService {
+
+    private final UserDAO userDAO;
+    private final TraineeDAO traineeDAO;
+    private final TrainerDAO trainerDAO;
+    private final TrainingTypeDAO trainingTypeDAO;
+    private final TrainingTypeRegistry trainingTypeRegistry;
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final int maxBatchSize;
+
+    @Autowired
+    public RegistrationService(UserDAO userDAO, TraineeDAO traineeDAO, TrainerDAO trainerDAO, TrainingTypeDAO trainingTypeDAO,
+                               TrainingTypeRegistry trainingTypeRegistry, PasswordEncoder passwordEncoder, PasswordHashingExecutor hashingExecutor, Validator validator, PlatformTransactionManager transactionManager,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int chunkSize,
+                               @Value("${registration.batch.max-size:1000}") int maxBatchSize) {
+        this.userDAO = userDAO;
+        this.traineeDAO = traineeDAO;
+        this.trainerDAO = trainerDAO;
+        this.trainingTypeDAO = trainingTypeDAO;
+        this.trainingTypeRegistry = trainingTypeRegistry;
+        this.passwordEncoder = passwordEncoder;
+        this.hashingExecutor = hashingExecutor;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public List<RegistrationResultDTO> registerTrainees(List<TraineeRegistrationDTO> rows, String transactionId) {
+        log.info("[Transaction ID: {}] - Registering batch of {} trainees", transactionId, rows.size());
+        RegistrationResultDTO[] results = new RegistrationResultDTO[rows.size()];
+        List<PendingRegistration<Trainee>> pending = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            TraineeRegistrationDTO row = rows.get(i);
+            if (row == null) {
+                results[i] = RegistrationResultDTO.failure(i, "Row is empty");
+                continue;
+            }
+            Date dateOfBirth = row.getDateOfBirth();
+            String address = row.getAddress();
+            pending.add(new PendingRegistration<>(i, row.getFirstName(), row.getLastName(),
+                    user -> new Trainee(dateOfBirth, address, user)));
+        }
+        return register(pending, results, trainees -> traineeDAO.saveAll(trainees).forEach(trainee ->
+                eventPublisher.publishEvent(PersonChangedEvent.of(trainee.getUser(), Role.TRAINEE))), transactionId);
+    }
+
+    public List<RegistrationResultDTO> registerTrainers(List<TrainerRegistrationDTO> rows, String transactionId) {
+        log.info("[Transaction ID: {}] - Registering batch of {} trainers", transactionId, rows.size());
+        RegistrationResultDTO[] results = new RegistrationResultDTO[rows.size()];
+        List<PendingRegistration<Trainer>> pending = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            TrainerRegistrationDTO row = rows.get(i);
+            if (row == null) {
+                results[i] = RegistrationResultDTO.failure(i, "Row is empty");
+                continue;
+            }
+            Long specializationId = row.getSpecializationId();
+            if (trainingTypeRegistry.findById(specializationId).isEmpty()) {
+                results[i] = RegistrationResultDTO.failure(i, "TrainingType does not exist");
+                continue;
+            }
+            pending.add(new PendingRegistration<>(i, row.getFirstName(), row.getLastName(),
+                    user -> new Trainer(trainingTypeDAO.getReference(specializationId), user)));
+        }
+        return register(pending, results, trainers -> trainerDAO.saveAll(trainers).forEach(trainer ->
+                eventPublisher.publishEvent(TrainerChangedEvent.of(trainer))), transactionId);
+    }
+
+    private <E> List<RegistrationResultDTO> register(List<PendingRegistration<E>> pending, RegistrationResultDTO[] results,
+                                                     Consumer<List<E>> writer, String transactionId) {
+        List<PendingRegistration<E>> accepted = rejectInvalidRows(pending, results);
+        accepted = rejectRegisteredNames(accepted, results);
+        accepted = allocateUsernames(accepted, results, transactionId);
+
+        accepted.forEach(row -> row.password = UserProfileUtil.generatePassword());
+        List<String> encodedPasswords = hashingExecutor.executeAll("encode", accepted,
+                row -> passwordEncoder.encode(row.password));
+        for (int i = 0; i < accepted.size(); i++) {
+            accepted.get(i).encodedPassword = encodedPasswords.get(i);
+        }
+
+        for (int from = 0; from < accepted.size(); from += chunkSize) {
+            List<PendingRegistration<E>> chunk = accepted.subList(from, Math.min(from + chunkSize, accepted.size()));
+            if (persist(chunk, writer, transactionId)) {
+                chunk.forEach(row -> results[row.index] = RegistrationResultDTO.success(row.index, row.username, row.password));
+                continue;
+            }
+            for (PendingRegistration<E> row : chunk) {
+                results[row.index] = persist(List.of(row), writer, transactionId)
+                        ? RegistrationResultDTO.success(row.index, row.username, row.password)
+                        : RegistrationResultDTO.failure(row.index, "Error saving user " + row.username);
+            }
+        }
+        log.info("[Transaction ID: {}] - Registered {} of {} rows", transactionId,
+                Arrays.stream(results).filter(result -> result.getError() == null).count(), results.length);
+        return Arrays.asList(results);
+    }
+
+    private <E> List<PendingRegistration<E>> rejectInvalidRows(List<PendingRegistration<E>> pending, RegistrationResultDTO[] results) {
+        List<PendingRegistration<E>> accepted = new ArrayList<>();
+        for (PendingRegistration<E> row : pending) {
+            User user = new User(row.firstName, row.lastName);
+            Set<ConstraintViolation<Object>> violations = new HashSet<>(validator.validate((Object) user));
+            violations.addAll(validator.validate((Object) row.profileFactory.apply(user)));
+            if (violations.isEmpty()) {
+                accepted.add(row);
+            } else {
+                results[row.index] = RegistrationResultDTO.failure(row.index, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            }
+        }
+        return accepted;
+    }
+
+    private <E> List<PendingRegistration<E>> rejectRegisteredNames(List<PendingRegistration<E>> pending, RegistrationResultDTO[] results) {
+        if (pending.isEmpty()) {
+            return pending;
+        }
+        Set<String> firstNames = pending.stream().map(row -> row.firstName).collect(Collectors.toSet());
+        Set<String> lastNames = pending.stream().map(row -> row.lastName).collect(Collectors.toSet());
+        Set<String> registered = userDAO.findRegisteredNames(firstNames, lastNames);
+
+        Map<String, Integer> firstRowByName = new HashMap<>();
+        List<PendingRegistration<E>> accepted = new ArrayList<>();
+        for (PendingRegistration<E> row : pending) {
+            String baseName = UserProfileUtil.generateUsername(row.firstName, row.lastName, 0);
+            Integer firstRow = firstRowByName.putIfAbsent(baseName, row.index);
+            if (registered.contains(baseName)) {
+                results[row.index] = RegistrationResultDTO.failure(row.index, "User already registered.");
+            } else if (firstRow != null) {
+                results[row.index] = RegistrationResultDTO.failure(row.index, "Duplicate of row " + firstRow + " in this batch.");
+            } else {
+                accepted.add(row);
+            }
+        }
+        return accepted;
+    }
+
+    private <E> List<PendingRegistration<E>> allocateUsernames(List<PendingRegistration<E>> pending, RegistrationResultDTO[] results,
+                                                               String transactionId) {
+        List<PendingRegistration<E>> accepted = new ArrayList<>();
+        Set<String> allocated = new HashSet<>();
+        for (PendingRegistration<E> row : pending) {
+            try {
+                // Rows of one batch are not persisted yet, so a clash between two of them is only visible here.
+                do {
+                    row.username = userDAO.generateUniqueUsername(row.firstName, row.lastName);
+                } while (!allocated.add(row.username));
+                accepted.add(row);
+            } catch (Exception e) {
+                log.error("[Transaction ID: {}] - Error allocating username for row {}", transactionId, row.index, e);
+                results[row.index] = RegistrationResultDTO.failure(row.index, "Error allocating username");
+            }
+        }
+        return accepted;
+    }
+
+    private <E> boolean persist(List<PendingRegistration<E>> rows, Consumer<List<E>> writer, String transactionId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> writer.accept(rows.stream()
+                    .map(PendingRegistration::toEntity)
+                    .collect(Collectors.toList())));
+            return true;
+        } catch (Exception e) {
+            log.warn("[Transaction ID: {}] - Error saving {} registration rows: {}", transactionId, rows.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    private static class PendingRegistration<E> {
+        private final int index;
+        private final String firstName;
+        private final String lastName;
+        private final Function<User, E> profileFactory;
+        private String username;
+        private String password;
+        private String encodedPassword;
+
+        PendingRegistration(int index, String firstName, String lastName, Function<User, E> profileFactory) {
+            this.index = index;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.profileFactory = profileFactory;
+        }
+
+        E toEntity() {
+            return profileFactory.apply(new User(firstName, lastName, username, encodedPassword, true));
+        }
+    }
+}
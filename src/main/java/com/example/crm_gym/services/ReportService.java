@@ -0,0 +1,58 @@
+package com.example.crm_gym.services;
+
+import com.example.crm_gym.dao.FetchPlan;
+import com.example.crm_gym.dao.TrainerDAO;
+import com.example.crm_gym.dto.ReportGranularity;
+import com.example.crm_gym.dto.UtilizationReportDTO;
+import com.example.crm_gym.exception.ServiceException;
+import com.example.crm_gym.models.Trainer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Slf4j
+@Transactional
+@Service
+public class ReportService {
+
+    private final TrainerDAO trainerDAO;
+    private final TrainerUtilizationRollup trainerUtilizationRollup;
+
+    @Autowired
+    public ReportService(TrainerDAO trainerDAO, TrainerUtilizationRollup trainerUtilizationRollup) {
+        this.trainerDAO = trainerDAO;
+        this.trainerUtilizationRollup = trainerUtilizationRollup;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<UtilizationReportDTO> getTrainerUtilization(String trainerUsername, ReportGranularity granularity,
+                                                                LocalDate from, LocalDate to, String transactionId) {
+        try {
+            Optional<Trainer> trainer = trainerDAO.findByUsername(trainerUsername, FetchPlan.BASIC);
+            if (trainer.isEmpty()) {
+                log.warn("[Transaction ID: {}] - Trainer not found for username: {}", transactionId, trainerUsername);
+                return Optional.empty();
+            }
+            return Optional.of(new UtilizationReportDTO(trainerUsername, granularity,
+                    trainerUtilizationRollup.findBuckets(trainer.get().getId(), granularity, from, to)));
+        } catch (Exception e) {
+            log.error("[Transaction ID: {}] - Error building utilization report for trainer: {}", transactionId, trainerUsername, e);
+            throw new ServiceException("Error building utilization report for trainer " + trainerUsername, e);
+        }
+    }
+
+    public int rebuildTrainerUtilization(String transactionId) {
+        try {
+            int rows = trainerUtilizationRollup.rebuild();
+            log.info("[Transaction ID: {}] - Rebuilt trainer utilization summary with {} rows", transactionId, rows);
+            return rows;
+        } catch (Exception e) {
+            log.error("[Transaction ID: {}] - Error rebuilding trainer utilization summary", transactionId, e);
+            throw new ServiceException("Error rebuilding trainer utilization summary", e);
+        }
+    }
+}
@@ -3,11 +3,15 @@ package com.example.crm_gym.services;
 import com.example.crm_gym.dao.TraineeDAO;
 import com.example.crm_gym.dao.TrainerDAO;
 import com.example.crm_gym.dao.TrainingDAO;
+import com.example.crm_gym.dao.FetchPlan;
 import com.example.crm_gym.dao.UserDAO;
 import com.example.crm_gym.dto.*;
 import com.example.crm_gym.dtoConverter.TraineeConverter;
 import com.example.crm_gym.dtoConverter.TrainerConverter;
 import com.example.crm_gym.dtoConverter.TrainingConverter;
+import com.example.crm_gym.events.PersonChangedEvent;
+import com.example.crm_gym.events.TraineeRemovedEvent;
+import com.example.crm_gym.events.TraineeTrainersChangedEvent;
 import com.example.crm_gym.exception.*;
 import com.example.crm_gym.logger.TransactionLogger;
 import jakarta.validation.ConstraintViolationException;
@@ -15,14 +19,21 @@ import com.example.crm_gym.models.Trainee;
 import com.example.crm_gym.models.Trainer;
 import com.example.crm_gym.models.Training;
 import com.example.crm_gym.models.User;
-import jakarta.transaction.Transactional;
+import com.example.crm_gym.security.Role;
+import com.example.crm_gym.security.TokenRevocationStore;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -37,10 +48,20 @@ public class TraineeService extends BaseService<Trainee> {
     private final TraineeConverter traineeConverter;
     private final TrainingConverter trainingConverter;
     private final TrainerConverter trainerConverter;
+    private final TokenRevocationStore tokenRevocationStore;
+    private final TrainerAssignmentIndex trainerAssignmentIndex;
+    private final TrainingColumnStore trainingColumnStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int defaultDashboardWeeks;
+    private final int maxDashboardWeeks;
 
     @Autowired
     public TraineeService(TraineeDAO traineeDAO, UserDAO userDAO, TrainerDAO trainerDAO, TrainingDAO trainingDAO,
-                          TraineeConverter traineeConverter, TrainingConverter trainingConverter, TrainerConverter trainerConverter) {
+                          TraineeConverter traineeConverter, TrainingConverter trainingConverter, TrainerConverter trainerConverter,
+                          TokenRevocationStore tokenRevocationStore, TrainerAssignmentIndex trainerAssignmentIndex,
+                          TrainingColumnStore trainingColumnStore, ApplicationEventPublisher eventPublisher,
+                          @Value("${training.analytics.dashboard.default-weeks:12}") int defaultDashboardWeeks,
+                          @Value("${training.analytics.dashboard.max-weeks:104}") int maxDashboardWeeks) {
         super(traineeDAO);
         this.traineeDAO = traineeDAO;
         this.userDAO = userDAO;
@@ -49,6 +70,12 @@ public class TraineeService extends BaseService<Trainee> {
         this.traineeConverter = traineeConverter;
         this.trainingConverter = trainingConverter;
         this.trainerConverter = trainerConverter;
+        this.tokenRevocationStore = tokenRevocationStore;
+        this.trainerAssignmentIndex = trainerAssignmentIndex;
+        this.trainingColumnStore = trainingColumnStore;
+        this.eventPublisher = eventPublisher;
+        this.defaultDashboardWeeks = defaultDashboardWeeks;
+        this.maxDashboardWeeks = maxDashboardWeeks;
     }
 
     public Optional<Trainee> create(String firstName, String lastName, Date dateOfBirth, String address, String transactionId) {
@@ -58,9 +85,10 @@ public class TraineeService extends BaseService<Trainee> {
             User user = new User(firstName, lastName);
             Trainee trainee = new Trainee(dateOfBirth, address, user);
             Optional<Trainee> savedTrainee = traineeDAO.save(trainee);
+            eventPublisher.publishEvent(PersonChangedEvent.of(user, Role.TRAINEE));
             log.info("[Transaction ID: {}] - Successfully created Trainee: {}", transactionId, savedTrainee.orElse(null));
             return savedTrainee;
-        } catch (DaoException e) {
+        } catch (DaoException | HashingCapacityExceededException e) {
             log.error("[Transaction ID: {}] - Error creating trainee: {}", transactionId, e.getMessage(), e);
             throw e;
         } catch (Exception e) {
@@ -74,10 +102,10 @@ public class TraineeService extends BaseService<Trainee> {
                                     Date dateOfBirth, String address, Boolean isActive,
                                     String transactionId) {
         try {
-            Optional<Trainee> optionalTrainee = traineeDAO.findByUsername(username);
-            if (!optionalTrainee.isPresent()) {
-                log.error("[Transaction ID: {}] - Trainee not found", transactionId);
-                throw new ServiceException("Trainee not found with username " + username);
+            Optional<Trainee> optionalTrainee = traineeDAO.findByUsername(username, FetchPlan.TRAINEE_PROFILE);
+            if (optionalTrainee.isEmpty()) {
+                log.warn("[Transaction ID: {}] - Trainee not found: {}", transactionId, username);
+                return Optional.empty();
             }
 
             Trainee existingTrainee = optionalTrainee.get();
@@ -95,6 +123,10 @@ public class TraineeService extends BaseService<Trainee> {
             existingTrainee.setDateOfBirth(dateOfBirth);
 
             traineeDAO.update(existingTrainee);
+            eventPublisher.publishEvent(PersonChangedEvent.of(existingTrainee.getUser(), Role.TRAINEE));
+            if (Boolean.FALSE.equals(isActive)) {
+                tokenRevocationStore.revokeTokens(username);
+            }
             return Optional.of(traineeConverter.convertToDto(existingTrainee));
         } catch (IllegalArgumentException e) {
             log.error(" [Transaction ID: {}] - Invalid or empty input data for trainer update: {}", transactionId, e.getMessage());
@@ -105,23 +137,33 @@ public class TraineeService extends BaseService<Trainee> {
         }
     }
 
-    public List<TrainerDTO> updateTraineeTrainers(String username, List<Trainer> trainers, String transactionId) {
+    /**
+     * Replaces the trainee's trainers. Returns empty if there is no such trainee; if any of the usernames is not a
+     * trainer, nothing is changed and the unknown ones are reported.
+     */
+    public Optional<List<TrainerDTO>> updateTraineeTrainers(String username, List<String> trainerUsernames, String transactionId) {
         try {
             Optional<Trainee> optionalTrainee = traineeDAO.findByUsername(username);
-            if (optionalTrainee.isPresent()) {
-                Trainee trainee = optionalTrainee.get();
-                trainee.setTrainers(trainers);
-
-                Optional<Trainee> optUpdatedTrainee = traineeDAO.update(trainee);
-                if (optUpdatedTrainee.isPresent()) {
-                    List<Trainer> updatedTrainers = optUpdatedTrainee.get().getTrainers();
-                    return trainerConverter.convertModelListToDtoList(updatedTrainers);
-                } else {
-                    throw new ServiceException("Error while updating trainers list for Trainee with username: " + username);
+            if (optionalTrainee.isEmpty()) {
+                log.warn("[Transaction ID: {}] - Trainee not found: {}", transactionId, username);
+                return Optional.empty();
+            }
+            Trainee trainee = optionalTrainee.get();
+            List<Trainer> trainers = trainerDAO.findTrainersByUsernames(trainerUsernames);
+            if (trainers.size() < trainerUsernames.size()) {
+                Set<String> found = trainers.stream().map(trainer -> trainer.getUser().getUsername()).collect(Collectors.toSet());
+                List<String> unknown = trainerUsernames.stream().filter(name -> !found.contains(name)).distinct().toList();
+                if (!unknown.isEmpty()) {
+                    log.warn("[Transaction ID: {}] - Unknown trainers for trainee {}: {}", transactionId, username, unknown);
+                    throw new UnknownTrainersException(unknown);
                 }
-            } else {
-                throw new ServiceException("Trainee with username " + username + " not found");
             }
+            traineeDAO.updateTrainers(trainee, trainers);
+            eventPublisher.publishEvent(TraineeTrainersChangedEvent.replaced(username,
+                    trainers.stream().map(Trainer::getId).toList()));
+            return Optional.of(trainerConverter.convertModelListToDtoList(new ArrayList<>(trainee.getTrainers())));
+        } catch (UnknownTrainersException e) {
+            throw e;
         } catch (Exception e) {
             log.error("[Transaction ID: {}] - Error updating trainer list for trainee with username {}: e", transactionId, username, e);
             throw new ServiceException("Error while updating trainer list for trainee with username " + username);
@@ -132,12 +174,16 @@ public class TraineeService extends BaseService<Trainee> {
         try {
             Optional<Trainee> optionalTrainee = traineeDAO.findByUsername(username);
             if (optionalTrainee.isEmpty()) {
-                log.error("[Transaction ID: {}] - Trainee not found: {}", transactionId, username);
+                log.warn("[Transaction ID: {}] - Trainee not found: {}", transactionId, username);
                 return false;
             }
             Trainee trainee = optionalTrainee.get();
             trainee.getUser().setActive(isActive);
             traineeDAO.update(trainee);
+            eventPublisher.publishEvent(PersonChangedEvent.of(trainee.getUser(), Role.TRAINEE));
+            if (Boolean.FALSE.equals(isActive)) {
+                tokenRevocationStore.revokeTokens(username);
+            }
             return true;
         } catch (ConstraintViolationException e) {
             log.error("[Transaction ID: {}] - Validation failed: {}", transactionId, e.getMessage());
@@ -156,7 +202,9 @@ public class TraineeService extends BaseService<Trainee> {
                 return false;
             }
             Trainee trainee = optionalTrainee.get();
+            eventPublisher.publishEvent(new TraineeRemovedEvent(trainee.getId(), username));
             traineeDAO.delete(trainee);
+            tokenRevocationStore.revokeTokens(username);
             return true;
         } catch (Exception e) {
             log.error("[Transaction ID: {}] - Error deleting trainee with username {}", transactionId, username, e);
@@ -168,7 +216,13 @@ public class TraineeService extends BaseService<Trainee> {
     public boolean deleteByUsername(String username) {
         String transactionId = TransactionLogger.generateTransactionId();
         try {
-            return traineeDAO.deleteByUsername(username);
+            Optional<Trainee> trainee = traineeDAO.findByUsername(username);
+            if (trainee.isPresent()) {
+                eventPublisher.publishEvent(new TraineeRemovedEvent(trainee.get().getId(), username));
+                traineeDAO.delete(trainee.get());
+            }
+            tokenRevocationStore.revokeTokens(username);
+            return trainee.isPresent();
         } catch (Exception e) {
             log.error("[Transaction ID: {}] - Error occurred while deleting trainee by username: {}", transactionId, username, e);
             throw new ServiceException("Error occurred while deleting trainee by username");
@@ -185,22 +239,37 @@ public class TraineeService extends BaseService<Trainee> {
         }
     }
 
+    @Transactional(readOnly = true)
     public Optional<TraineeDTO> getTraineeByUsername(String username, String transactionId) {
         try {
-            Optional<Trainee> optionalTrainee =  traineeDAO.findByUsername(username);
-            if(!optionalTrainee.isPresent()) {
+            Optional<TraineeDTO> trainee = traineeDAO.findProfileView(username);
+            if (trainee.isEmpty()) {
                 log.error("[Transaction ID: {}] - Trainee not found: {}", transactionId, username);
-                throw new ServiceException("Trainee with username " + username + " not found");
             }
-            Trainee trainee = optionalTrainee.get();
-            TraineeDTO traineeDTO = traineeConverter.convertToDto(trainee);
-            return Optional.ofNullable(traineeDTO);
+            return trainee;
         } catch (Exception e) {
             log.error("[Transaction ID: {}] - Error occurred while fetching trainee by username: {}", transactionId, username, e);
             throw new ServiceException("Error occurred while fetching trainee by username: " + username);
         }
     }
 
+    @Transactional(readOnly = true)
+    public Optional<TraineeDashboardDTO> getDashboard(String username, Integer weeks, String transactionId) {
+        try {
+            int window = weeks == null || weeks <= 0 ? defaultDashboardWeeks : Math.min(weeks, maxDashboardWeeks);
+            Optional<Trainee> trainee = traineeDAO.findByUsername(username, FetchPlan.BASIC);
+            if (trainee.isEmpty()) {
+                log.error("[Transaction ID: {}] - Trainee not found: {}", transactionId, username);
+                return Optional.empty();
+            }
+            return Optional.of(trainingColumnStore.dashboard(trainee.get().getId(), username, window, LocalDate.now()));
+        } catch (Exception e) {
+            log.error("[Transaction ID: {}] - Error building dashboard of trainee: {}", transactionId, username, e);
+            throw new ServiceException("Error building dashboard of trainee: " + username, e);
+        }
+    }
+
+    @Transactional(readOnly = true)
     public Optional<List<Trainee>> getAllTrainees() {
         String transactionId = TransactionLogger.generateTransactionId();
         try {
@@ -211,6 +280,7 @@ public class TraineeService extends BaseService<Trainee> {
         }
     }
 
+    @Transactional(readOnly = true)
     public Optional<List<TrainingDTO>> getTrainingsByTraineeUsernameAndCriteria(String username, Date fromDate,
                                                                              Date toDate, String trainerName,
                                                                              String trainingTypeName, String transactionId) {
@@ -230,21 +300,17 @@ public class TraineeService extends BaseService<Trainee> {
         }
     }
 
+    @Transactional(readOnly = true)
     public Optional<List<TrainerDTO>> findTrainersNotAssignedToTraineeByUsername(String username, Boolean isActive, String transactionId) {
         try {
-            Optional<List<Trainer>> optionalTrainers = traineeDAO.findTrainersNotAssignedToTraineeByUsername(username);
-
-            if (!optionalTrainers.isPresent() || optionalTrainers.get().isEmpty()) {
-                log.error("[Transaction ID: {}] - No trainers found for trainee with username: {}", transactionId, username);
+            List<Long> trainerIds = Boolean.FALSE.equals(isActive)
+                    ? List.of()
+                    : trainerAssignmentIndex.findUnassignedActiveTrainerIds(username);
+            if (trainerIds.isEmpty()) {
+                log.warn("[Transaction ID: {}] - No trainers found for trainee with username: {}", transactionId, username);
                 return Optional.empty();
             }
-
-            List<Trainer> filteredTrainers = optionalTrainers.get().stream()
-                    .filter(trainer -> trainer.getUser().isActive() == isActive)
-                    .collect(Collectors.toList());
-
-            List<TrainerDTO> trainerDTOs = trainerConverter.convertModelListToDtoList(filteredTrainers);
-            return Optional.of(trainerDTOs);
+            return Optional.of(trainerConverter.convertModelListToDtoList(trainerDAO.findTrainersByIds(trainerIds)));
         } catch (Exception e) {
             log.error("[Transaction ID: {}] - Error retrieving trainers for trainee with username: {}", transactionId, username, e);
             throw new ServiceException("Error retrieving trainers for trainee with username: " + username);
@@ -258,7 +324,11 @@ public class TraineeService extends BaseService<Trainee> {
                     .orElseThrow(() -> new DaoException("Trainee not found"));
             Trainer trainer = trainerDAO.findById(trainerId)
                     .orElseThrow(() -> new DaoException("Trainer not found"));
-            return traineeDAO.addTrainer(trainee, trainer);
+            boolean added = traineeDAO.addTrainer(trainee, trainer);
+            if (added) {
+                eventPublisher.publishEvent(TraineeTrainersChangedEvent.assigned(trainee.getUser().getUsername(), trainerId));
+            }
+            return added;
         } catch (Exception e) {
             log.error("[Transaction ID: {}] - Error adding trainer with id {} to trainee with id {}: {}", transactionId, trainerId, traineeId, e.getMessage());
             throw new ServiceException("Error adding trainer with id " + trainerId);
@@ -286,7 +356,11 @@ public class TraineeService extends BaseService<Trainee> {
                     .orElseThrow(() -> new DaoException("Trainee not found"));
             Trainer trainer = trainerDAO.findById(trainerId)
                     .orElseThrow(() -> new DaoException("Trainer not found"));
-            return traineeDAO.deleteTrainerFromList(trainee, trainer);
+            boolean removed = traineeDAO.deleteTrainerFromList(trainee, trainer);
+            if (removed) {
+                eventPublisher.publishEvent(TraineeTrainersChangedEvent.unassigned(trainee.getUser().getUsername(), trainerId));
+            }
+            return removed;
         } catch (Exception e) {
             log.error("[Transaction ID: {}] - Error removing trainer with id {} from trainee with id {}: {}", transactionId, trainerId, traineeId, e.getMessage());
             throw new ServiceException("Error removing trainer with id " + trainerId);
@@ -0,0 +1,182 @@
+package com.example.crm_gym.services;
+
+import com.example.crm_gym.dao.TraineeDAO;
+import com.example.crm_gym.dao.TrainerDAO;
+import com.example.crm_gym.events.TraineeRemovedEvent;
+import com.example.crm_gym.events.TraineeTrainersChangedEvent;
+import com.example.crm_gym.events.TrainerChangedEvent;
+import com.example.crm_gym.events.TrainerRemovedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmaps over dense trainer ordinals: one of active trainers and one per trainee of assigned trainers.
+ * Follows trainer and assignment events once their transaction commits; assignment changes are passed on to
+ * {@link TrainerDirectoryIndex} as trainee count deltas.
+ */
+@Slf4j
+@Component
+public class TrainerAssignmentIndex {
+
+    private final TrainerDAO trainerDAO;
+    private final TraineeDAO traineeDAO;
+    private final TrainerDirectoryIndex trainerDirectoryIndex;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final List<Long> trainerIds = new ArrayList<>();
+    private final Map<String, BitSet> assignments = new HashMap<>();
+    private final BitSet active = new BitSet();
+
+    @Autowired
+    @Lazy
+    public TrainerAssignmentIndex(TrainerDAO trainerDAO, TraineeDAO traineeDAO, TrainerDirectoryIndex trainerDirectoryIndex) {
+        this.trainerDAO = trainerDAO;
+        this.traineeDAO = traineeDAO;
+        this.trainerDirectoryIndex = trainerDirectoryIndex;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        List<Long> activeTrainerIds = trainerDAO.findActiveTrainerIds();
+        Map<String, List<Long>> trainerAssignments = traineeDAO.findTrainerAssignments();
+        lock.writeLock().lock();
+        try {
+            ordinals.clear();
+            trainerIds.clear();
+            assignments.clear();
+            active.clear();
+            activeTrainerIds.forEach(id -> active.set(ordinalOf(id)));
+            trainerAssignments.forEach((username, ids) -> {
+                BitSet trainers = new BitSet();
+                ids.forEach(id -> trainers.set(ordinalOf(id)));
+                assignments.put(username, trainers);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Indexed {} active trainers and assignments of {} trainees", activeTrainerIds.size(), trainerAssignments.size());
+    }
+
+    public List<Long> findUnassignedActiveTrainerIds(String traineeUsername) {
+        lock.readLock().lock();
+        try {
+            BitSet result = (BitSet) active.clone();
+            BitSet assigned = assignments.get(traineeUsername);
+            if (assigned != null) {
+                result.andNot(assigned);
+            }
+            List<Long> ids = new ArrayList<>(result.cardinality());
+            for (int ordinal = result.nextSetBit(0); ordinal >= 0; ordinal = result.nextSetBit(ordinal + 1)) {
+                ids.add(trainerIds.get(ordinal));
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTraineeTrainersChanged(TraineeTrainersChangedEvent event) {
+        switch (event.getChange()) {
+            case ASSIGNED -> event.getTrainerIds().forEach(id -> assign(event.getTraineeUsername(), id));
+            case UNASSIGNED -> event.getTrainerIds().forEach(id -> unassign(event.getTraineeUsername(), id));
+            case REPLACED -> replaceAssignments(event.getTraineeUsername(), event.getTrainerIds());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTraineeRemoved(TraineeRemovedEvent event) {
+        removeTrainee(event.getUsername());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainerChanged(TrainerChangedEvent event) {
+        updateTrainer(event.getTrainerId(), event.getPerson().isActive());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainerRemoved(TrainerRemovedEvent event) {
+        removeTrainer(event.getTrainerId());
+    }
+
+    public void assign(String traineeUsername, Long trainerId) {
+        write(() -> {
+            BitSet assigned = new BitSet();
+            assigned.set(ordinalOf(trainerId));
+            assigned.or(assignments.getOrDefault(traineeUsername, new BitSet()));
+            replace(traineeUsername, assigned);
+        });
+    }
+
+    public void unassign(String traineeUsername, Long trainerId) {
+        write(() -> {
+            BitSet assigned = (BitSet) assignments.getOrDefault(traineeUsername, new BitSet()).clone();
+            assigned.clear(ordinalOf(trainerId));
+            replace(traineeUsername, assigned);
+        });
+    }
+
+    public void replaceAssignments(String traineeUsername, Collection<Long> assignedTrainerIds) {
+        write(() -> {
+            BitSet assigned = new BitSet();
+            assignedTrainerIds.forEach(id -> assigned.set(ordinalOf(id)));
+            replace(traineeUsername, assigned);
+        });
+    }
+
+    public void removeTrainee(String traineeUsername) {
+        write(() -> replace(traineeUsername, new BitSet()));
+    }
+
+    public void updateTrainer(Long trainerId, boolean isActive) {
+        write(() -> active.set(ordinalOf(trainerId), isActive));
+    }
+
+    public void removeTrainer(Long trainerId) {
+        write(() -> {
+            int ordinal = ordinalOf(trainerId);
+            active.clear(ordinal);
+            assignments.values().forEach(assigned -> assigned.clear(ordinal));
+        });
+    }
+
+    private void replace(String traineeUsername, BitSet assigned) {
+        BitSet previous = assignments.getOrDefault(traineeUsername, new BitSet());
+        BitSet added = (BitSet) assigned.clone();
+        added.andNot(previous);
+        BitSet removed = (BitSet) previous.clone();
+        removed.andNot(assigned);
+        added.stream().forEach(ordinal -> trainerDirectoryIndex.adjustLoad(trainerIds.get(ordinal), 1));
+        removed.stream().forEach(ordinal -> trainerDirectoryIndex.adjustLoad(trainerIds.get(ordinal), -1));
+        if (assigned.isEmpty()) {
+            assignments.remove(traineeUsername);
+        } else {
+            assignments.put(traineeUsername, assigned);
+        }
+    }
+
+    private int ordinalOf(Long trainerId) {
+        return ordinals.computeIfAbsent(trainerId, id -> {
+            trainerIds.add(id);
+            return trainerIds.size() - 1;
+        });
+    }
+
+    private void write(Runnable update) {
+        lock.writeLock().lock();
+        try {
+            update.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
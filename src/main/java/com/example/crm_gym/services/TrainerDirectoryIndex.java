@@ -0,0 +1,260 @@
+package com.example.crm_gym.services;
+
+import com.example.crm_gym.dao.TrainerDAO;
+import com.example.crm_gym.dto.TrainerDTO;
+import com.example.crm_gym.dto.TrainerDirectoryDTO;
+import com.example.crm_gym.dto.TrainingTypeDTO;
+import com.example.crm_gym.dto.UserDTO;
+import com.example.crm_gym.events.TrainerChangedEvent;
+import com.example.crm_gym.events.TrainerRemovedEvent;
+import com.example.crm_gym.models.Trainer;
+import com.example.crm_gym.models.TrainingTypeName;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over trainer ordinals: a bitmap per specialization, per active flag and per trainee count.
+ * Follows trainer events once their transaction commits; trainee counts follow
+ * {@link TrainerAssignmentIndex}.
+ */
+@Slf4j
+@Component
+public class TrainerDirectoryIndex {
+
+    private static final int[][] LOAD_BUCKETS = {{0, 0}, {1, 5}, {6, 10}, {11, Integer.MAX_VALUE}};
+    private static final String[] LOAD_BUCKET_NAMES = {"0", "1-5", "6-10", "11+"};
+
+    private final TrainerDAO trainerDAO;
+    private final TrainingTypeRegistry trainingTypeRegistry;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final List<TrainerDTO> cards = new ArrayList<>();
+    private final List<Integer> loads = new ArrayList<>();
+    private final BitSet present = new BitSet();
+    private final BitSet active = new BitSet();
+    private final Map<TrainingTypeName, BitSet> bySpecialization = new EnumMap<>(TrainingTypeName.class);
+    private final TreeMap<Integer, BitSet> byLoad = new TreeMap<>();
+
+    @Autowired
+    @Lazy
+    public TrainerDirectoryIndex(TrainerDAO trainerDAO, TrainingTypeRegistry trainingTypeRegistry) {
+        this.trainerDAO = trainerDAO;
+        this.trainingTypeRegistry = trainingTypeRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        List<Trainer> trainers = trainerDAO.findAll().orElse(Collections.emptyList());
+        Map<Long, Integer> traineeCounts = trainerDAO.countTraineesPerTrainer();
+        lock.writeLock().lock();
+        try {
+            ordinals.clear();
+            cards.clear();
+            loads.clear();
+            present.clear();
+            active.clear();
+            bySpecialization.clear();
+            byLoad.clear();
+            for (Trainer trainer : trainers) {
+                int ordinal = ordinalOf(trainer.getId());
+                index(ordinal, toCard(trainer));
+                setLoad(ordinal, traineeCounts.getOrDefault(trainer.getId(), 0));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Indexed {} trainers for the directory", trainers.size());
+    }
+
+    public TrainerDirectoryDTO search(TrainingTypeName specialization, Boolean isActive,
+                                      Integer minTrainees, Integer maxTrainees, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet bySpecializationFilter = specialization == null ? present : specializationBits(specialization);
+            BitSet byActiveFilter = isActive == null ? present : activeBits(isActive);
+            BitSet byLoadFilter = minTrainees == null && maxTrainees == null ? present
+                    : loadBits(minTrainees == null ? 0 : minTrainees, maxTrainees == null ? Integer.MAX_VALUE : maxTrainees);
+
+            BitSet matches = intersect(present, bySpecializationFilter, byActiveFilter, byLoadFilter);
+            List<TrainerDTO> trainers = new ArrayList<>(Math.min(limit, matches.cardinality()));
+            for (int ordinal = matches.nextSetBit(0); ordinal >= 0 && trainers.size() < limit; ordinal = matches.nextSetBit(ordinal + 1)) {
+                trainers.add(cards.get(ordinal));
+            }
+
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            BitSet withoutSpecialization = intersect(present, byActiveFilter, byLoadFilter);
+            Map<String, Integer> specializationCounts = new LinkedHashMap<>();
+            for (TrainingTypeName name : TrainingTypeName.values()) {
+                specializationCounts.put(name.name(), countIn(withoutSpecialization, specializationBits(name)));
+            }
+            facets.put("specialization", specializationCounts);
+
+            BitSet withoutActive = intersect(present, bySpecializationFilter, byLoadFilter);
+            Map<String, Integer> activeCounts = new LinkedHashMap<>();
+            activeCounts.put("true", countIn(withoutActive, active));
+            activeCounts.put("false", withoutActive.cardinality() - activeCounts.get("true"));
+            facets.put("active", activeCounts);
+
+            BitSet withoutLoad = intersect(present, bySpecializationFilter, byActiveFilter);
+            Map<String, Integer> loadCounts = new LinkedHashMap<>();
+            for (int i = 0; i < LOAD_BUCKETS.length; i++) {
+                loadCounts.put(LOAD_BUCKET_NAMES[i], countIn(withoutLoad, loadBits(LOAD_BUCKETS[i][0], LOAD_BUCKETS[i][1])));
+            }
+            facets.put("traineeLoad", loadCounts);
+
+            return new TrainerDirectoryDTO(trainers, matches.cardinality(), facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainerChanged(TrainerChangedEvent event) {
+        TrainingTypeDTO specialization = trainingTypeRegistry.findById(event.getSpecializationId()).orElse(null);
+        TrainerDTO card = new TrainerDTO(new UserDTO(event.getPerson().getUsername(), event.getPerson().getFirstName(),
+                event.getPerson().getLastName(), event.getPerson().isActive()), specialization);
+        write(() -> index(ordinalOf(event.getTrainerId()), card));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainerRemoved(TrainerRemovedEvent event) {
+        removeTrainer(event.getTrainerId());
+    }
+
+    public void removeTrainer(Long trainerId) {
+        write(() -> {
+            Integer ordinal = ordinals.get(trainerId);
+            if (ordinal != null) {
+                unindex(ordinal);
+                clearLoadBit(ordinal);
+                cards.set(ordinal, null);
+                present.clear(ordinal);
+            }
+        });
+    }
+
+    void adjustLoad(Long trainerId, int delta) {
+        lock.writeLock().lock();
+        try {
+            int ordinal = ordinalOf(trainerId);
+            int load = loads.get(ordinal) + delta;
+            if (load < 0) {
+                log.warn("Trainee count of trainer {} would drop to {}, the directory is out of step with assignments",
+                        trainerId, load);
+                load = 0;
+            }
+            setLoad(ordinal, load);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void index(int ordinal, TrainerDTO card) {
+        unindex(ordinal);
+        cards.set(ordinal, card);
+        present.set(ordinal);
+        byLoad.computeIfAbsent(loads.get(ordinal), count -> new BitSet()).set(ordinal);
+        active.set(ordinal, card.getUser().isActive());
+        if (card.getSpecialization() != null) {
+            bySpecialization.computeIfAbsent(card.getSpecialization().getName(), name -> new BitSet()).set(ordinal);
+        }
+    }
+
+    private void unindex(int ordinal) {
+        TrainerDTO previous = cards.get(ordinal);
+        if (previous != null && previous.getSpecialization() != null) {
+            bySpecialization.get(previous.getSpecialization().getName()).clear(ordinal);
+        }
+        active.clear(ordinal);
+    }
+
+    // Only trainers present in the directory have a load bit; the load of others is kept for when they are indexed.
+    private void setLoad(int ordinal, int load) {
+        clearLoadBit(ordinal);
+        loads.set(ordinal, load);
+        if (present.get(ordinal)) {
+            byLoad.computeIfAbsent(load, count -> new BitSet()).set(ordinal);
+        }
+    }
+
+    private void clearLoadBit(int ordinal) {
+        BitSet previous = byLoad.get(loads.get(ordinal));
+        if (previous != null) {
+            previous.clear(ordinal);
+            if (previous.isEmpty()) {
+                byLoad.remove(loads.get(ordinal));
+            }
+        }
+    }
+
+    private int ordinalOf(Long trainerId) {
+        return ordinals.computeIfAbsent(trainerId, id -> {
+            cards.add(null);
+            loads.add(0);
+            return cards.size() - 1;
+        });
+    }
+
+    private BitSet specializationBits(TrainingTypeName name) {
+        return bySpecialization.getOrDefault(name, new BitSet());
+    }
+
+    private BitSet activeBits(boolean isActive) {
+        if (isActive) {
+            return active;
+        }
+        BitSet inactive = (BitSet) present.clone();
+        inactive.andNot(active);
+        return inactive;
+    }
+
+    private BitSet loadBits(int min, int max) {
+        BitSet result = new BitSet();
+        if (min <= max) {
+            byLoad.subMap(min, true, max, true).values().forEach(result::or);
+        }
+        return result;
+    }
+
+    private static BitSet intersect(BitSet first, BitSet... others) {
+        BitSet result = (BitSet) first.clone();
+        for (BitSet other : others) {
+            if (other != first) {
+                result.and(other);
+            }
+        }
+        return result;
+    }
+
+    private static int countIn(BitSet base, BitSet facet) {
+        BitSet result = (BitSet) base.clone();
+        result.and(facet);
+        return result.cardinality();
+    }
+
+    private TrainerDTO toCard(Trainer trainer) {
+        TrainingTypeDTO specialization = trainer.getSpecialization() == null ? null
+                : trainingTypeRegistry.findById(trainer.getSpecialization().getId())
+                        .orElseGet(() -> trainingTypeRegistry.toDto(trainer.getSpecialization()));
+        return new TrainerDTO(new UserDTO(trainer.getUser().getUsername(), trainer.getUser().getFirstName(),
+                trainer.getUser().getLastName(), trainer.getUser().isActive()), specialization);
+    }
+
+    private void write(Runnable update) {
+        lock.writeLock().lock();
+        try {
+            update.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
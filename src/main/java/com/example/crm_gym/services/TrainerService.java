@@ -2,15 +2,23 @@ package com.example.crm_gym.services;
 
 import com.example.crm_gym.dao.*;
 import com.example.crm_gym.dto.TrainerDTO;
+import com.example.crm_gym.dto.TrainerDirectoryDTO;
 import com.example.crm_gym.dto.TrainingDTO;
 import com.example.crm_gym.dtoConverter.TrainerConverter;
 import com.example.crm_gym.dtoConverter.TrainingConverter;
+import com.example.crm_gym.events.TraineeTrainersChangedEvent;
+import com.example.crm_gym.events.TrainerChangedEvent;
+import com.example.crm_gym.events.TrainerRemovedEvent;
+import com.example.crm_gym.exception.HashingCapacityExceededException;
 import com.example.crm_gym.exception.ServiceException;
 import com.example.crm_gym.logger.TransactionLogger;
 import com.example.crm_gym.models.*;
+import com.example.crm_gym.security.TokenRevocationStore;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,12 +36,22 @@ public class TrainerService extends BaseService<Trainer> {
     private TrainingDAO trainingDAO;
     private UserDAO userDAO;
     private TrainingTypeDAO trainingTypeDao;
+    private TrainingTypeRegistry trainingTypeRegistry;
     private TrainerConverter trainerConverter;
     private TrainingConverter trainingConverter;
+    private TokenRevocationStore tokenRevocationStore;
+    private TrainerDirectoryIndex trainerDirectoryIndex;
+    private ApplicationEventPublisher eventPublisher;
+    private final int defaultDirectorySize;
+    private final int maxDirectorySize;
 
     @Autowired
     public TrainerService(TrainerDAO trainerDAO, UserDAO userDAO, TrainingTypeDAO trainingTypeDAO, TraineeDAO traineeDAO,
-                          TrainingDAO trainingDAO, TrainerConverter trainerConverter, TrainingConverter trainingConverter) {
+                          TrainingDAO trainingDAO, TrainerConverter trainerConverter, TrainingConverter trainingConverter,
+                          TokenRevocationStore tokenRevocationStore, TrainingTypeRegistry trainingTypeRegistry,
+                          TrainerDirectoryIndex trainerDirectoryIndex, ApplicationEventPublisher eventPublisher,
+                          @Value("${trainer.directory.default-size:50}") int defaultDirectorySize,
+                          @Value("${trainer.directory.max-size:200}") int maxDirectorySize) {
         super(trainerDAO);
         this.trainerDAO = trainerDAO;
         this.userDAO = userDAO;
@@ -42,17 +60,26 @@ public class TrainerService extends BaseService<Trainer> {
         this.trainingDAO = trainingDAO;
         this.trainerConverter = trainerConverter;
         this.trainingConverter = trainingConverter;
+        this.tokenRevocationStore = tokenRevocationStore;
+        this.trainingTypeRegistry = trainingTypeRegistry;
+        this.trainerDirectoryIndex = trainerDirectoryIndex;
+        this.eventPublisher = eventPublisher;
+        this.maxDirectorySize = maxDirectorySize;
+        this.defaultDirectorySize = Math.min(defaultDirectorySize, maxDirectorySize);
     }
 
     public Optional<Trainer> create(String firstName, String lastName, Long specializationId, String transactionId) {
         try {
-            Optional<TrainingType> existingSpecialization = trainingTypeDao.findById(specializationId);
-            if (!existingSpecialization.isPresent()) {
+            if (trainingTypeRegistry.findById(specializationId).isEmpty()) {
                 throw new ServiceException("TrainingType does not exist");
             }
             User user = new User(firstName, lastName);
-            Trainer trainer = new Trainer(existingSpecialization.get(), user);
-            return trainerDAO.save(trainer);
+            Trainer trainer = new Trainer(trainingTypeDao.getReference(specializationId), user);
+            Optional<Trainer> savedTrainer = trainerDAO.save(trainer);
+            savedTrainer.ifPresent(saved -> eventPublisher.publishEvent(TrainerChangedEvent.of(saved)));
+            return savedTrainer;
+        } catch (HashingCapacityExceededException e) {
+            throw e;
         } catch (Exception e) {
             log.error("[Transaction ID: {}] - Error creating trainer", transactionId, e);
             throw new ServiceException("Error creating trainer");
@@ -61,10 +88,10 @@ public class TrainerService extends BaseService<Trainer> {
 
     public Optional<TrainerDTO> update(Trainer updatedTrainer, String transactionId) {
         try {
-            Optional<Trainer> trainer = trainerDAO.findByUsername(updatedTrainer.getUser().getUsername());
-            if (!trainer.isPresent()) {
-                log.error("[Transaction ID: {}] - Trainer not found", transactionId);
-                throw new ServiceException("Trainer not found");
+            Optional<Trainer> trainer = trainerDAO.findByUsername(updatedTrainer.getUser().getUsername(), FetchPlan.TRAINER_CARD);
+            if (trainer.isEmpty()) {
+                log.warn("[Transaction ID: {}] - Trainer not found: {}", transactionId, updatedTrainer.getUser().getUsername());
+                return Optional.empty();
             }
 
             Trainer existingTrainer = trainer.get();
@@ -76,6 +103,10 @@ public class TrainerService extends BaseService<Trainer> {
 
             existingTrainer.setSpecialization(updatedTrainer.getSpecialization());
             Optional<Trainer> updatedTrainerEntity = trainerDAO.update(existingTrainer);
+            updatedTrainerEntity.ifPresent(updated -> eventPublisher.publishEvent(TrainerChangedEvent.of(updated)));
+            if (Boolean.FALSE.equals(updatedUser.isActive())) {
+                tokenRevocationStore.revokeTokens(updatedUser.getUsername());
+            }
 
             if (updatedTrainerEntity.isPresent()) {
                 return Optional.of(trainerConverter.convertToDto(updatedTrainerEntity.get()));
@@ -92,12 +123,16 @@ public class TrainerService extends BaseService<Trainer> {
         try {
             Optional<Trainer> optionalTrainer = trainerDAO.findByUsername(username);
             if (optionalTrainer.isEmpty()) {
-                log.error("[Transaction ID: {}] - Trainer not found: {}", transactionId, username);
+                log.warn("[Transaction ID: {}] - Trainer not found: {}", transactionId, username);
                 return false;
             }
             Trainer trainer = optionalTrainer.get();
             trainer.getUser().setActive(isActive);
             trainerDAO.update(trainer);
+            eventPublisher.publishEvent(TrainerChangedEvent.of(trainer));
+            if (Boolean.FALSE.equals(isActive)) {
+                tokenRevocationStore.revokeTokens(username);
+            }
             return true;
         } catch (ConstraintViolationException e) {
             log.error("[Transaction ID: {}] - Validation failed: {}", transactionId, e.getMessage());
@@ -116,7 +151,9 @@ public class TrainerService extends BaseService<Trainer> {
             User user = userDAO.findById(userId)
                     .orElseThrow(() -> new ServiceException("User not found"));
             trainer.setUser(user);
-            return trainerDAO.update(trainer);
+            Optional<Trainer> updatedTrainer = trainerDAO.update(trainer);
+            updatedTrainer.ifPresent(updated -> eventPublisher.publishEvent(TrainerChangedEvent.of(updated)));
+            return updatedTrainer;
         } catch (Exception e) {
             log.error("[Transaction ID: {}] - Error adding or updating user for trainer with id: {}", transactionId, trainerId, e);
             throw new ServiceException("Error adding or updating user for trainer with id: " + trainerId, e);
@@ -126,6 +163,7 @@ public class TrainerService extends BaseService<Trainer> {
     public boolean delete(Trainer trainer) {
         String transactionId = TransactionLogger.generateTransactionId();
         try {
+            eventPublisher.publishEvent(new TrainerRemovedEvent(trainer.getId(), trainer.getUser().getUsername()));
             return trainerDAO.delete(trainer);
         } catch (Exception e) {
             log.error("[Transaction ID: {}] - Error deleting trainer with id {}", transactionId, trainer.getId(), e);
@@ -155,22 +193,21 @@ public class TrainerService extends BaseService<Trainer> {
         }
     }
 
+    @Transactional(readOnly = true)
     public Optional<TrainerDTO> getTrainerByUsername(String username, String transactionId) {
         try {
-            Optional<Trainer> optionalTrainer = trainerDAO.findByUsername(username);
-            if (optionalTrainer.isPresent()) {
-                TrainerDTO trainerDTO = trainerConverter.convertToDto(optionalTrainer.get());
-                return Optional.of(trainerDTO);
-            } else {
+            Optional<TrainerDTO> trainer = trainerDAO.findProfileView(username);
+            if (trainer.isEmpty()) {
                 log.error("[Transaction ID: {}] - Trainer with username {} not found", transactionId, username);
-                return Optional.empty();
             }
+            return trainer;
         } catch (Exception e) {
             log.error("[Transaction ID: {}] - Error fetching trainer by username: {}", transactionId, username, e);
             throw new ServiceException("Error fetching trainer by username: " + username, e);
         }
     }
 
+    @Transactional(readOnly = true)
     public Optional<List<Trainer>> getAllTrainers() {
         String transactionId = TransactionLogger.generateTransactionId();
         try {
@@ -181,6 +218,17 @@ public class TrainerService extends BaseService<Trainer> {
         }
     }
 
+    public TrainerDirectoryDTO searchDirectory(TrainingTypeName specialization, Boolean isActive, Integer minTrainees,
+                                               Integer maxTrainees, Integer size, String transactionId) {
+        try {
+            int limit = size == null || size <= 0 ? defaultDirectorySize : Math.min(size, maxDirectorySize);
+            return trainerDirectoryIndex.search(specialization, isActive, minTrainees, maxTrainees, limit);
+        } catch (Exception e) {
+            log.error("[Transaction ID: {}] - Error searching trainer directory", transactionId, e);
+            throw new ServiceException("Error searching trainer directory", e);
+        }
+    }
+
     public List<Trainer> getTrainersByUsernames(List<String> trainerUsernames, String transactionId) {
         try {
             return trainerDAO.findTrainersByUsernames(trainerUsernames);
@@ -190,6 +238,7 @@ public class TrainerService extends BaseService<Trainer> {
         }
     }
 
+    @Transactional(readOnly = true)
     public Optional<List<TrainingDTO>> getTrainingsByTrainerUsernameAndCriteria(String username, Date fromDate, Date toDate, String traineeName, String transactionId) {
         try {
             Optional<List<Training>> optionalTrainings = trainerDAO.findTrainingsByTrainerUsernameAndCriteria(username, fromDate, toDate, traineeName);
@@ -216,7 +265,11 @@ public class TrainerService extends BaseService<Trainer> {
             if(existingTrainee.isEmpty()) {
                 throw new ServiceException("Trainee with id " + traineeId + " not found.");
             }
-            return trainerDAO.addTrainee(existingTrainer.get(), existingTrainee.get());
+            boolean added = trainerDAO.addTrainee(existingTrainer.get(), existingTrainee.get());
+            if (added) {
+                eventPublisher.publishEvent(TraineeTrainersChangedEvent.assigned(existingTrainee.get().getUser().getUsername(), trainerId));
+            }
+            return added;
         } catch (Exception e) {
             log.error("[Transaction ID: {}] - Error adding trainee with id {} to trainer with id {}: {}", transactionId, traineeId, trainerId, e.getMessage());
             throw new ServiceException("Error adding trainee with id " + traineeId, e);
@@ -244,7 +297,11 @@ public class TrainerService extends BaseService<Trainer> {
                     .orElseThrow(() -> new ServiceException("Trainer not found"));
             Trainee trainee = traineeDAO.findById(traineeId)
                     .orElseThrow(() -> new ServiceException("Trainee not found"));
-            return trainerDAO.deleteTraineeFromList(trainer, trainee);
+            boolean removed = trainerDAO.deleteTraineeFromList(trainer, trainee);
+            if (removed) {
+                eventPublisher.publishEvent(TraineeTrainersChangedEvent.unassigned(trainee.getUser().getUsername(), trainerId));
+            }
+            return removed;
         } catch (Exception e) {
             log.error("[Transaction ID: {}] - Error removing trainee with id {} from trainer with id {}: {}", transactionId, traineeId, trainerId, e.getMessage());
             throw new ServiceException("Error removing trainee with id " + traineeId, e);
@@ -273,7 +330,9 @@ public class TrainerService extends BaseService<Trainer> {
                 return false;
             }
             Trainer trainer = optionalTrainer.get();
+            eventPublisher.publishEvent(new TrainerRemovedEvent(trainer.getId(), username));
             trainerDAO.delete(trainer);
+            tokenRevocationStore.revokeTokens(username);
             return true;
         } catch (Exception e) {
             log.error("[Transaction ID: {}] - Error occurred while deleting trainer by username: {}", transactionId, username, e);
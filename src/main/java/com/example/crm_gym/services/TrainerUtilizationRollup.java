@@ -0,0 +1,198 @@
+package com.example.crm_gym.services;
+
+import com.example.crm_gym.dao.TrainerUtilizationDAO;
+import com.example.crm_gym.dto.ReportGranularity;
+import com.example.crm_gym.dto.TrainingTypeDTO;
+import com.example.crm_gym.dto.UtilizationReportDTO;
+import com.example.crm_gym.dto.UtilizationRowDTO;
+import com.example.crm_gym.events.TraineeRemovedEvent;
+import com.example.crm_gym.events.TrainerRemovedEvent;
+import com.example.crm_gym.events.TrainingChangedEvent;
+import com.example.crm_gym.events.TrainingSnapshot;
+import com.example.crm_gym.models.TrainingTypeName;
+import com.example.crm_gym.utils.TransactionHooks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Minutes taught per trainer, bucketed by day, week and month, with one counter per training type in each bucket.
+ * Training events adjust the trainer_daily_utilization summary in the writing transaction and these buckets after
+ * it commits; the summary itself is only read at startup and after a rebuild.
+ * <p>
+ * A reload must not read the summary between a writer's commit and that writer's bucket update, or the update is
+ * either counted twice or lost. Writers therefore hold the reload gate from their first summary write until their
+ * transaction completes, and a reload takes it exclusively.
+ * <p>
+ * The rebuild is a single {@code INSERT ... SELECT ... GROUP BY} in the caller's transaction rather than a parallel
+ * scan over trainer partitions. Scans running in their own transactions could not replace the summary atomically,
+ * and the database can still parallelise the aggregate itself.
+ */
+@Slf4j
+@Component
+public class TrainerUtilizationRollup {
+
+    private static final int TYPES = TrainingTypeName.values().length;
+
+    private final TrainerUtilizationDAO trainerUtilizationDAO;
+    private final TrainingTypeRegistry trainingTypeRegistry;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantReadWriteLock reloadGate = new ReentrantReadWriteLock();
+    private final Map<Long, EnumMap<ReportGranularity, TreeMap<Long, long[]>>> series = new HashMap<>();
+
+    @Autowired
+    public TrainerUtilizationRollup(TrainerUtilizationDAO trainerUtilizationDAO, TrainingTypeRegistry trainingTypeRegistry) {
+        this.trainerUtilizationDAO = trainerUtilizationDAO;
+        this.trainingTypeRegistry = trainingTypeRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        if (reloadGate.getReadHoldCount() > 0) {
+            throw new IllegalStateException("Cannot reload utilization from a transaction that is still writing it");
+        }
+        reloadGate.writeLock().lock();
+        try {
+            load(trainerUtilizationDAO.findAll());
+        } finally {
+            reloadGate.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Recomputes the summary from the trainings table in the caller's transaction, then reloads the in-memory buckets
+     * from it once that commits and has released its own hold on the reload gate.
+     */
+    public int rebuild() {
+        int rows = trainerUtilizationDAO.rebuild();
+        TransactionHooks.afterCompletion(committed -> {
+            if (committed) {
+                reload();
+            }
+        });
+        return rows;
+    }
+
+    public List<UtilizationReportDTO.Bucket> findBuckets(Long trainerId, ReportGranularity granularity, LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            EnumMap<ReportGranularity, TreeMap<Long, long[]>> trainerSeries = series.get(trainerId);
+            if (trainerSeries == null || !trainerSeries.containsKey(granularity)) {
+                return List.of();
+            }
+            long fromBucket = from == null ? Long.MIN_VALUE : granularity.bucketOf(from);
+            long toBucket = to == null ? Long.MAX_VALUE : granularity.bucketOf(to);
+            if (fromBucket > toBucket) {
+                return List.of();
+            }
+            List<UtilizationReportDTO.Bucket> buckets = new ArrayList<>();
+            trainerSeries.get(granularity).subMap(fromBucket, true, toBucket, true).forEach((bucket, minutes) -> {
+                Map<String, Long> minutesByType = new LinkedHashMap<>();
+                long total = 0;
+                for (TrainingTypeName type : TrainingTypeName.values()) {
+                    if (minutes[type.ordinal()] != 0) {
+                        minutesByType.put(type.name(), minutes[type.ordinal()]);
+                        total += minutes[type.ordinal()];
+                    }
+                }
+                buckets.add(new UtilizationReportDTO.Bucket(granularity.startOf(bucket), total, minutesByType));
+            });
+            return buckets;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onTrainingChanged(TrainingChangedEvent event) {
+        record(contributionOf(event.getPrevious()), -1);
+        record(contributionOf(event.getCurrent()), 1);
+    }
+
+    /**
+     * Subtracts the trainee's trainings; the event is published before the trainee is removed, while they can still
+     * be aggregated.
+     */
+    @EventListener
+    public void onTraineeRemoved(TraineeRemovedEvent event) {
+        trainerUtilizationDAO.aggregateTraineeTrainings(event.getTraineeId()).forEach(row -> record(row, -1));
+    }
+
+    @EventListener
+    public void onTrainerRemoved(TrainerRemovedEvent event) {
+        holdReloadGate();
+        trainerUtilizationDAO.deleteByTrainer(event.getTrainerId());
+        TransactionHooks.afterCommit(() -> write(() -> series.remove(event.getTrainerId())));
+    }
+
+    private void record(UtilizationRowDTO row, int sign) {
+        if (row == null) {
+            return;
+        }
+        holdReloadGate();
+        trainerUtilizationDAO.add(row.getTrainerId(), row.getTrainingDate(), row.getTrainingTypeId(),
+                sign * row.getMinutes(), (int) (sign * row.getSessions()));
+        TransactionHooks.afterCommit(() -> write(() ->
+                apply(row.getTrainerId(), row.getTrainingDate(), row.getTrainingType(), sign * row.getMinutes())));
+    }
+
+    private void holdReloadGate() {
+        reloadGate.readLock().lock();
+        TransactionHooks.afterCompletion(committed -> reloadGate.readLock().unlock());
+    }
+
+    private UtilizationRowDTO contributionOf(TrainingSnapshot training) {
+        if (training == null || training.getTrainerId() == null || training.getTrainingDate() == null) {
+            return null;
+        }
+        Optional<TrainingTypeName> typeName = trainingTypeRegistry.findById(training.getTrainingTypeId())
+                .map(TrainingTypeDTO::getName);
+        if (typeName.isEmpty()) {
+            log.warn("Training {} has no known type and is left out of utilization", training.getTrainingId());
+            return null;
+        }
+        return new UtilizationRowDTO(training.getTrainerId(), UtilizationRowDTO.toLocalDate(training.getTrainingDate()),
+                training.getTrainingTypeId(), typeName.get(), training.getTrainingDuration(), 1);
+    }
+
+    private void load(List<UtilizationRowDTO> rows) {
+        lock.writeLock().lock();
+        try {
+            series.clear();
+            rows.forEach(row -> apply(row.getTrainerId(), row.getTrainingDate(), row.getTrainingType(), row.getMinutes()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Loaded {} trainer utilization rows", rows.size());
+    }
+
+    private void apply(Long trainerId, LocalDate day, TrainingTypeName type, long minutes) {
+        EnumMap<ReportGranularity, TreeMap<Long, long[]>> trainerSeries =
+                series.computeIfAbsent(trainerId, id -> new EnumMap<>(ReportGranularity.class));
+        for (ReportGranularity granularity : ReportGranularity.values()) {
+            TreeMap<Long, long[]> buckets = trainerSeries.computeIfAbsent(granularity, g -> new TreeMap<>());
+            long bucket = granularity.bucketOf(day);
+            long[] counters = buckets.computeIfAbsent(bucket, b -> new long[TYPES]);
+            counters[type.ordinal()] += minutes;
+            if (Arrays.stream(counters).allMatch(counter -> counter == 0)) {
+                buckets.remove(bucket);
+            }
+        }
+    }
+
+    private void write(Runnable update) {
+        lock.writeLock().lock();
+        try {
+            update.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
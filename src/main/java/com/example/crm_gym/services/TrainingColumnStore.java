@@ -0,0 +1,396 @@
+package com.example.crm_gym.services;
+
+import com.example.crm_gym.dao.TrainingFactScanDAO;
+import com.example.crm_gym.dto.TraineeDashboardDTO;
+import com.example.crm_gym.dto.TrainingFactDTO;
+import com.example.crm_gym.dto.TrainingTypeDTO;
+import com.example.crm_gym.dto.UtilizationRowDTO;
+import com.example.crm_gym.events.TraineeRemovedEvent;
+import com.example.crm_gym.events.TrainerRemovedEvent;
+import com.example.crm_gym.events.TrainingChangedEvent;
+import com.example.crm_gym.events.TrainingSnapshot;
+import com.example.crm_gym.models.TrainingTypeName;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Trainings held as parallel primitive columns (trainee, trainer, type ordinal, epoch day, duration), with rows
+ * indexed by training, trainee and trainer. Dashboards reduce one trainee's rows in plain array loops, split across the common
+ * fork-join pool once a history is long enough to pay for it. Training events are applied after commit: rows are
+ * appended, and updates and deletes mark the old row deleted. Once deleted rows make up half the columns, the live
+ * rows are copied down and the indexes rebuilt. Writes that land while a reload is scanning are replayed onto the new
+ * columns; a replayed append of a training the scan already read is skipped.
+ */
+@Slf4j
+@Component
+public class TrainingColumnStore {
+
+    private static final int TYPES = TrainingTypeName.values().length;
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int COMPACTION_MIN_ROWS = 1024;
+    // Epoch day 0 was a Thursday; shifting by 3 makes weeks start on Monday.
+    private static final int MONDAY_SHIFT = 3;
+
+    private final TrainingFactScanDAO trainingFactScanDAO;
+    private final TrainingTypeRegistry trainingTypeRegistry;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Columns columns = new Columns();
+    private List<Consumer<Columns>> pendingWrites;
+
+    @Autowired
+    public TrainingColumnStore(TrainingFactScanDAO trainingFactScanDAO, TrainingTypeRegistry trainingTypeRegistry) {
+        this.trainingFactScanDAO = trainingFactScanDAO;
+        this.trainingTypeRegistry = trainingTypeRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        lock.writeLock().lock();
+        try {
+            pendingWrites = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Columns reloaded = new Columns();
+        long count;
+        try {
+            count = trainingFactScanDAO.streamTrainingFacts(fact -> reloaded.append(fact.getTrainingId(), fact.getTraineeId(),
+                    fact.getTrainerId(), fact.getTrainingType(), UtilizationRowDTO.toLocalDate(fact.getTrainingDate()),
+                    fact.getTrainingDuration()));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingWrites = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            pendingWrites.forEach(write -> write.accept(reloaded));
+            pendingWrites = null;
+            columns = reloaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Loaded {} trainings into the analytics store", count);
+    }
+
+    public TraineeDashboardDTO dashboard(Long traineeId, String username, int weeks, LocalDate today) {
+        int currentWeek = weekOf(today.toEpochDay());
+        int firstWeek = currentWeek - weeks + 1;
+        Partial total;
+        lock.readLock().lock();
+        try {
+            Columns current = columns;
+            IntList rows = current.rowsByTrainee.get(traineeId);
+            if (rows == null) {
+                total = new Partial(weeks);
+            } else if (rows.size < PARALLEL_THRESHOLD) {
+                total = current.reduce(rows.values, 0, rows.size, firstWeek, weeks);
+            } else {
+                int chunks = ForkJoinPool.getCommonPoolParallelism() * 4;
+                int chunkSize = (rows.size + chunks - 1) / chunks;
+                total = IntStream.range(0, chunks).parallel()
+                        .mapToObj(chunk -> current.reduce(rows.values, chunk * chunkSize,
+                                Math.min(rows.size, (chunk + 1) * chunkSize), firstWeek, weeks))
+                        .reduce(Partial::merge)
+                        .orElseGet(() -> new Partial(weeks));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<String, Long> minutesByType = new LinkedHashMap<>();
+        for (TrainingTypeName type : TrainingTypeName.values()) {
+            if (total.minutesByType[type.ordinal()] != 0) {
+                minutesByType.put(type.name(), total.minutesByType[type.ordinal()]);
+            }
+        }
+        List<TraineeDashboardDTO.Week> weeklyMinutes = new ArrayList<>(weeks);
+        for (int week = 0; week < weeks; week++) {
+            weeklyMinutes.add(new TraineeDashboardDTO.Week(startOfWeek(firstWeek + week), total.weeklyMinutes[week]));
+        }
+        return new TraineeDashboardDTO(username, total.sessions, total.totalMinutes, minutesByType, weeklyMinutes,
+                slope(total.weeklyMinutes), currentStreak(total.activeWeeks, currentWeek), longestStreak(total.activeWeeks));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainingChanged(TrainingChangedEvent event) {
+        if (event.getPrevious() != null) {
+            remove(event.getPrevious());
+        }
+        if (event.getCurrent() != null) {
+            append(event.getCurrent());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTraineeRemoved(TraineeRemovedEvent event) {
+        removeTrainee(event.getTraineeId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainerRemoved(TrainerRemovedEvent event) {
+        removeTrainer(event.getTrainerId());
+    }
+
+    public void append(TrainingSnapshot training) {
+        Optional<TrainingTypeName> type = trainingTypeRegistry.findById(training.getTrainingTypeId()).map(TrainingTypeDTO::getName);
+        if (training.getTraineeId() == null || training.getTrainerId() == null || training.getTrainingDate() == null
+                || type.isEmpty()) {
+            return;
+        }
+        LocalDate day = UtilizationRowDTO.toLocalDate(training.getTrainingDate());
+        write(target -> target.append(training.getTrainingId(), training.getTraineeId(), training.getTrainerId(), type.get(),
+                day, training.getTrainingDuration()));
+    }
+
+    public void remove(TrainingSnapshot training) {
+        if (training.getTraineeId() != null) {
+            write(target -> target.remove(training.getTrainingId(), training.getTraineeId()));
+        }
+    }
+
+    public void removeTrainee(Long traineeId) {
+        write(target -> target.removeTrainee(traineeId));
+    }
+
+    public void removeTrainer(Long trainerId) {
+        write(target -> target.removeTrainer(trainerId));
+    }
+
+    private void write(Consumer<Columns> write) {
+        lock.writeLock().lock();
+        try {
+            write.accept(columns);
+            if (pendingWrites != null) {
+                pendingWrites.add(write);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static int weekOf(long epochDay) {
+        return (int) Math.floorDiv(epochDay + MONDAY_SHIFT, 7);
+    }
+
+    private static LocalDate startOfWeek(int week) {
+        return LocalDate.ofEpochDay(week * 7L - MONDAY_SHIFT);
+    }
+
+    // Least-squares slope of the weekly minutes, in minutes per week.
+    private static double slope(long[] weeklyMinutes) {
+        int n = weeklyMinutes.length;
+        if (n < 2) {
+            return 0;
+        }
+        double meanX = (n - 1) / 2.0;
+        double meanY = Arrays.stream(weeklyMinutes).sum() / (double) n;
+        double covariance = 0;
+        double variance = 0;
+        for (int x = 0; x < n; x++) {
+            covariance += (x - meanX) * (weeklyMinutes[x] - meanY);
+            variance += (x - meanX) * (x - meanX);
+        }
+        return covariance / variance;
+    }
+
+    // A streak is still current if the trainee trained this week or last week.
+    private static int currentStreak(BitSet activeWeeks, int currentWeek) {
+        int end = activeWeeks.get(currentWeek) ? currentWeek : currentWeek - 1;
+        if (end < 0 || !activeWeeks.get(end)) {
+            return 0;
+        }
+        return end - activeWeeks.previousClearBit(end);
+    }
+
+    private static int longestStreak(BitSet activeWeeks) {
+        int longest = 0;
+        for (int start = activeWeeks.nextSetBit(0); start >= 0; ) {
+            int end = activeWeeks.nextClearBit(start);
+            longest = Math.max(longest, end - start);
+            start = activeWeeks.nextSetBit(end);
+        }
+        return longest;
+    }
+
+    private static final class Columns {
+        private long[] trainingIds = new long[1024];
+        private long[] traineeIds = new long[1024];
+        private long[] trainerIds = new long[1024];
+        private byte[] typeOrdinals = new byte[1024];
+        private int[] epochDays = new int[1024];
+        private int[] durations = new int[1024];
+        private final BitSet deleted = new BitSet();
+        private final Map<Long, Integer> rowByTraining = new HashMap<>();
+        private final Map<Long, IntList> rowsByTrainee = new HashMap<>();
+        private final Map<Long, IntList> rowsByTrainer = new HashMap<>();
+        private int size;
+        private int deletedRows;
+
+        private void append(Long trainingId, Long traineeId, Long trainerId, TrainingTypeName type, LocalDate day, int duration) {
+            if (traineeId == null || rowByTraining.containsKey(trainingId)) {
+                return;
+            }
+            if (size == trainingIds.length) {
+                int capacity = size * 2;
+                trainingIds = Arrays.copyOf(trainingIds, capacity);
+                traineeIds = Arrays.copyOf(traineeIds, capacity);
+                trainerIds = Arrays.copyOf(trainerIds, capacity);
+                typeOrdinals = Arrays.copyOf(typeOrdinals, capacity);
+                epochDays = Arrays.copyOf(epochDays, capacity);
+                durations = Arrays.copyOf(durations, capacity);
+            }
+            trainingIds[size] = trainingId;
+            traineeIds[size] = traineeId;
+            trainerIds[size] = trainerId == null ? 0 : trainerId;
+            typeOrdinals[size] = (byte) type.ordinal();
+            epochDays[size] = (int) day.toEpochDay();
+            durations[size] = duration;
+            index(size);
+            size++;
+        }
+
+        private void remove(Long trainingId, Long traineeId) {
+            Integer row = rowByTraining.get(trainingId);
+            if (row != null && traineeIds[row] == traineeId) {
+                delete(row);
+                compactIfSparse();
+            }
+        }
+
+        private void removeTrainee(Long traineeId) {
+            IntList rows = rowsByTrainee.remove(traineeId);
+            if (rows != null) {
+                for (int i = 0; i < rows.size; i++) {
+                    delete(rows.values[i]);
+                }
+                compactIfSparse();
+            }
+        }
+
+        private void removeTrainer(Long trainerId) {
+            IntList rows = rowsByTrainer.remove(trainerId);
+            if (rows != null) {
+                for (int i = 0; i < rows.size; i++) {
+                    delete(rows.values[i]);
+                }
+                compactIfSparse();
+            }
+        }
+
+        private void index(int row) {
+            rowByTraining.put(trainingIds[row], row);
+            rowsByTrainee.computeIfAbsent(traineeIds[row], id -> new IntList()).add(row);
+            if (trainerIds[row] != 0) {
+                rowsByTrainer.computeIfAbsent(trainerIds[row], id -> new IntList()).add(row);
+            }
+        }
+
+        private void delete(int row) {
+            if (!deleted.get(row)) {
+                deleted.set(row);
+                deletedRows++;
+                rowByTraining.remove(trainingIds[row]);
+            }
+        }
+
+        // Copies the live rows down over the deleted ones, keeping their order, and reindexes them.
+        private void compactIfSparse() {
+            if (size < COMPACTION_MIN_ROWS || deletedRows * 2 < size) {
+                return;
+            }
+            rowByTraining.clear();
+            rowsByTrainee.clear();
+            rowsByTrainer.clear();
+            int live = 0;
+            for (int row = deleted.nextClearBit(0); row < size; row = deleted.nextClearBit(row + 1)) {
+                trainingIds[live] = trainingIds[row];
+                traineeIds[live] = traineeIds[row];
+                trainerIds[live] = trainerIds[row];
+                typeOrdinals[live] = typeOrdinals[row];
+                epochDays[live] = epochDays[row];
+                durations[live] = durations[row];
+                index(live);
+                live++;
+            }
+            deleted.clear();
+            deletedRows = 0;
+            size = live;
+        }
+
+        private Partial reduce(int[] rows, int from, int to, int firstWeek, int weeks) {
+            Partial partial = new Partial(weeks);
+            for (int i = from; i < to; i++) {
+                int row = rows[i];
+                if (deleted.get(row)) {
+                    continue;
+                }
+                int duration = durations[row];
+                int week = weekOf(epochDays[row]);
+                partial.sessions++;
+                partial.totalMinutes += duration;
+                partial.minutesByType[typeOrdinals[row]] += duration;
+                if (week >= 0) {
+                    partial.activeWeeks.set(week);
+                }
+                if (week >= firstWeek && week < firstWeek + weeks) {
+                    partial.weeklyMinutes[week - firstWeek] += duration;
+                }
+            }
+            return partial;
+        }
+    }
+
+    private static final class Partial {
+        private long sessions;
+        private long totalMinutes;
+        private final long[] minutesByType = new long[TYPES];
+        private final long[] weeklyMinutes;
+        private final BitSet activeWeeks = new BitSet();
+
+        private Partial(int weeks) {
+            this.weeklyMinutes = new long[weeks];
+        }
+
+        private Partial merge(Partial other) {
+            sessions += other.sessions;
+            totalMinutes += other.totalMinutes;
+            for (int i = 0; i < TYPES; i++) {
+                minutesByType[i] += other.minutesByType[i];
+            }
+            for (int i = 0; i < weeklyMinutes.length; i++) {
+                weeklyMinutes[i] += other.weeklyMinutes[i];
+            }
+            activeWeeks.or(other.activeWeeks);
+            return this;
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[8];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.crm_gym.services;
+
+import com.example.crm_gym.dao.TrainingExportDAO;
+import com.example.crm_gym.dto.ExportFormat;
+import com.example.crm_gym.dto.TrainingExportRow;
+import com.example.crm_gym.exception.ServiceException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+@Slf4j
+@Service
+public class TrainingExportService {
+
+    private static final String CSV_HEADER =
+            "id,trainingDate,trainingName,trainingType,trainingDuration,traineeUsername,trainerUsername";
+
+    private final TrainingExportDAO trainingExportDAO;
+    private final ObjectWriter rowWriter;
+    private final MeterRegistry meterRegistry;
+    private final int flushEvery;
+
+    @Autowired
+    public TrainingExportService(TrainingExportDAO trainingExportDAO, ObjectMapper objectMapper, MetricsService metricsService,
+                                 @Value("${training.export.fetch-size:1000}") int flushEvery) {
+        this.trainingExportDAO = trainingExportDAO;
+        this.rowWriter = objectMapper.writerFor(TrainingExportRow.class);
+        this.meterRegistry = metricsService.getMeterRegistry();
+        this.flushEvery = Math.max(1, flushEvery);
+    }
+
+    public long export(ExportFormat format, String trainerUsername, Date fromDate, Date toDate,
+                       OutputStream outputStream, String transactionId) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        Counter rowsWritten = Counter.builder("training.export.rows")
+                .tag("format", format.getFileExtension())
+                .register(meterRegistry);
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        writer.flush();
+
+        long[] written = {0};
+        try {
+            trainingExportDAO.streamTrainings(trainerUsername, fromDate, toDate, row -> {
+                try {
+                    writeRow(format, row, writer);
+                    if (++written[0] % flushEvery == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("[Transaction ID: {}] - Training export aborted after {} rows", transactionId, written[0], e);
+            throw new ServiceException("Training export aborted after " + written[0] + " rows", e);
+        } finally {
+            rowsWritten.increment(written[0]);
+        }
+        writer.flush();
+        log.info("[Transaction ID: {}] - Exported {} trainings as {}", transactionId, written[0], format);
+        return written[0];
+    }
+
+    private void writeRow(ExportFormat format, TrainingExportRow row, Writer writer) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            writer.write(rowWriter.writeValueAsString(row));
+        } else {
+            writer.write(String.valueOf(row.getId()));
+            writer.write(',');
+            writer.write(row.getTrainingDate().toString());
+            writer.write(',');
+            writer.write(csv(row.getTrainingName()));
+            writer.write(',');
+            writer.write(row.getTrainingType() == null ? "" : row.getTrainingType().name());
+            writer.write(',');
+            writer.write(String.valueOf(row.getTrainingDuration()));
+            writer.write(',');
+            writer.write(csv(row.getTraineeUsername()));
+            writer.write(',');
+            writer.write(csv(row.getTrainerUsername()));
+        }
+        writer.write('\n');
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
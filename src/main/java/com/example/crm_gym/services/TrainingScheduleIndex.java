@@ -0,0 +1,259 @@
+package com.example.crm_gym.services;
+
+import com.example.crm_gym.dao.TrainingDAO;
+import com.example.crm_gym.dto.TrainingSlotDTO;
+import com.example.crm_gym.events.TraineeRemovedEvent;
+import com.example.crm_gym.events.TrainerRemovedEvent;
+import com.example.crm_gym.events.TrainingChangedEvent;
+import com.example.crm_gym.events.TrainingSnapshot;
+import com.example.crm_gym.exception.BookingConflictException;
+import com.example.crm_gym.models.Training;
+import com.example.crm_gym.utils.TransactionHooks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-trainer and per-trainee booked intervals, sorted by start, so an overlap check only looks at the bookings that
+ * start within one longest session before the candidate ends. A reservation holds its slot from the check until the
+ * surrounding transaction completes and is released again on rollback. Sessions without a start time are not tracked.
+ */
+@Slf4j
+@Component
+public class TrainingScheduleIndex {
+
+    private final TrainingDAO trainingDAO;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Booking> bookings = new HashMap<>();
+    private final Map<Long, TreeMap<Long, List<Booking>>> byTrainer = new HashMap<>();
+    private final Map<Long, TreeMap<Long, List<Booking>>> byTrainee = new HashMap<>();
+    private long longest;
+
+    @Autowired
+    @Lazy
+    public TrainingScheduleIndex(TrainingDAO trainingDAO) {
+        this.trainingDAO = trainingDAO;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        List<TrainingSlotDTO> slots = trainingDAO.findScheduledSlots();
+        lock.writeLock().lock();
+        try {
+            bookings.clear();
+            byTrainer.clear();
+            byTrainee.clear();
+            longest = 0;
+            for (TrainingSlotDTO slot : slots) {
+                long start = minuteOf(slot.getTrainingDate(), slot.getStartTime());
+                Booking booking = new Booking(slot.getTrainerId(), slot.getTraineeId(), start, start + slot.getTrainingDuration());
+                bookings.put(slot.getTrainingId(), booking);
+                index(booking);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Indexed {} scheduled trainings", slots.size());
+    }
+
+    /**
+     * Claims the training's slot for its trainer and trainee, or throws {@link BookingConflictException} if either
+     * already has an overlapping session. Call inside the transaction that persists the training, before persisting it.
+     * A training that is already booked is moved: its own booking is not a conflict, and it is restored on rollback.
+     */
+    public void reserve(Training training) {
+        if (training.getStartTime() == null) {
+            return;
+        }
+        long start = minuteOf(training.getTrainingDate(), training.getStartTime());
+        Booking booking = new Booking(training.getTrainer().getId(), training.getTrainee().getId(),
+                start, start + training.getTrainingDuration());
+        Booking own;
+        lock.writeLock().lock();
+        try {
+            own = training.getId() == null ? null : bookings.get(training.getId());
+            if (conflictOf(byTrainer.get(booking.trainerId), booking, own) != null) {
+                throw new BookingConflictException("Trainer already has a training overlapping " + describe(training));
+            }
+            if (conflictOf(byTrainee.get(booking.traineeId), booking, own) != null) {
+                throw new BookingConflictException("Trainee already has a training overlapping " + describe(training));
+            }
+            unindex(own);
+            index(booking);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        TransactionHooks.afterCompletion(committed -> settle(training, booking, own, committed));
+    }
+
+    /**
+     * New trainings are settled by their reservation; updated ones are re-indexed from the snapshot, which also covers
+     * an update that dropped its start time, and deleted ones dropped.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainingChanged(TrainingChangedEvent event) {
+        if (event.getPrevious() == null) {
+            return;
+        }
+        if (event.getCurrent() == null) {
+            removeTraining(event.getPrevious().getTrainingId());
+        } else {
+            put(event.getCurrent());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTraineeRemoved(TraineeRemovedEvent event) {
+        removeTrainee(event.getTraineeId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainerRemoved(TrainerRemovedEvent event) {
+        removeTrainer(event.getTrainerId());
+    }
+
+    /**
+     * Re-indexes a committed training as it now is.
+     */
+    public void put(TrainingSnapshot training) {
+        Long trainingId = training.getTrainingId();
+        Booking booking = training.getStartTime() == null || training.getTrainerId() == null || training.getTraineeId() == null ? null
+                : new Booking(training.getTrainerId(), training.getTraineeId(),
+                        minuteOf(training.getTrainingDate(), training.getStartTime()),
+                        minuteOf(training.getTrainingDate(), training.getStartTime()) + training.getTrainingDuration());
+        write(() -> {
+            unindex(bookings.remove(trainingId));
+            if (booking != null) {
+                bookings.put(trainingId, booking);
+                index(booking);
+            }
+        });
+    }
+
+    public void removeTraining(Long trainingId) {
+        write(() -> unindex(bookings.remove(trainingId)));
+    }
+
+    public void removeTrainer(Long trainerId) {
+        write(() -> bookings.values().removeIf(booking -> {
+            boolean matches = trainerId.equals(booking.trainerId);
+            if (matches) {
+                unindex(booking);
+            }
+            return matches;
+        }));
+    }
+
+    public void removeTrainee(Long traineeId) {
+        write(() -> bookings.values().removeIf(booking -> {
+            boolean matches = traineeId.equals(booking.traineeId);
+            if (matches) {
+                unindex(booking);
+            }
+            return matches;
+        }));
+    }
+
+    private void settle(Training training, Booking booking, Booking own, boolean committed) {
+        lock.writeLock().lock();
+        try {
+            if (!committed) {
+                unindex(booking);
+                index(own);
+            } else if (training.getId() != null) {
+                // The update event may already have re-indexed the same slot from its snapshot.
+                Booking replaced = bookings.put(training.getId(), booking);
+                if (replaced != booking) {
+                    unindex(replaced);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void index(Booking booking) {
+        if (booking != null) {
+            slotsOf(byTrainer, booking.trainerId).computeIfAbsent(booking.start, start -> new ArrayList<>(1)).add(booking);
+            slotsOf(byTrainee, booking.traineeId).computeIfAbsent(booking.start, start -> new ArrayList<>(1)).add(booking);
+            longest = Math.max(longest, booking.end - booking.start);
+        }
+    }
+
+    private void unindex(Booking booking) {
+        if (booking != null) {
+            unindex(byTrainer.get(booking.trainerId), booking);
+            unindex(byTrainee.get(booking.traineeId), booking);
+        }
+    }
+
+    private static void unindex(TreeMap<Long, List<Booking>> slots, Booking booking) {
+        if (slots != null) {
+            slots.computeIfPresent(booking.start, (start, starting) -> {
+                starting.removeIf(indexed -> indexed == booking);
+                return starting.isEmpty() ? null : starting;
+            });
+        }
+    }
+
+    // Any booking overlapping the candidate starts before it ends and less than one longest session before it starts.
+    private Booking conflictOf(TreeMap<Long, List<Booking>> slots, Booking candidate, Booking ignored) {
+        if (slots == null) {
+            return null;
+        }
+        for (List<Booking> starting : slots.subMap(candidate.start - longest, false, candidate.end, false).values()) {
+            for (Booking booking : starting) {
+                if (booking != ignored && booking.end > candidate.start) {
+                    return booking;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static TreeMap<Long, List<Booking>> slotsOf(Map<Long, TreeMap<Long, List<Booking>>> slots, Long ownerId) {
+        return slots.computeIfAbsent(ownerId, id -> new TreeMap<>());
+    }
+
+    private static long minuteOf(Date trainingDate, LocalTime startTime) {
+        LocalDate date = trainingDate instanceof java.sql.Date sqlDate ? sqlDate.toLocalDate()
+                : Instant.ofEpochMilli(trainingDate.getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+        return date.atTime(startTime).toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static String describe(Training training) {
+        return training.getTrainingDate() + " at " + training.getStartTime() + " for " + training.getTrainingDuration() + " minutes";
+    }
+
+    private void write(Runnable update) {
+        lock.writeLock().lock();
+        try {
+            update.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static final class Booking {
+        private final Long trainerId;
+        private final Long traineeId;
+        private final long start;
+        private final long end;
+
+        private Booking(Long trainerId, Long traineeId, long start, long end) {
+            this.trainerId = trainerId;
+            this.traineeId = traineeId;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
@@ -3,15 +3,23 @@ package com.example.crm_gym.services;
 import com.example.crm_gym.dao.TraineeDAO;
 import com.example.crm_gym.dao.TrainerDAO;
 import com.example.crm_gym.dao.TrainingDAO;
-import com.example.crm_gym.exception.DaoException;
+import com.example.crm_gym.dto.TrainingDTO;
+import com.example.crm_gym.dto.TrainingPageDTO;
+import com.example.crm_gym.events.TrainingChangedEvent;
+import com.example.crm_gym.events.TrainingSnapshot;
+import com.example.crm_gym.exception.BookingConflictException;
 import com.example.crm_gym.exception.ServiceException;
 import com.example.crm_gym.logger.TransactionLogger;
 import com.example.crm_gym.models.*;
-import jakarta.transaction.Transactional;
+import com.example.crm_gym.utils.TrainingCursor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalTime;
 import java.util.*;
 
 @Slf4j
@@ -22,25 +30,44 @@ public class TrainingService extends BaseService<Training> {
     private TrainingDAO trainingDAO;
     private TraineeDAO traineeDAO;
     private TrainerDAO trainerDAO;
+    private TrainingScheduleIndex trainingScheduleIndex;
+    private ApplicationEventPublisher eventPublisher;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
     @Autowired
-    public TrainingService(TrainingDAO trainingDAO, TraineeDAO traineeDAO, TrainerDAO trainerDAO) {
+    public TrainingService(TrainingDAO trainingDAO, TraineeDAO traineeDAO, TrainerDAO trainerDAO,
+                           TrainingScheduleIndex trainingScheduleIndex, ApplicationEventPublisher eventPublisher,
+                           @Value("${training.page.default-size:20}") int defaultPageSize,
+                           @Value("${training.page.max-size:100}") int maxPageSize) {
         super(trainingDAO);
         this.trainingDAO = trainingDAO;
         this.traineeDAO = traineeDAO;
         this.trainerDAO = trainerDAO;
+        this.trainingScheduleIndex = trainingScheduleIndex;
+        this.eventPublisher = eventPublisher;
+        this.maxPageSize = maxPageSize;
+        this.defaultPageSize = Math.min(defaultPageSize, maxPageSize);
     }
 
     public Optional<Training> create(String traineeUsername, String trainerUsername, String trainingName,
-                                     Date trainingDate, int trainingDuration, String transactionId) {
+                                     Date trainingDate, LocalTime startTime, int trainingDuration, String transactionId) {
         try {
-            Trainee trainee = traineeDAO.findByUsername(traineeUsername)
-                    .orElseThrow(() -> new DaoException("Trainee not found"));
-            Trainer trainer = trainerDAO.findByUsername(trainerUsername)
-                    .orElseThrow(() -> new DaoException("Trainer not found"));
-            Training newTraining = new Training(trainee, trainer, trainingName, trainingDate, trainingDuration);
+            Optional<Trainee> trainee = traineeDAO.findByUsername(traineeUsername);
+            Optional<Trainer> trainer = trainee.isPresent() ? trainerDAO.findByUsername(trainerUsername) : Optional.empty();
+            if (trainee.isEmpty() || trainer.isEmpty()) {
+                log.warn("[Transaction ID: {}] - Trainee {} or trainer {} not found", transactionId, traineeUsername, trainerUsername);
+                return Optional.empty();
+            }
+            Training newTraining = new Training(trainee.get(), trainer.get(), trainingName, trainingDate, trainingDuration);
+            newTraining.setStartTime(startTime);
+            trainingScheduleIndex.reserve(newTraining);
             Optional<Training> savedTraining = trainingDAO.save(newTraining);
+            savedTraining.ifPresent(training -> eventPublisher.publishEvent(TrainingChangedEvent.created(training)));
             return savedTraining;
+        } catch (BookingConflictException e) {
+            log.warn("[Transaction ID: {}] - Booking rejected: {}", transactionId, e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("[Transaction ID: {}] - Error creating training", transactionId, e);
             TransactionLogger.logTransactionEnd(transactionId, "Create Training Failed - Exception Occurred");
@@ -51,9 +78,16 @@ public class TrainingService extends BaseService<Training> {
     public Training update(Training updatedTraining) {
         String transactionId = TransactionLogger.generateTransactionId();
         try {
-            findEntityById(updatedTraining.getId())
+            TrainingSnapshot previous = findEntityById(updatedTraining.getId())
+                    .map(TrainingSnapshot::of)
                     .orElseThrow(() -> new ServiceException("Training not found"));
-            return trainingDAO.update(updatedTraining);
+            trainingScheduleIndex.reserve(updatedTraining);
+            Training training = trainingDAO.update(updatedTraining);
+            eventPublisher.publishEvent(TrainingChangedEvent.updated(previous, training));
+            return training;
+        } catch (BookingConflictException e) {
+            log.warn("[Transaction ID: {}] - Booking rejected: {}", transactionId, e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("[Transaction ID: {}] - Error updating training with id {}: {}", transactionId, updatedTraining.getId(), e);
             throw new ServiceException("Error updating training with id " + updatedTraining.getId(), e);
@@ -65,7 +99,9 @@ public class TrainingService extends BaseService<Training> {
         try {
             Training training = findEntityById(id)
                     .orElseThrow(() -> new ServiceException("Training not found"));
-            return trainingDAO.delete(training);
+            boolean deleted = trainingDAO.delete(training);
+            eventPublisher.publishEvent(TrainingChangedEvent.removed(training));
+            return deleted;
         } catch (Exception e) {
             log.error("[Transaction ID: {}] - Error deleting training with id {}", transactionId, id, e);
             throw new ServiceException("Error deleting training with id " + id, e);
@@ -82,6 +118,7 @@ public class TrainingService extends BaseService<Training> {
         }
     }
 
+    @Transactional(readOnly = true)
     public List<Training> getAllTrainings() {
         String transactionId = TransactionLogger.generateTransactionId();
         try {
@@ -98,6 +135,7 @@ public class TrainingService extends BaseService<Training> {
         }
     }
 
+    @Transactional(readOnly = true)
     public Optional<List<Training>> getTrainingsByTraineeUsernameAndCriteria(String username, Date fromDate, Date toDate, String trainerName, String trainingTypeName) {
         String transactionId = TransactionLogger.generateTransactionId();
         try {
@@ -108,6 +146,7 @@ public class TrainingService extends BaseService<Training> {
         }
     }
 
+    @Transactional(readOnly = true)
     public Optional<List<Training>> getTrainingsByTrainerUsernameAndCriteria(String username, Date fromDate, Date toDate, String traineeName) {
         String transactionId = TransactionLogger.generateTransactionId();
         try {
@@ -118,4 +157,49 @@ public class TrainingService extends BaseService<Training> {
         }
     }
 
+    @Transactional(readOnly = true)
+    public TrainingPageDTO getTraineeTrainingsPage(String username, Date fromDate, Date toDate, String trainerName,
+                                                   String trainingTypeName, String cursor, Integer size, String transactionId) {
+        TrainingCursor after = cursor == null || cursor.isEmpty() ? null : TrainingCursor.decode(cursor);
+        int limit = pageSize(size);
+        try {
+            List<TrainingDTO> trainings = trainingDAO.findTraineeTrainingsPage(username, fromDate, toDate, trainerName,
+                    trainingTypeName, after, limit + 1);
+            return toPage(trainings, limit);
+        } catch (Exception e) {
+            log.error("[Transaction ID: {}] - Error retrieving training page for trainee username: {}", transactionId, username, e);
+            throw new ServiceException("Error retrieving trainings for trainee username: " + username, e);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public TrainingPageDTO getTrainerTrainingsPage(String username, Date fromDate, Date toDate, String traineeName,
+                                                   String cursor, Integer size, String transactionId) {
+        TrainingCursor after = cursor == null || cursor.isEmpty() ? null : TrainingCursor.decode(cursor);
+        int limit = pageSize(size);
+        try {
+            List<TrainingDTO> trainings = trainingDAO.findTrainerTrainingsPage(username, fromDate, toDate, traineeName,
+                    after, limit + 1);
+            return toPage(trainings, limit);
+        } catch (Exception e) {
+            log.error("[Transaction ID: {}] - Error retrieving training page for trainer username: {}", transactionId, username, e);
+            throw new ServiceException("Error retrieving trainings for trainer username: " + username, e);
+        }
+    }
+
+    private int pageSize(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(requested, maxPageSize);
+    }
+
+    private TrainingPageDTO toPage(List<TrainingDTO> trainings, int limit) {
+        if (trainings.size() <= limit) {
+            return new TrainingPageDTO(trainings, null);
+        }
+        List<TrainingDTO> page = new ArrayList<>(trainings.subList(0, limit));
+        return new TrainingPageDTO(page, TrainingCursor.after(page.get(limit - 1)).encode());
+    }
+
 }
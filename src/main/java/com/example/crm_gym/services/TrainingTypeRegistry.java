@@ -0,0 +1,95 @@
+package com.example.crm_gym.services;
+
+import com.example.crm_gym.dao.TrainingTypeDAO;
+import com.example.crm_gym.dto.TrainingTypeDTO;
+import com.example.crm_gym.events.TrainingTypesChangedEvent;
+import com.example.crm_gym.models.TrainingType;
+import com.example.crm_gym.models.TrainingTypeName;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+
+@Slf4j
+@Component
+public class TrainingTypeRegistry {
+
+    private final TrainingTypeDAO trainingTypeDAO;
+    private volatile Snapshot snapshot = Snapshot.of(Collections.emptyList());
+
+    @Autowired
+    public TrainingTypeRegistry(TrainingTypeDAO trainingTypeDAO) {
+        this.trainingTypeDAO = trainingTypeDAO;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        snapshot = Snapshot.of(trainingTypeDAO.findAll().orElse(Collections.emptyList()));
+        log.info("Loaded {} training types", snapshot.all.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainingTypesChanged(TrainingTypesChangedEvent event) {
+        reload();
+    }
+
+    // TrainingTypeDTO is mutable and ends up inside response DTOs, so callers get their own copy of the shared entry.
+    public List<TrainingTypeDTO> getAll() {
+        return snapshot.all.stream().map(TrainingTypeRegistry::copy).toList();
+    }
+
+    public Optional<TrainingTypeDTO> findById(Long id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(snapshot.byId.get(id)).map(TrainingTypeRegistry::copy);
+    }
+
+    public Optional<TrainingTypeDTO> findByName(TrainingTypeName name) {
+        return Optional.ofNullable(snapshot.byName.get(name)).map(TrainingTypeRegistry::copy);
+    }
+
+    public Optional<TrainingTypeDTO> findByName(String name) {
+        return Arrays.stream(TrainingTypeName.values())
+                .filter(value -> value.name().equals(name))
+                .findFirst()
+                .flatMap(this::findByName);
+    }
+
+    public TrainingTypeDTO toDto(TrainingType trainingType) {
+        if (trainingType == null) {
+            return null;
+        }
+        return findById(trainingType.getId())
+                .orElseGet(() -> new TrainingTypeDTO(trainingType.getId(), trainingType.getName()));
+    }
+
+    private static TrainingTypeDTO copy(TrainingTypeDTO shared) {
+        return new TrainingTypeDTO(shared.getId(), shared.getName());
+    }
+
+    private static final class Snapshot {
+        private final Map<TrainingTypeName, TrainingTypeDTO> byName;
+        private final Map<Long, TrainingTypeDTO> byId;
+        private final List<TrainingTypeDTO> all;
+
+        private Snapshot(Map<TrainingTypeName, TrainingTypeDTO> byName, Map<Long, TrainingTypeDTO> byId,
+                         List<TrainingTypeDTO> all) {
+            this.byName = byName;
+            this.byId = byId;
+            this.all = all;
+        }
+
+        private static Snapshot of(List<TrainingType> trainingTypes) {
+            EnumMap<TrainingTypeName, TrainingTypeDTO> byName = new EnumMap<>(TrainingTypeName.class);
+            Map<Long, TrainingTypeDTO> byId = new HashMap<>();
+            for (TrainingType trainingType : trainingTypes) {
+                TrainingTypeDTO dto = new TrainingTypeDTO(trainingType.getId(), trainingType.getName());
+                byName.put(dto.getName(), dto);
+                byId.put(dto.getId(), dto);
+            }
+            return new Snapshot(Collections.unmodifiableMap(byName), Map.copyOf(byId), List.copyOf(byName.values()));
+        }
+    }
+}
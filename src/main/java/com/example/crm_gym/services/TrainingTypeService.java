@@ -1,12 +1,15 @@
 package com.example.crm_gym.services;
 
 import com.example.crm_gym.dao.TrainingTypeDAO;
+import com.example.crm_gym.dto.TrainingTypeDTO;
+import com.example.crm_gym.events.TrainingTypesChangedEvent;
 import com.example.crm_gym.exception.ServiceException;
 import com.example.crm_gym.models.*;
-import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 
@@ -16,17 +19,23 @@ import java.util.*;
 public class  TrainingTypeService extends BaseService<TrainingType> {
 
     private TrainingTypeDAO trainingTypeDAO;
+    private TrainingTypeRegistry trainingTypeRegistry;
+    private ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public TrainingTypeService(TrainingTypeDAO trainingTypeDAO) {
+    public TrainingTypeService(TrainingTypeDAO trainingTypeDAO, TrainingTypeRegistry trainingTypeRegistry,
+                               ApplicationEventPublisher eventPublisher) {
         super(trainingTypeDAO);
         this.trainingTypeDAO = trainingTypeDAO;
+        this.trainingTypeRegistry = trainingTypeRegistry;
+        this.eventPublisher = eventPublisher;
     }
 
     public Optional<TrainingType> create(TrainingTypeName name) {
         try {
             TrainingType trainingType = new TrainingType(name);
             Optional<TrainingType> savedTrainingType = trainingTypeDAO.save(trainingType);
+            eventPublisher.publishEvent(new TrainingTypesChangedEvent());
             return savedTrainingType;
         } catch (Exception e) {
             log.error("Error creating training type", e);
@@ -38,7 +47,9 @@ public class  TrainingTypeService extends BaseService<TrainingType> {
         try {
             findEntityById(newTrainingType.getId())
                     .orElseThrow(() -> new ServiceException("Training type not found"));
-            return trainingTypeDAO.update(newTrainingType);
+            Optional<TrainingType> updatedTrainingType = trainingTypeDAO.update(newTrainingType);
+            eventPublisher.publishEvent(new TrainingTypesChangedEvent());
+            return updatedTrainingType;
         } catch (Exception e) {
             log.error("Error updating training type with id {}: {}", newTrainingType.getId(), e);
             throw new ServiceException("Error updating training type with id " + newTrainingType.getId(), e);
@@ -49,13 +60,16 @@ public class  TrainingTypeService extends BaseService<TrainingType> {
         try {
             TrainingType trainingType = findEntityById(id)
                     .orElseThrow(() -> new ServiceException("Training Type not found"));
-            return trainingTypeDAO.delete(trainingType);
+            boolean deleted = trainingTypeDAO.delete(trainingType);
+            eventPublisher.publishEvent(new TrainingTypesChangedEvent());
+            return deleted;
         } catch (Exception e) {
             log.error("Error deleting training type with id {}", id, e);
             throw new ServiceException("Error deleting training type with id " + id, e);
         }
     }
 
+    @Transactional(readOnly = true)
     public Optional<TrainingType> getTrainingTypeById(Long id) {
         try {
             return trainingTypeDAO.findById(id);
@@ -65,19 +79,13 @@ public class  TrainingTypeService extends BaseService<TrainingType> {
         }
     }
 
-    public List<TrainingType> getAllTrainingTypes() {
-        try {
-            Optional<List<TrainingType>> trainingTypes = trainingTypeDAO.findAll();
-            if (trainingTypes.isPresent()) {
-                return trainingTypes.get();
-            } else {
-                log.warn("No training types found.");
-                throw new ServiceException("No training types found.");
-            }
-        } catch (Exception e) {
-            log.error("Error fetching all training types", e);
-            throw new ServiceException("Error fetching all training types", e);
+    public List<TrainingTypeDTO> getAllTrainingTypes() {
+        List<TrainingTypeDTO> trainingTypes = trainingTypeRegistry.getAll();
+        if (trainingTypes.isEmpty()) {
+            log.warn("No training types found.");
+            throw new ServiceException("No training types found.");
         }
+        return trainingTypes;
     }
 
 }
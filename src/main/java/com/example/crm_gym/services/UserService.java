@@ -1,19 +1,24 @@
 package com.example.crm_gym.services;
 
 import com.example.crm_gym.dao.UserDAO;
-import com.example.crm_gym.exception.EntityNotFoundException;
+import com.example.crm_gym.dto.PersonDTO;
+import com.example.crm_gym.exception.HashingCapacityExceededException;
 import com.example.crm_gym.exception.InvalidCredentialsException;
 import com.example.crm_gym.logger.TransactionLogger;
 import com.example.crm_gym.models.User;
 import com.example.crm_gym.security.BruteForceProtectionService;
+import com.example.crm_gym.security.Role;
+import com.example.crm_gym.security.TokenRevocationStore;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import com.example.crm_gym.exception.ServiceException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.LockedException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.Optional;
 
 @Slf4j
@@ -23,58 +28,114 @@ public class UserService {
     private PasswordEncoder passwordEncoder;
     private UserDAO userDAO;
     private BruteForceProtectionService bruteForceProtectionService;
+    private TokenRevocationStore tokenRevocationStore;
+    private PeopleSearchIndex peopleSearchIndex;
+    private final int defaultSearchSize;
+    private final int maxSearchSize;
 
     @Autowired
-    public UserService(UserDAO userDAO, PasswordEncoder passwordEncoder, BruteForceProtectionService bruteForceProtectionService) {
+    public UserService(UserDAO userDAO, PasswordEncoder passwordEncoder, BruteForceProtectionService bruteForceProtectionService,
+                       TokenRevocationStore tokenRevocationStore, PeopleSearchIndex peopleSearchIndex,
+                       @Value("${people.search.default-size:10}") int defaultSearchSize,
+                       @Value("${people.search.max-size:50}") int maxSearchSize) {
         this.userDAO = userDAO;
         this.passwordEncoder = passwordEncoder;
         this.bruteForceProtectionService = bruteForceProtectionService;
+        this.tokenRevocationStore = tokenRevocationStore;
+        this.peopleSearchIndex = peopleSearchIndex;
+        this.defaultSearchSize = defaultSearchSize;
+        this.maxSearchSize = maxSearchSize;
+    }
+
+    public List<PersonDTO> searchPeople(String query, Integer size, String transactionId) {
+        try {
+            int limit = size == null || size <= 0 ? defaultSearchSize : Math.min(size, maxSearchSize);
+            return peopleSearchIndex.search(query, limit);
+        } catch (Exception e) {
+            log.error("[Transaction ID: {}] - Error searching people for query: {}", transactionId, query, e);
+            throw new ServiceException("Error searching people for query: " + query, e);
+        }
     }
 
     public Optional<User> authenticateUser(String username, String password) {
+        return authenticateUser(username, password, null);
+    }
+
+    public Optional<User> authenticateUser(String username, String password, String clientIp) {
         String transactionId = TransactionLogger.generateTransactionId();
         try {
-            if (bruteForceProtectionService.isBlocked(username)) {
+            if (bruteForceProtectionService.isBlocked(username, clientIp)) {
                 log.warn("[Transaction ID: {}] - User account is locked due to multiple failed login attempts");
                 throw new LockedException("User account is locked due to multiple failed login attempts. Try again later.");
             }
 
             Optional<User> userOptional = userDAO.findByUsername(username);
-            if (!userOptional.isPresent()) {
+            if (userOptional.isEmpty()) {
+                bruteForceProtectionService.loginFailed(null, clientIp);
                 log.warn("[Transaction ID: {}] - Authentication failed: User not found for username: {}", transactionId, username);
-                throw new EntityNotFoundException("User with username " + username + " not found.");
+                return Optional.empty();
             }
             User user = userOptional.get();
 
             if (!passwordEncoder.matches(password, user.getPassword())) {
-                bruteForceProtectionService.loginFailed(username);
+                bruteForceProtectionService.loginFailed(username, clientIp);
                 log.warn("[Transaction ID: {}] - Authentication failed: Invalid password for username: {}", transactionId, username);
                 throw new InvalidCredentialsException("Invalid password for username: " + username);
             }
             bruteForceProtectionService.loginSucceeded(username);
+            upgradePasswordEncoding(user, password, transactionId);
             return Optional.of(user);
+        } catch (LockedException | InvalidCredentialsException e) {
+            throw e;
         } catch (Exception e) {
             log.error("[Transaction ID: {}] - Error during authentication for username: {}", transactionId ,username, e);
             throw e;
         }
     }
 
+    public Role getRole(User user) {
+        try {
+            return userDAO.findRole(user);
+        } catch (Exception e) {
+            log.error("Error resolving role for user {}", user.getUsername(), e);
+            throw new ServiceException("Error resolving role for user " + user.getUsername(), e);
+        }
+    }
+
     public void changePassword(String username, String oldPassword, String newPassword) {
         String transactionId = TransactionLogger.generateTransactionId();
         try {
             Optional<User> userOptional = authenticateUser(username, oldPassword);
             if (userOptional.isPresent()) {
                 User user = userOptional.get();
-                user.setPassword(newPassword);
+                user.setPassword(passwordEncoder.encode(newPassword));
                 Optional<User> updatedUser = userDAO.update(user);
                 if (!updatedUser.isPresent()) {
                     log.warn("[Transaction ID: {}] - User password not updated: {}", transactionId, username);
                     throw new ServiceException("Failed to update password for username: " + username);
                 }
+                tokenRevocationStore.revokeTokens(username);
+            } else {
+                throw new InvalidCredentialsException("Invalid username or password for username: " + username);
             }
+        } catch (HashingCapacityExceededException | InvalidCredentialsException | LockedException e) {
+            throw e;
         } catch (Exception e) {
             log.error("[Transaction ID: {}] - Error changing password for username: {}", transactionId, username, e);
             throw new ServiceException("Error occurred while changing password for username: " + username, e);
         }
     }
+
+    private void upgradePasswordEncoding(User user, String password, String transactionId) {
+        if (!passwordEncoder.upgradeEncoding(user.getPassword())) {
+            return;
+        }
+        try {
+            user.setPassword(passwordEncoder.encode(password));
+            userDAO.update(user);
+            log.info("[Transaction ID: {}] - Upgraded password hash for username: {}", transactionId, user.getUsername());
+        } catch (Exception e) {
+            log.warn("[Transaction ID: {}] - Could not upgrade password hash for username: {}", transactionId, user.getUsername(), e);
+        }
+    }
 }
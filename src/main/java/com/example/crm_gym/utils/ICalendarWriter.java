@@ -0,0 +1,96 @@
+package com.example.crm_gym.utils;
+
+import com.example.crm_gym.dto.CalendarEntryDTO;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes an RFC 5545 calendar one event at a time. Sessions with a start time become floating local-time events,
+ * sessions without one become all-day events; long content lines are folded at 75 octets.
+ */
+public class ICalendarWriter {
+
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private final Writer writer;
+
+    public ICalendarWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public void beginCalendar(String name) throws IOException {
+        line("BEGIN:VCALENDAR");
+        line("VERSION:2.0");
+        line("PRODID:-//CRM Gym//Training Schedule//EN");
+        line("CALSCALE:GREGORIAN");
+        line("METHOD:PUBLISH");
+        line("X-WR-CALNAME:" + text(name));
+    }
+
+    public void writeEvent(CalendarEntryDTO entry, Instant stamp) throws IOException {
+        line("BEGIN:VEVENT");
+        line("UID:training-" + entry.getTrainingId() + "@crm-gym");
+        line("DTSTAMP:" + DATE_TIME.format(stamp.atOffset(ZoneOffset.UTC)) + "Z");
+        if (entry.getStartTime() == null) {
+            line("DTSTART;VALUE=DATE:" + DATE.format(entry.getTrainingDate()));
+            line("DTEND;VALUE=DATE:" + DATE.format(entry.getTrainingDate().plusDays(1)));
+        } else {
+            LocalDateTime start = entry.getTrainingDate().atTime(entry.getStartTime());
+            line("DTSTART:" + DATE_TIME.format(start));
+            line("DTEND:" + DATE_TIME.format(start.plusMinutes(entry.getTrainingDuration())));
+        }
+        line("SUMMARY:" + text(entry.getTrainingName()));
+        if (entry.getTrainingType() != null) {
+            line("CATEGORIES:" + entry.getTrainingType().name());
+        }
+        line("DESCRIPTION:" + text((entry.getTrainingType() == null ? "Training" : entry.getTrainingType().name())
+                + ", " + entry.getTrainingDuration() + " minutes, trainer " + entry.getTrainerUsername()
+                + ", trainee " + entry.getTraineeUsername()));
+        line("END:VEVENT");
+    }
+
+    public void endCalendar() throws IOException {
+        line("END:VCALENDAR");
+        writer.flush();
+    }
+
+    private void line(String content) throws IOException {
+        int octets = 0;
+        for (int i = 0; i < content.length(); ) {
+            int codePoint = content.codePointAt(i);
+            int width = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (octets + width > MAX_LINE_OCTETS) {
+                writer.write("\r\n ");
+                octets = 1;
+            }
+            writer.write(content, i, Character.charCount(codePoint));
+            octets += width;
+            i += Character.charCount(codePoint);
+        }
+        writer.write("\r\n");
+    }
+
+    private static String text(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder escaped = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\', ';', ',' -> escaped.append('\\').append(c);
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> { }
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
@@ -1,50 +1,63 @@
 package com.example.crm_gym.utils;
 
+import com.example.crm_gym.models.User;
+import com.example.crm_gym.security.JwtPrincipal;
+import com.example.crm_gym.security.Role;
+import com.example.crm_gym.security.TokenRevocationStore;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.Optional;
 
 @Component
 public class JwtUtil {
 
     private static final SecretKey SECRET_KEY = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+    public static final long EXPIRATION_MILLIS = 1000 * 60 * 60 * 10;
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_CLAIM = "role";
+    private static final String VERSION_CLAIM = "ver";
 
-    public String generateToken(String username) {
-        return Jwts.builder()
-                .setSubject(username)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10))
-                .signWith(SECRET_KEY, SignatureAlgorithm.HS256)
-                .compact();
-    }
+    private final JwtParser parser = Jwts.parser()
+            .setSigningKey(SECRET_KEY)
+            .build();
 
-    public String extractUsername(String token) {
-        return Jwts.parser()
-                .setSigningKey(SECRET_KEY)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
-    }
+    private final TokenRevocationStore tokenRevocationStore;
 
-    public boolean validateToken(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+    @Autowired
+    public JwtUtil(TokenRevocationStore tokenRevocationStore) {
+        this.tokenRevocationStore = tokenRevocationStore;
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public String generateToken(User user, Role role) {
+        return Jwts.builder()
+                .setSubject(user.getUsername())
+                .claim(USER_ID_CLAIM, user.getUserId())
+                .claim(ROLE_CLAIM, role.name())
+                .claim(VERSION_CLAIM, tokenRevocationStore.issueStamp())
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_MILLIS))
+                .signWith(SECRET_KEY, SignatureAlgorithm.HS256)
+                .compact();
     }
 
-    private Date extractExpiration(String token) {
-        return Jwts.parser()
-                .setSigningKey(SECRET_KEY)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getExpiration();
+    public Optional<JwtPrincipal> parseToken(String token) {
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            String role = claims.get(ROLE_CLAIM, String.class);
+            Long version = claims.get(VERSION_CLAIM, Long.class);
+            return Optional.of(new JwtPrincipal(
+                    claims.getSubject(),
+                    claims.get(USER_ID_CLAIM, Long.class),
+                    role != null ? Role.valueOf(role) : Role.USER,
+                    version != null ? version : 0L,
+                    claims.getExpiration().toInstant()));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
     }
 }
@@ -0,0 +1,56 @@
+package com.example.crm_gym.utils;
+
+import com.example.crm_gym.exception.InvalidCursorException;
+import com.example.crm_gym.dto.TrainingDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Date;
+
+public final class TrainingCursor {
+
+    private static final String SEPARATOR = ":";
+
+    private final LocalDate trainingDate;
+    private final long id;
+
+    public TrainingCursor(LocalDate trainingDate, long id) {
+        this.trainingDate = trainingDate;
+        this.id = id;
+    }
+
+    public static TrainingCursor after(TrainingDTO training) {
+        LocalDate date = new java.sql.Date(training.getTrainingDate().getTime()).toLocalDate();
+        return new TrainingCursor(date, training.getId());
+    }
+
+    public static TrainingCursor decode(String token) {
+        try {
+            String payload = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = payload.lastIndexOf(SEPARATOR);
+            if (separator <= 0) {
+                throw new InvalidCursorException("Malformed cursor");
+            }
+            return new TrainingCursor(LocalDate.parse(payload.substring(0, separator)),
+                    Long.parseLong(payload.substring(separator + 1)));
+        } catch (InvalidCursorException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+    }
+
+    public String encode() {
+        String payload = trainingDate + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Date getTrainingDate() {
+        return java.sql.Date.valueOf(trainingDate);
+    }
+
+    public long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,73 @@
+create sequence users_seq start with 1 increment by 50;
+create sequence trainees_seq start with 1 increment by 50;
+create sequence trainers_seq start with 1 increment by 50;
+create sequence training_types_seq start with 1 increment by 50;
+create sequence trainings_seq start with 1 increment by 50;
+
+create table users (
+    userid bigint not null,
+    first_name varchar(100) not null,
+    last_name varchar(100) not null,
+    username varchar(255) not null,
+    password varchar(255) not null,
+    is_active boolean not null,
+    constraint pk_users primary key (userid),
+    constraint uk_users_username unique (username)
+);
+
+create table training_types (
+    id bigint not null,
+    name varchar(255) not null,
+    constraint pk_training_types primary key (id),
+    constraint uk_training_types_name unique (name),
+    constraint ck_training_types_name check (name in ('CARDIO', 'STRENGTH', 'HIIT', 'YOGA', 'PILATES', 'CROSSFIT',
+        'BODYBUILDING', 'KICKBOXING', 'DANCE', 'REHABILITATION', 'FITNESS'))
+);
+
+create table trainees (
+    id bigint not null,
+    date_of_birth date,
+    address varchar(255),
+    user_id bigint,
+    constraint pk_trainees primary key (id),
+    constraint uk_trainees_user unique (user_id),
+    constraint fk_trainees_user foreign key (user_id) references users (userid)
+);
+
+create table trainers (
+    id bigint not null,
+    specialization_id bigint not null,
+    user_id bigint,
+    constraint pk_trainers primary key (id),
+    constraint uk_trainers_user unique (user_id),
+    constraint fk_trainers_user foreign key (user_id) references users (userid),
+    constraint fk_trainers_specialization foreign key (specialization_id) references training_types (id)
+);
+
+create table trainee_trainer (
+    trainee_id bigint not null,
+    trainer_id bigint not null,
+    constraint pk_trainee_trainer primary key (trainee_id, trainer_id),
+    constraint fk_trainee_trainer_trainee foreign key (trainee_id) references trainees (id),
+    constraint fk_trainee_trainer_trainer foreign key (trainer_id) references trainers (id)
+);
+
+create table trainings (
+    id bigint not null,
+    trainee_id bigint,
+    trainer_id bigint,
+    training_type_id bigint,
+    training_name varchar(255) not null,
+    training_date date not null,
+    training_duration integer not null,
+    constraint pk_trainings primary key (id),
+    constraint fk_trainings_trainee foreign key (trainee_id) references trainees (id),
+    constraint fk_trainings_trainer foreign key (trainer_id) references trainers (id),
+    constraint fk_trainings_training_type foreign key (training_type_id) references training_types (id)
+);
+
+create table username_counters (
+    base_name varchar(255) not null,
+    last_suffix integer not null,
+    constraint pk_username_counters primary key (base_name)
+);
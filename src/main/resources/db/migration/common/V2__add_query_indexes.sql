@@ -0,0 +1,12 @@
+-- Training history: equality on trainee/trainer, range and keyset order on (training_date, id).
+create index idx_trainings_trainee_date_id on trainings (trainee_id, training_date desc, id desc);
+create index idx_trainings_trainer_date_id on trainings (trainer_id, training_date desc, id desc);
+create index idx_trainings_training_type on trainings (training_type_id);
+
+-- Registration duplicate checks look users up by name; the index covers both selected columns.
+create index idx_users_name on users (first_name, last_name);
+
+-- The primary key serves trainee -> trainers; this serves trainer -> trainees and trainer deletes.
+create index idx_trainee_trainer_trainer on trainee_trainer (trainer_id, trainee_id);
+
+create index idx_trainers_specialization on trainers (specialization_id);
@@ -0,0 +1,2 @@
+-- Sessions booked before start times existed keep a null start and are not checked for overlaps.
+alter table trainings add column start_time time;
@@ -0,0 +1,16 @@
+-- Minutes taught per trainer, day and training type; sessions without a type count under the trainer's specialization.
+-- Derived from trainings and rebuilt from them on demand, so it carries no foreign keys.
+create table trainer_daily_utilization (
+    trainer_id bigint not null,
+    training_date date not null,
+    training_type_id bigint not null,
+    minutes bigint not null,
+    sessions integer not null,
+    constraint pk_trainer_daily_utilization primary key (trainer_id, training_date, training_type_id)
+);
+
+insert into trainer_daily_utilization (trainer_id, training_date, training_type_id, minutes, sessions)
+select t.trainer_id, t.training_date, coalesce(t.training_type_id, tr.specialization_id), sum(t.training_duration), count(*)
+from trainings t
+join trainers tr on tr.id = t.trainer_id
+group by t.trainer_id, t.training_date, coalesce(t.training_type_id, tr.specialization_id);
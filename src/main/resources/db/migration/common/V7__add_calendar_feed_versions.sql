@@ -0,0 +1,6 @@
+-- Version of each trainer's and trainee's calendar feed, bumped in the transaction that changes one of their
+-- trainings, so every node answers a feed with the same ETag and Last-Modified.
+alter table trainers add column feed_version bigint default 0 not null;
+alter table trainers add column feed_updated_at timestamp default current_timestamp not null;
+alter table trainees add column feed_version bigint default 0 not null;
+alter table trainees add column feed_updated_at timestamp default current_timestamp not null;
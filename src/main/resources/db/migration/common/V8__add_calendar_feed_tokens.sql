@@ -0,0 +1,4 @@
+-- Generation of the signed tokens in each trainer's and trainee's calendar feed URLs; bumping it revokes every URL
+-- handed out before.
+alter table trainers add column feed_token_generation bigint default 0 not null;
+alter table trainees add column feed_token_generation bigint default 0 not null;
@@ -0,0 +1,8 @@
+-- Carry the projected history columns in the leaf pages so a page is served by an index-only scan.
+drop index idx_trainings_trainee_date_id;
+create index idx_trainings_trainee_date_id on trainings (trainee_id, training_date desc, id desc)
+    include (trainer_id, training_type_id, training_name, training_duration);
+
+drop index idx_trainings_trainer_date_id;
+create index idx_trainings_trainer_date_id on trainings (trainer_id, training_date desc, id desc)
+    include (trainee_id, training_type_id, training_name, training_duration);
@@ -0,0 +1,12 @@
+-- Backs the in-memory booking check across nodes: no two timed sessions of a trainer or of a trainee overlap.
+create extension if not exists btree_gist;
+
+alter table trainings add constraint ex_trainings_trainer_slot exclude using gist (
+    trainer_id with =,
+    tsrange(training_date + start_time, training_date + start_time + training_duration * interval '1 minute') with &&
+) where (start_time is not null);
+
+alter table trainings add constraint ex_trainings_trainee_slot exclude using gist (
+    trainee_id with =,
+    tsrange(training_date + start_time, training_date + start_time + training_duration * interval '1 minute') with &&
+) where (start_time is not null);
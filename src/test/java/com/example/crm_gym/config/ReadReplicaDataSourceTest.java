@@ -0,0 +1,151 @@
+package com.example.crm_gym.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadReplicaDataSourceTest {
+
+    private static final String LAG_QUERY = "SELECT lag_seconds FROM replica_status";
+
+    private DataSource primary;
+    private DataSource replica;
+    private SimpleMeterRegistry meterRegistry;
+    private ReadReplicaDataSource readReplicas;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        new JdbcTemplate(replica).execute("CREATE TABLE replica_status (lag_seconds DOUBLE)");
+        new JdbcTemplate(replica).update("INSERT INTO replica_status VALUES (0)");
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (readReplicas != null) {
+            readReplicas.close();
+        }
+        new JdbcTemplate(primary).execute("SHUTDOWN");
+        new JdbcTemplate(replica).execute("SHUTDOWN");
+    }
+
+    @Test
+    void testReadOnlyTransactionsUseReplica() {
+        DataSource dataSource = routing(List.of(new ReadReplicaDataSource.Replica("replica-0", replica)));
+        readReplicas.checkReplicas();
+
+        assertEquals("replica", nodeName(dataSource, true));
+        assertEquals("primary", nodeName(dataSource, false));
+    }
+
+    @Test
+    void testReplicaJoinsRotationAfterFirstHealthCheck() {
+        DataSource dataSource = routing(List.of(new ReadReplicaDataSource.Replica("replica-0", replica)));
+
+        assertFalse(readReplicas.getReplicas().get(0).isHealthy());
+        assertEquals("primary", nodeName(dataSource, true));
+
+        readReplicas.checkReplicas();
+
+        assertEquals("replica", nodeName(dataSource, true));
+    }
+
+    @Test
+    void testExplicitCredentialsAreUsedForReplicaAndPrimary() throws Exception {
+        routing(List.of(new ReadReplicaDataSource.Replica("replica-0", replica)));
+        readReplicas.checkReplicas();
+
+        try (Connection connection = readReplicas.getConnection("sa", "")) {
+            assertEquals("replica", node(connection));
+        }
+        new JdbcTemplate(replica).update("UPDATE replica_status SET lag_seconds = 30");
+        readReplicas.checkReplicas();
+        try (Connection connection = readReplicas.getConnection("sa", "")) {
+            assertEquals("primary", node(connection));
+        }
+    }
+
+    @Test
+    void testLaggingReplicaFallsBackToPrimary() {
+        DataSource dataSource = routing(List.of(new ReadReplicaDataSource.Replica("replica-0", replica)));
+        readReplicas.checkReplicas();
+        new JdbcTemplate(replica).update("UPDATE replica_status SET lag_seconds = 30");
+
+        readReplicas.checkReplicas();
+
+        assertFalse(readReplicas.getReplicas().get(0).isHealthy());
+        assertEquals("primary", nodeName(dataSource, true));
+        assertEquals(1.0, meterRegistry.counter("datasource.replica.fallbacks").count());
+
+        new JdbcTemplate(replica).update("UPDATE replica_status SET lag_seconds = 0");
+        readReplicas.checkReplicas();
+
+        assertEquals("replica", nodeName(dataSource, true));
+    }
+
+    @Test
+    void testUnreachableReplicaIsTakenOutOfRotation() {
+        DataSource flaky = database("flaky");
+        new JdbcTemplate(flaky).execute("CREATE TABLE replica_status (lag_seconds DOUBLE)");
+        DataSource unreachable = new DriverManagerDataSource("jdbc:h2:mem:routing_flaky;IFEXISTS=TRUE", "sa", "");
+        DataSource dataSource = routing(List.of(
+                new ReadReplicaDataSource.Replica("replica-0", unreachable),
+                new ReadReplicaDataSource.Replica("replica-1", replica)));
+        readReplicas.checkReplicas();
+        assertTrue(readReplicas.getReplicas().get(0).isHealthy());
+        new JdbcTemplate(flaky).execute("SHUTDOWN");
+
+        assertEquals("replica", nodeName(dataSource, true));
+        assertEquals("replica", nodeName(dataSource, true));
+        assertFalse(readReplicas.getReplicas().get(0).isHealthy());
+        assertTrue(readReplicas.getReplicas().get(1).isHealthy());
+    }
+
+    private DataSource routing(List<ReadReplicaDataSource.Replica> replicas) {
+        readReplicas = new ReadReplicaDataSource(primary, replicas, LAG_QUERY, Duration.ofSeconds(5), meterRegistry);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(readReplicas);
+        return dataSource;
+    }
+
+    private String nodeName(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private static String node(Connection connection) throws Exception {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT name FROM node")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing_" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+}
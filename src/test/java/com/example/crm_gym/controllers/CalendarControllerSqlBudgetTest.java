@@ -0,0 +1,131 @@
+package com.example.crm_gym.controllers;
+
+import com.example.crm_gym.security.Role;
+import com.example.crm_gym.services.CalendarFeedCache;
+import com.example.crm_gym.support.sql.SqlBudget;
+import com.example.crm_gym.support.sql.SqlBudgetEndpointTestSupport;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Endpoint SQL budgets and access rules of the iCalendar feeds.
+ */
+class CalendarControllerSqlBudgetTest extends SqlBudgetEndpointTestSupport {
+
+    @Autowired
+    private CalendarFeedCache calendarFeedCache;
+
+    @Test
+    void calendarFeedIsRevalidatedWithOneQuery() throws Exception {
+        MockHttpServletResponse first = calendar("/trainees/Ann.Trainee/calendar.ics", null);
+        String eTag = first.getHeader(HttpHeaders.ETAG);
+        assertEquals(2, first.getContentAsString().split("BEGIN:VEVENT").length - 1);
+
+        sqlBudget.assertWithin(SqlBudget.of("GET /trainees/{username}/calendar.ics unchanged").statements(1),
+                () -> mockMvc.perform(get("/trainees/Ann.Trainee/calendar.ics").header("Authorization", traineeToken)
+                                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                        .andExpect(status().isNotModified())
+                        .andExpect(header().string(HttpHeaders.ETAG, eTag)));
+        sqlBudget.assertWithin(SqlBudget.of("GET /trainees/{username}/calendar.ics cached").statements(1),
+                () -> assertEquals(first.getContentAsString(), calendar("/trainees/Ann.Trainee/calendar.ics", null).getContentAsString()));
+
+        // The version comes from the database, so a node that never rendered the feed answers with the same ETag.
+        calendarFeedCache.clear();
+        mockMvc.perform(get("/trainees/Ann.Trainee/calendar.ics").header("Authorization", traineeToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(booking("Ann.Trainee", "Tia.Coach", "08:00", 50)).andExpect(status().isCreated());
+        String refreshed = calendar("/trainees/Ann.Trainee/calendar.ics", eTag).getContentAsString();
+        assertEquals(3, refreshed.split("BEGIN:VEVENT").length - 1);
+        assertTrue(refreshed.contains("DTSTART:20240501T080000\r\nDTEND:20240501T085000\r\n"));
+    }
+
+    @Test
+    void removingTraineeChangesTheirTrainersFeeds() throws Exception {
+        String eTag = calendar("/trainers/Tom.Trainer/calendar.ics", null).getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(delete("/trainees/Ann.Trainee").header("Authorization", traineeToken))
+                .andExpect(status().isOk());
+
+        String coachToken = "Bearer " + jwtUtil.generateToken(trainer.getUser(), Role.TRAINER);
+        MvcResult started = mockMvc.perform(get("/trainers/Tom.Trainer/calendar.ics").header("Authorization", coachToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertFalse(body.contains("BEGIN:VEVENT"));
+    }
+
+    @Test
+    void trainerCalendarFeed() throws Exception {
+        String body = calendar("/trainers/Tom.Trainer/calendar.ics", null).getContentAsString();
+        assertTrue(body.startsWith("BEGIN:VCALENDAR\r\n"));
+        assertTrue(body.contains("SUMMARY:Morning flow\r\n"));
+        assertTrue(body.contains("CATEGORIES:YOGA\r\n"));
+        mockMvc.perform(get("/trainers/Nobody.Here/calendar.ics").header("Authorization", trainerToken))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void calendarFeedIsServedWithItsFeedTokenInsteadOfABearerToken() throws Exception {
+        String response = mockMvc.perform(get("/trainees/Ann.Trainee/calendar-token").header("Authorization", traineeToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String feedToken = JsonPath.read(response, "$.token");
+        assertTrue(JsonPath.<String>read(response, "$.url").endsWith("/trainees/Ann.Trainee/calendar.ics?token=" + feedToken));
+
+        MvcResult started = mockMvc.perform(get("/trainees/Ann.Trainee/calendar.ics").param("token", feedToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"Ann.Trainee.ics\""));
+        mockMvc.perform(get("/trainees/Ann.Trainee/calendar.ics"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/trainers/Tom.Trainer/calendar.ics").param("token", feedToken))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/trainees/Nobody.Here/calendar.ics").param("token", feedToken))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/trainers/Tom.Trainer/calendar-token").header("Authorization", traineeToken))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(delete("/trainees/Ann.Trainee/calendar-token").header("Authorization", traineeToken))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/trainees/Ann.Trainee/calendar.ics").param("token", feedToken))
+                .andExpect(status().isUnauthorized());
+        String renewed = JsonPath.read(mockMvc.perform(get("/trainees/Ann.Trainee/calendar-token").header("Authorization", traineeToken))
+                .andReturn().getResponse().getContentAsString(), "$.token");
+        mockMvc.perform(get("/trainees/Ann.Trainee/calendar.ics").param("token", renewed))
+                .andExpect(request().asyncStarted());
+    }
+
+    private MockHttpServletResponse calendar(String path, String ifNoneMatch) throws Exception {
+        MockHttpServletRequestBuilder feed = get(path).header("Authorization", traineeToken);
+        if (ifNoneMatch != null) {
+            feed.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MvcResult started = mockMvc.perform(feed)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/calendar"))
+                .andReturn().getResponse();
+    }
+}
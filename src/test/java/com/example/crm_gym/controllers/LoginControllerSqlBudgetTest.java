@@ -0,0 +1,98 @@
+package com.example.crm_gym.controllers;
+
+import com.example.crm_gym.security.Role;
+import com.example.crm_gym.support.sql.SqlBudget;
+import com.example.crm_gym.support.sql.SqlBudgetEndpointTestSupport;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Endpoint SQL budgets of login, password changes, token revocation and people search.
+ */
+class LoginControllerSqlBudgetTest extends SqlBudgetEndpointTestSupport {
+    @Test
+    void login() throws Exception {
+        expect(SqlBudget.of("POST /user/login").statements(1).collectionFetches(0),
+                post("/user/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\": \"Ann.Trainee\", \"password\": \"" + PASSWORD + "\"}"),
+                status().isOk());
+    }
+
+    @Test
+    void changePassword() throws Exception {
+        expect(SqlBudget.of("PUT /user/changepassword").statements(1).collectionFetches(0),
+                put("/user/changepassword").header("Authorization", traineeToken).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\": \"Ann.Trainee\", \"oldPassword\": \"" + PASSWORD + "\", \"newPassword\": \"another-password\"}"),
+                status().isOk());
+    }
+
+    @Test
+    void changePasswordOfUnknownUserIsUnauthorized() throws Exception {
+        expect(SqlBudget.of("PUT /user/changepassword (unknown user)").statements(1).collectionFetches(0),
+                put("/user/changepassword").header("Authorization", traineeToken).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\": \"No.Such.User\", \"oldPassword\": \"" + PASSWORD + "\", \"newPassword\": \"another-password\"}"),
+                status().isUnauthorized());
+    }
+
+    @Test
+    void tokensIssuedBeforePasswordChangeAreRejected() throws Exception {
+        mockMvc.perform(put("/user/changepassword").header("Authorization", traineeToken).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\": \"Ann.Trainee\", \"oldPassword\": \"" + PASSWORD + "\", \"newPassword\": \"another-password\"}"))
+                .andExpect(status().isOk());
+
+        expect(SqlBudget.of("GET /trainees/{username} (revoked token)").statements(0),
+                get("/trainees/Ann.Trainee").header("Authorization", traineeToken),
+                status().isUnauthorized());
+        MvcResult login = mockMvc.perform(post("/user/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\": \"Ann.Trainee\", \"password\": \"another-password\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String renewed = "Bearer " + JsonPath.read(login.getResponse().getContentAsString(), "$.token");
+        mockMvc.perform(get("/trainees/Ann.Trainee").header("Authorization", renewed))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void tokensOfDeactivatedUsersAreRejected() throws Exception {
+        mockMvc.perform(patch("/trainers").header("Authorization", trainerToken)
+                        .param("username", "Tom.Trainer").param("isActive", "false"))
+                .andExpect(status().isOk());
+
+        expect(SqlBudget.of("GET /trainers/{username} (deactivated)").statements(0),
+                get("/trainers/Tom.Trainer").header("Authorization", trainerToken),
+                status().isUnauthorized());
+        mockMvc.perform(get("/trainees/Ann.Trainee").header("Authorization", traineeToken))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void searchPeople() throws Exception {
+        sqlBudget.assertWithin(SqlBudget.of("GET /user/search").statements(0),
+                () -> mockMvc.perform(get("/user/search").header("Authorization", trainerToken).param("q", "tia coch"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$[*].username").value(contains("Tia.Coach")))
+                        .andExpect(jsonPath("$[0].role").value("TRAINER")));
+    }
+
+    @Test
+    void peopleSearchFollowsProfileWrites() throws Exception {
+        mockMvc.perform(patch("/trainers").header("Authorization", trainerToken)
+                        .param("username", "Tom.Trainer").param("isActive", "false"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/user/search").header("Authorization", traineeToken).param("q", "train"))
+                .andExpect(jsonPath("$[*].username").value(contains("Ann.Trainee", "Tom.Trainer")))
+                .andExpect(jsonPath("$[1].active").value(false));
+        mockMvc.perform(delete("/trainees/Ann.Trainee").header("Authorization", traineeToken))
+                .andExpect(status().isOk());
+        String coachToken = "Bearer " + jwtUtil.generateToken(otherTrainer.getUser(), Role.TRAINER);
+        mockMvc.perform(get("/user/search").header("Authorization", coachToken).param("q", "ann"))
+                .andExpect(jsonPath("$").isEmpty());
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.crm_gym.controllers;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.example.crm_gym.models.*;
+import com.example.crm_gym.security.Role;
+import com.example.crm_gym.services.TrainingTypeRegistry;
+import com.example.crm_gym.support.sql.SqlBudgetTestConfiguration;
+import com.example.crm_gym.support.sql.SqlBudgetVerifier;
+import com.example.crm_gym.support.sql.SqlCapture;
+import com.example.crm_gym.utils.JwtUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Measures what a lookup of an unknown username costs on each endpoint that resolves one:
+ * SQL statements issued and log events carrying a stack trace.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(SqlBudgetTestConfiguration.class)
+class MissPathCostTest {
+
+    private static final String UNKNOWN = "Nobody.Here";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SqlBudgetVerifier sqlBudget;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TrainingTypeRegistry trainingTypeRegistry;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ListAppender<ILoggingEvent> logEvents = new ListAppender<>();
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User("Tom", "Trainer", "Tom.Trainer", "secret", true);
+        transactionTemplate.executeWithoutResult(status -> {
+            TrainingType yoga = new TrainingType(TrainingTypeName.YOGA);
+            entityManager.persist(yoga);
+            entityManager.persist(user);
+            entityManager.persist(new Trainer(yoga, user));
+        });
+        trainingTypeRegistry.reload();
+        token = "Bearer " + jwtUtil.generateToken(user, Role.TRAINER);
+        logEvents.start();
+        rootLogger().addAppender(logEvents);
+    }
+
+    @AfterEach
+    void tearDown() {
+        rootLogger().detachAppender(logEvents);
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM Trainer").executeUpdate();
+            entityManager.createQuery("DELETE FROM User").executeUpdate();
+            entityManager.createQuery("DELETE FROM TrainingType").executeUpdate();
+        });
+        trainingTypeRegistry.reload();
+    }
+
+    @Test
+    void login() throws Exception {
+        assertMissCost("POST /user/login", post("/user/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\": \"" + UNKNOWN + "\", \"password\": \"secret\"}"), 401);
+    }
+
+    @Test
+    void getTrainee() throws Exception {
+        assertMissCost("GET /trainees/{username}", get("/trainees/" + UNKNOWN).header("Authorization", token), 404);
+    }
+
+    @Test
+    void updateTraineeActiveStatus() throws Exception {
+        assertMissCost("PATCH /trainees/active", patch("/trainees/active").header("Authorization", token)
+                .param("username", UNKNOWN).param("isActive", "false"), 404);
+    }
+
+    @Test
+    void updateTrainerActiveStatus() throws Exception {
+        assertMissCost("PATCH /trainers", patch("/trainers").header("Authorization", token)
+                .param("username", UNKNOWN).param("isActive", "false"), 404);
+    }
+
+    @Test
+    void updateTraineeTrainers() throws Exception {
+        assertMissCost("PUT /trainees/trainers", put("/trainees/trainers").header("Authorization", token)
+                .param("username", UNKNOWN).contentType(MediaType.APPLICATION_JSON).content("[\"Tom.Trainer\"]"), 404);
+    }
+
+    @Test
+    void deleteTrainee() throws Exception {
+        assertMissCost("DELETE /trainees/{username}", delete("/trainees/" + UNKNOWN).header("Authorization", token), 404);
+    }
+
+    @Test
+    void deleteTrainer() throws Exception {
+        assertMissCost("DELETE /trainers/{username}", delete("/trainers/" + UNKNOWN).header("Authorization", token), 404);
+    }
+
+    @Test
+    void createTraining() throws Exception {
+        assertMissCost("POST /trainings", post("/trainings").header("Authorization", token)
+                .param("traineeUsername", UNKNOWN).param("trainerUsername", "Tom.Trainer")
+                .param("trainingName", "Lunch flow").param("trainingDate", "2024-05-01")
+                .param("trainingDuration", "30"), 404);
+    }
+
+    private void assertMissCost(String endpoint, MockHttpServletRequestBuilder request, int expectedStatus) throws Exception {
+        int[] status = new int[1];
+        logEvents.list.clear();
+        SqlCapture capture = sqlBudget.capture(() -> status[0] = mockMvc.perform(request).andReturn().getResponse().getStatus());
+        long stackTraces = logEvents.list.stream().filter(event -> event.getThrowableProxy() != null).count();
+        String cost = endpoint + " -> " + status[0] + ": " + capture.getStatementCount() + " statements, " + stackTraces + " stack traces logged";
+        assertEquals(expectedStatus, status[0], cost);
+        assertEquals(1, capture.getStatementCount(), cost);
+        assertEquals(0, stackTraces, cost);
+    }
+
+    private static Logger rootLogger() {
+        return (Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.crm_gym.controllers;
+
+import com.example.crm_gym.support.sql.SqlBudget;
+import com.example.crm_gym.support.sql.SqlBudgetEndpointTestSupport;
+import org.junit.jupiter.api.Test;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Endpoint SQL budgets of trainer utilization reports.
+ */
+class ReportControllerSqlBudgetTest extends SqlBudgetEndpointTestSupport {
+    @Test
+    void getTrainerUtilization() throws Exception {
+        sqlBudget.assertWithin(SqlBudget.of("GET /reports/utilization").statements(1).collectionFetches(0),
+                () -> mockMvc.perform(get("/reports/utilization").header("Authorization", trainerToken)
+                                .param("trainerUsername", "Tom.Trainer").param("granularity", "MONTH"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.buckets.length()").value(1))
+                        .andExpect(jsonPath("$.buckets[0].totalMinutes").value(105))
+                        .andExpect(jsonPath("$.buckets[0].minutesByType.YOGA").value(105)));
+    }
+
+    @Test
+    void trainerUtilizationFollowsTrainingWrites() throws Exception {
+        mockMvc.perform(post("/reports/utilization/rebuild").header("Authorization", traineeToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(booking("Ann.Trainee", "Tom.Trainer", "07:00", 30)).andExpect(status().isCreated());
+        mockMvc.perform(booking("Ann.Trainee", "Tia.Coach", "08:00", 50)).andExpect(status().isCreated());
+        mockMvc.perform(get("/reports/utilization").header("Authorization", trainerToken)
+                        .param("trainerUsername", "Tom.Trainer").param("granularity", "DAY")
+                        .param("from", "2024-05-01").param("to", "2024-05-01"))
+                .andExpect(jsonPath("$.buckets[0].periodStart").value("2024-05-01"))
+                .andExpect(jsonPath("$.buckets[0].totalMinutes").value(30));
+
+        mockMvc.perform(delete("/trainees/Ann.Trainee").header("Authorization", traineeToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/reports/utilization").header("Authorization", trainerToken)
+                        .param("trainerUsername", "Tia.Coach").param("granularity", "WEEK"))
+                .andExpect(jsonPath("$.buckets").isEmpty());
+
+        mockMvc.perform(post("/reports/utilization/rebuild").header("Authorization", trainerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows").value(0));
+    }
+}
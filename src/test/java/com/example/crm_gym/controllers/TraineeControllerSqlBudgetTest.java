@@ -0,0 +1,213 @@
+package com.example.crm_gym.controllers;
+
+import com.example.crm_gym.dao.TraineeDAO;
+import com.example.crm_gym.support.sql.SqlBudget;
+import com.example.crm_gym.support.sql.SqlBudgetEndpointTestSupport;
+import com.example.crm_gym.support.sql.SqlCapture;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Endpoint SQL budgets of trainee registration, profiles, trainings, trainer assignments and dashboards.
+ */
+class TraineeControllerSqlBudgetTest extends SqlBudgetEndpointTestSupport {
+
+    @Autowired
+    private TraineeDAO traineeDAO;
+
+    @Test
+    void registerTrainee() throws Exception {
+        // Claiming the username counter of a new name takes an update that matches nothing and an insert, and one more
+        // statement refills the id pool when the sequence runs out.
+        expect(SqlBudget.of("POST /trainees").statements(6).collectionFetches(0),
+                post("/trainees").param("firstName", "Bob").param("lastName", "Newcomer")
+                        .param("address", "7 Short Avenue, Astana"),
+                status().isCreated());
+    }
+
+    @Test
+    void registerTraineeBatch() throws Exception {
+        expect(SqlBudget.of("POST /trainees/batch").statements(8).collectionFetches(0),
+                post("/trainees/batch").header("Authorization", traineeToken).contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"firstName\": \"Bob\", \"lastName\": \"Newcomer\"}, {\"firstName\": \"Eve\", \"lastName\": \"Newcomer\"}]"),
+                status().isOk());
+    }
+
+    @Test
+    void getTrainee() throws Exception {
+        expect(SqlBudget.of("GET /trainees/{username}").statements(1).collectionFetches(0).entityLoads(0),
+                get("/trainees/Ann.Trainee").header("Authorization", traineeToken),
+                status().isOk());
+        mockMvc.perform(get("/trainees/Ann.Trainee").header("Authorization", traineeToken))
+                .andExpect(jsonPath("$.user.username").value("Ann.Trainee"))
+                .andExpect(jsonPath("$.trainers[0].user.username").value("Tom.Trainer"))
+                .andExpect(jsonPath("$.trainers[0].specialization.name").value("YOGA"));
+    }
+
+    @Test
+    void updateTrainee() throws Exception {
+        expect(SqlBudget.of("PUT /trainees").statements(2).collectionFetches(0),
+                put("/trainees").header("Authorization", traineeToken)
+                        .param("username", "Ann.Trainee").param("firstName", "Ann").param("lastName", "Trainee")
+                        .param("address", "14 Long Street, Almaty").param("isActive", "true"),
+                status().isOk());
+    }
+
+    @Test
+    void deleteTrainee() throws Exception {
+        // Three of the nine maintain the utilization summary: aggregate the trainee's trainings, subtract them, drop the emptied row.
+        // One bumps the calendar feed versions of the trainee's trainers.
+        expect(SqlBudget.of("DELETE /trainees/{username}").statements(9).collectionFetches(1),
+                delete("/trainees/Ann.Trainee").header("Authorization", traineeToken),
+                status().isOk());
+    }
+
+    @Test
+    void getTraineeTrainings() throws Exception {
+        expect(SqlBudget.of("GET /trainees/trainings").statements(1).collectionFetches(0).entityLoads(0),
+                get("/trainees/trainings").header("Authorization", traineeToken).param("username", "Ann.Trainee"),
+                status().isOk());
+    }
+
+    @Test
+    void getTraineeTrainingsNextPage() throws Exception {
+        String firstPage = mockMvc.perform(get("/trainees/trainings").header("Authorization", traineeToken)
+                        .param("username", "Ann.Trainee").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.trainings.length()").value(1))
+                .andExpect(jsonPath("$.trainings[0].trainingName").value("Evening flow"))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = JsonPath.read(firstPage, "$.nextCursor");
+
+        expect(SqlBudget.of("GET /trainees/trainings?cursor").statements(1).collectionFetches(0).entityLoads(0),
+                get("/trainees/trainings").header("Authorization", traineeToken)
+                        .param("username", "Ann.Trainee").param("size", "1").param("cursor", cursor),
+                status().isOk());
+        mockMvc.perform(get("/trainees/trainings").header("Authorization", traineeToken)
+                        .param("username", "Ann.Trainee").param("size", "1").param("cursor", cursor))
+                .andExpect(jsonPath("$.trainings.length()").value(1))
+                .andExpect(jsonPath("$.trainings[0].trainingName").value("Morning flow"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void getTraineeTrainingsRejectsMalformedCursor() throws Exception {
+        mockMvc.perform(get("/trainees/trainings").header("Authorization", traineeToken)
+                        .param("username", "Ann.Trainee").param("cursor", "not a cursor!"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getTrainersNotAssignedToTrainee() throws Exception {
+        expect(SqlBudget.of("GET /trainees/trainers").statements(1).collectionFetches(0),
+                get("/trainees/trainers").header("Authorization", traineeToken)
+                        .param("username", "Ann.Trainee").param("isActive", "true"),
+                status().isOk());
+    }
+
+    @Test
+    void unassignedTrainersFollowAssignmentAndActivationWrites() throws Exception {
+        mockMvc.perform(get("/trainees/trainers").header("Authorization", traineeToken).param("username", "Ann.Trainee"))
+                .andExpect(jsonPath("$[*].user.username").value(contains("Tia.Coach")));
+        mockMvc.perform(put("/trainees/trainers").header("Authorization", traineeToken).param("username", "Ann.Trainee")
+                        .contentType(MediaType.APPLICATION_JSON).content("[\"Tia.Coach\"]"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/trainees/trainers").header("Authorization", traineeToken).param("username", "Ann.Trainee"))
+                .andExpect(jsonPath("$[*].user.username").value(contains("Tom.Trainer")));
+        mockMvc.perform(patch("/trainers").header("Authorization", trainerToken)
+                        .param("username", "Tom.Trainer").param("isActive", "false"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/trainees/trainers").header("Authorization", traineeToken).param("username", "Ann.Trainee"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void updateTraineeTrainers() throws Exception {
+        expect(SqlBudget.of("PUT /trainees/trainers").statements(4).collectionFetches(1),
+                put("/trainees/trainers").header("Authorization", traineeToken).param("username", "Ann.Trainee")
+                        .contentType(MediaType.APPLICATION_JSON).content("[\"Tom.Trainer\", \"Tia.Coach\"]"),
+                status().isOk());
+    }
+
+    @Test
+    void updateTraineeTrainersWritesOnlyChangedRows() throws Exception {
+        SqlCapture capture = sqlBudget.capture(() -> mockMvc.perform(put("/trainees/trainers")
+                        .header("Authorization", traineeToken).param("username", "Ann.Trainee")
+                        .contentType(MediaType.APPLICATION_JSON).content("[\"Tia.Coach\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].user.username").value(contains("Tia.Coach"))));
+        assertEquals(1, countJoinTableWrites(capture, "delete"), capture.getStatements().toString());
+        assertEquals(1, countJoinTableWrites(capture, "insert"), capture.getStatements().toString());
+    }
+
+    @Test
+    void updateTraineeTrainersReportsUnknownTrainers() throws Exception {
+        mockMvc.perform(put("/trainees/trainers").header("Authorization", traineeToken).param("username", "Ann.Trainee")
+                        .contentType(MediaType.APPLICATION_JSON).content("[\"Tia.Coach\", \"Nobody.Here\"]"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.unknownTrainers").value(contains("Nobody.Here")));
+        mockMvc.perform(get("/trainees/Ann.Trainee").header("Authorization", traineeToken))
+                .andExpect(jsonPath("$.trainers[*].user.username").value(contains("Tom.Trainer")));
+    }
+
+    @Test
+    void activateTrainee() throws Exception {
+        expect(SqlBudget.of("PATCH /trainees/active").statements(1).collectionFetches(0),
+                patch("/trainees/active").header("Authorization", traineeToken)
+                        .param("username", "Ann.Trainee").param("isActive", "false"),
+                status().isOk());
+    }
+
+    @Test
+    void getTraineeDashboard() throws Exception {
+        sqlBudget.assertWithin(SqlBudget.of("GET /trainees/dashboard").statements(1).collectionFetches(0),
+                () -> mockMvc.perform(get("/trainees/dashboard").header("Authorization", traineeToken)
+                                .param("username", "Ann.Trainee").param("weeks", "4"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.sessions").value(2))
+                        .andExpect(jsonPath("$.minutesByType.YOGA").value(105))
+                        .andExpect(jsonPath("$.weeklyMinutes.length()").value(4))
+                        .andExpect(jsonPath("$.weeklyMinutes[3].minutes").value(105))
+                        .andExpect(jsonPath("$.currentStreakWeeks").value(1)));
+    }
+
+    @Test
+    void traineeDashboardFollowsTrainingWrites() throws Exception {
+        mockMvc.perform(booking("Ann.Trainee", "Tia.Coach", "08:00", 50)).andExpect(status().isCreated());
+        mockMvc.perform(get("/trainees/dashboard").header("Authorization", traineeToken).param("username", "Ann.Trainee"))
+                .andExpect(jsonPath("$.sessions").value(3))
+                .andExpect(jsonPath("$.minutesByType.FITNESS").value(50))
+                .andExpect(jsonPath("$.weeklyMinutes.length()").value(12));
+
+        mockMvc.perform(delete("/trainers/Tia.Coach").header("Authorization", trainerToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/trainees/dashboard").header("Authorization", traineeToken).param("username", "Ann.Trainee"))
+                .andExpect(jsonPath("$.sessions").value(2))
+                .andExpect(jsonPath("$.minutesByType.FITNESS").doesNotExist());
+    }
+
+    @Test
+    void repeatUsernameLookupIsServedFromCache() throws Exception {
+        transactionTemplate.execute(status -> traineeDAO.findByUsername("Ann.Trainee"));
+        sqlBudget.assertWithin(SqlBudget.of("traineeDAO.findByUsername (cached)").statements(0).entityLoads(0),
+                () -> assertTrue(transactionTemplate.execute(status -> traineeDAO.findByUsername("Ann.Trainee")).isPresent()));
+    }
+
+    private static long countJoinTableWrites(SqlCapture capture, String verb) {
+        return capture.getStatements().stream()
+                .map(statement -> statement.toLowerCase(Locale.ROOT))
+                .filter(statement -> statement.startsWith(verb) && statement.contains("trainee_trainer"))
+                .count();
+    }
+}
@@ -97,7 +97,7 @@ class TraineeControllerTest {
         User trainerUser = new User("TrainerFirst", "TrainerLast", true);
         trainerUser.setUsername("TrainerFirst.TrainerLast");
         Trainer trainer = new Trainer(new TrainingType(TrainingTypeName.CARDIO), trainerUser);
-        List<Trainer> trainers = Collections.singletonList(trainer);
+        Set<Trainer> trainers = Collections.singleton(trainer);
         trainee.setTrainers(trainers);
 
         when(traineeService.getTraineeByUsername(eq("John.Doe"), anyString()))
@@ -124,7 +124,7 @@ class TraineeControllerTest {
         User trainerUser = new User("TrainerFirst", "TrainerLast", true);
         trainerUser.setUsername("TrainerFirst.TrainerLast");
         Trainer trainer = new Trainer(new TrainingType(TrainingTypeName.CARDIO), trainerUser);
-        List<Trainer> trainers = Collections.singletonList(trainer);
+        Set<Trainer> trainers = Collections.singleton(trainer);
         trainee.setTrainers(trainers);
 
         when(traineeService.update(any(Trainee.class), anyString())).thenReturn(Optional.of(trainee));
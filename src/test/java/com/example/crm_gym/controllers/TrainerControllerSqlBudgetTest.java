@@ -0,0 +1,92 @@
+package com.example.crm_gym.controllers;
+
+import com.example.crm_gym.support.sql.SqlBudget;
+import com.example.crm_gym.support.sql.SqlBudgetEndpointTestSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Endpoint SQL budgets of trainer registration, profiles, the trainer directory and trainer deletes.
+ */
+class TrainerControllerSqlBudgetTest extends SqlBudgetEndpointTestSupport {
+    @Test
+    void registerTrainer() throws Exception {
+        expect(SqlBudget.of("POST /trainers").statements(6).collectionFetches(0),
+                post("/trainers").param("firstName", "Max").param("lastName", "Newcoach")
+                        .param("specializationId", String.valueOf(yoga.getId())),
+                status().isOk());
+    }
+
+    @Test
+    void registerTrainerBatch() throws Exception {
+        expect(SqlBudget.of("POST /trainers/batch").statements(6).collectionFetches(0),
+                post("/trainers/batch").header("Authorization", trainerToken).contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"firstName\": \"Max\", \"lastName\": \"Newcoach\", \"specializationId\": " + yoga.getId() + "}]"),
+                status().isOk());
+    }
+
+    @Test
+    void getTrainer() throws Exception {
+        expect(SqlBudget.of("GET /trainers/{username}").statements(1).collectionFetches(0).entityLoads(0),
+                get("/trainers/Tom.Trainer").header("Authorization", trainerToken),
+                status().isOk());
+    }
+
+    @Test
+    void searchTrainerDirectory() throws Exception {
+        sqlBudget.assertWithin(SqlBudget.of("GET /trainers/directory").statements(0),
+                () -> mockMvc.perform(get("/trainers/directory").header("Authorization", trainerToken)
+                                .param("specialization", "YOGA").param("isActive", "true"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.total").value(1))
+                        .andExpect(jsonPath("$.trainers[0].user.username").value("Tom.Trainer"))
+                        .andExpect(jsonPath("$.facets.specialization.FITNESS").value(1))
+                        .andExpect(jsonPath("$.facets.active.true").value(1))
+                        .andExpect(jsonPath("$.facets.traineeLoad['1-5']").value(1)));
+    }
+
+    @Test
+    void trainerDirectoryFollowsTrainerAndAssignmentWrites() throws Exception {
+        mockMvc.perform(put("/trainees/trainers").header("Authorization", traineeToken).param("username", "Ann.Trainee")
+                        .contentType(MediaType.APPLICATION_JSON).content("[\"Tia.Coach\"]"))
+                .andExpect(status().isOk());
+        mockMvc.perform(patch("/trainers").header("Authorization", trainerToken)
+                        .param("username", "Tom.Trainer").param("isActive", "false"))
+                .andExpect(status().isOk());
+        // Deactivation revoked Tom's token, so the directory is read as Ann.
+        mockMvc.perform(get("/trainers/directory").header("Authorization", traineeToken).param("minTrainees", "1"))
+                .andExpect(jsonPath("$.trainers[*].user.username").value(contains("Tia.Coach")))
+                .andExpect(jsonPath("$.facets.traineeLoad['0']").value(1))
+                .andExpect(jsonPath("$.facets.active.false").value(0));
+        mockMvc.perform(get("/trainers/directory").header("Authorization", traineeToken).param("isActive", "false"))
+                .andExpect(jsonPath("$.trainers[*].user.username").value(contains("Tom.Trainer")));
+    }
+
+    @Test
+    void getTrainerTrainings() throws Exception {
+        expect(SqlBudget.of("GET /trainers/trainings").statements(1).collectionFetches(0).entityLoads(0),
+                get("/trainers/trainings").header("Authorization", trainerToken).param("username", "Tom.Trainer"),
+                status().isOk());
+    }
+
+    @Test
+    void activateTrainer() throws Exception {
+        expect(SqlBudget.of("PATCH /trainers").statements(1).collectionFetches(0),
+                patch("/trainers").header("Authorization", trainerToken)
+                        .param("username", "Tia.Coach").param("isActive", "false"),
+                status().isOk());
+    }
+
+    @Test
+    void deleteTrainer() throws Exception {
+        // One bumps the calendar feed versions of the trainer's trainees.
+        expect(SqlBudget.of("DELETE /trainers/{username}").statements(5).collectionFetches(1),
+                delete("/trainers/Tia.Coach").header("Authorization", trainerToken),
+                status().isOk());
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.crm_gym.controllers;
+
+import com.example.crm_gym.exception.BookingConflictException;
+import com.example.crm_gym.models.*;
+import com.example.crm_gym.security.Role;
+import com.example.crm_gym.services.TrainerUtilizationRollup;
+import com.example.crm_gym.services.TrainingColumnStore;
+import com.example.crm_gym.services.TrainingScheduleIndex;
+import com.example.crm_gym.services.TrainingService;
+import com.example.crm_gym.services.TrainingTypeRegistry;
+import com.example.crm_gym.utils.JwtUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Bookings of timed sessions: concurrent requests for one slot and reschedules onto another booking.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TrainingBookingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private TrainingService trainingService;
+
+    @Autowired
+    private TrainingTypeRegistry trainingTypeRegistry;
+
+    @Autowired
+    private TrainingScheduleIndex trainingScheduleIndex;
+
+    @Autowired
+    private TrainerUtilizationRollup trainerUtilizationRollup;
+
+    @Autowired
+    private TrainingColumnStore trainingColumnStore;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        User traineeUser = new User("Ann", "Trainee", "Ann.Trainee", "secret", true);
+        transactionTemplate.executeWithoutResult(status -> {
+            TrainingType yoga = new TrainingType(TrainingTypeName.YOGA);
+            entityManager.persist(yoga);
+            User trainerUser = new User("Tom", "Trainer", "Tom.Trainer", "secret", true);
+            entityManager.persist(trainerUser);
+            entityManager.persist(new Trainer(yoga, trainerUser));
+            entityManager.persist(traineeUser);
+            entityManager.persist(new Trainee(new Date(), "12 Long Street, Almaty", traineeUser));
+        });
+        trainingTypeRegistry.reload();
+        trainingScheduleIndex.reload();
+        token = "Bearer " + jwtUtil.generateToken(traineeUser, Role.TRAINEE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createNativeQuery("DELETE FROM trainer_daily_utilization").executeUpdate();
+            entityManager.createQuery("DELETE FROM Training").executeUpdate();
+            entityManager.createQuery("DELETE FROM Trainee").executeUpdate();
+            entityManager.createQuery("DELETE FROM Trainer").executeUpdate();
+            entityManager.createQuery("DELETE FROM User").executeUpdate();
+            entityManager.createQuery("DELETE FROM TrainingType").executeUpdate();
+        });
+        trainingTypeRegistry.reload();
+        trainingScheduleIndex.reload();
+        trainerUtilizationRollup.reload();
+        trainingColumnStore.reload();
+    }
+
+    @Test
+    void concurrentBookingsOfOneSlotCreateOneTraining() throws Exception {
+        int bookings = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(bookings);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < bookings; i++) {
+                statuses.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(booking("18:00", 45)).andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> status : statuses) {
+                results.add(status.get(30, TimeUnit.SECONDS));
+            }
+            assertEquals(1, Collections.frequency(results, 201));
+            assertEquals(bookings - 1, Collections.frequency(results, 409));
+        } finally {
+            executor.shutdownNow();
+        }
+        Long timed = transactionTemplate.execute(status -> entityManager
+                .createQuery("SELECT COUNT(t) FROM Training t WHERE t.startTime IS NOT NULL", Long.class).getSingleResult());
+        assertEquals(1L, timed);
+    }
+
+    @Test
+    void rescheduleOntoAnotherBookingIsRejected() throws Exception {
+        mockMvc.perform(booking("09:00", 60)).andExpect(status().isCreated());
+        mockMvc.perform(booking("11:00", 60)).andExpect(status().isCreated());
+
+        Training late = trainingAt(LocalTime.of(11, 0));
+        late.setStartTime(LocalTime.of(9, 30));
+        assertThrows(BookingConflictException.class, () -> trainingService.update(late));
+
+        late.setStartTime(LocalTime.of(11, 30));
+        assertDoesNotThrow(() -> trainingService.update(late));
+        mockMvc.perform(booking("11:00", 30)).andExpect(status().isCreated());
+        mockMvc.perform(booking("12:00", 30)).andExpect(status().isConflict());
+    }
+
+    private Training trainingAt(LocalTime startTime) {
+        return transactionTemplate.execute(status -> entityManager
+                .createQuery("SELECT t FROM Training t JOIN FETCH t.trainer JOIN FETCH t.trainee WHERE t.startTime = :startTime",
+                        Training.class)
+                .setParameter("startTime", startTime)
+                .getSingleResult());
+    }
+
+    private MockHttpServletRequestBuilder booking(String startTime, int duration) {
+        return post("/trainings").header("Authorization", token)
+                .param("traineeUsername", "Ann.Trainee").param("trainerUsername", "Tom.Trainer")
+                .param("trainingName", "Booked session").param("trainingDate", "2024-05-01")
+                .param("startTime", startTime).param("trainingDuration", String.valueOf(duration));
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.crm_gym.controllers;
+
+import com.example.crm_gym.support.sql.SqlBudget;
+import com.example.crm_gym.support.sql.SqlBudgetEndpointTestSupport;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Endpoint SQL budgets of bookings and training exports.
+ */
+class TrainingControllerSqlBudgetTest extends SqlBudgetEndpointTestSupport {
+    @Test
+    void overlappingBookingIsRejected() throws Exception {
+        mockMvc.perform(booking("Ann.Trainee", "Tom.Trainer", "09:00", 60)).andExpect(status().isCreated());
+
+        sqlBudget.assertWithin(SqlBudget.of("POST /trainings overlap").statements(1),
+                () -> mockMvc.perform(booking("Ann.Trainee", "Tia.Coach", "09:30", 30))
+                        .andExpect(status().isConflict())
+                        .andExpect(jsonPath("$.error").value(startsWith("Trainee already has"))));
+        mockMvc.perform(booking("Ann.Trainee", "Tia.Coach", "10:00", 30)).andExpect(status().isCreated());
+    }
+
+    @Test
+    void createTraining() throws Exception {
+        // The insert, the utilization summary upsert, which inserts after an update that matched no row, and the calendar
+        // feed version bumps of the trainee and the trainer.
+        expect(SqlBudget.of("POST /trainings").statements(5).collectionFetches(0),
+                post("/trainings").header("Authorization", traineeToken)
+                        .param("traineeUsername", "Ann.Trainee").param("trainerUsername", "Tom.Trainer")
+                        .param("trainingName", "Lunch flow").param("trainingDate", "2024-05-01")
+                        .param("trainingDuration", "30"),
+                status().isCreated());
+    }
+
+    @Test
+    void exportTrainingsAsNdjson() throws Exception {
+        sqlBudget.assertWithin(SqlBudget.of("GET /trainings/export").statements(1).collectionFetches(0), () -> {
+            MvcResult started = mockMvc.perform(get("/trainings/export").header("Authorization", trainerToken)
+                            .param("trainerUsername", "Tom.Trainer"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            String body = mockMvc.perform(asyncDispatch(started))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("application/x-ndjson"))
+                    .andReturn().getResponse().getContentAsString();
+            String[] lines = body.split("\n");
+            assertEquals(2, lines.length);
+            assertEquals("Tom.Trainer", JsonPath.read(lines[0], "$.trainerUsername"));
+            assertEquals("Ann.Trainee", JsonPath.read(lines[1], "$.traineeUsername"));
+        });
+    }
+
+    @Test
+    void exportTrainingsAsCsv() throws Exception {
+        MvcResult started = mockMvc.perform(get("/trainings/export").header("Authorization", trainerToken)
+                        .param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("id,trainingDate,trainingName"));
+        assertTrue(lines[1].endsWith(",Morning flow,YOGA,60,Ann.Trainee,Tom.Trainer"));
+    }
+}
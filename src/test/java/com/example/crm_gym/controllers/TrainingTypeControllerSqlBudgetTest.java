@@ -0,0 +1,31 @@
+package com.example.crm_gym.controllers;
+
+import com.example.crm_gym.support.sql.SqlBudget;
+import com.example.crm_gym.support.sql.SqlBudgetEndpointTestSupport;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Endpoint SQL budgets of training types.
+ */
+class TrainingTypeControllerSqlBudgetTest extends SqlBudgetEndpointTestSupport {
+    @Test
+    void getTrainingTypes() throws Exception {
+        expect(SqlBudget.of("GET /training-types").statements(0).collectionFetches(0),
+                get("/training-types").header("Authorization", traineeToken),
+                status().isOk());
+    }
+
+    @Test
+    void createTrainingType() throws Exception {
+        expect(SqlBudget.of("POST /training-types").statements(2).collectionFetches(0),
+                post("/training-types").header("Authorization", traineeToken).param("name", "PILATES"),
+                status().isCreated());
+        mockMvc.perform(get("/training-types").header("Authorization", traineeToken))
+                .andExpect(jsonPath("$[*].name").value(hasItem("PILATES")));
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.crm_gym.repository;
+
+import com.example.crm_gym.dao.TrainerDAO;
+import com.example.crm_gym.dao.TrainingDAO;
+import com.example.crm_gym.dao.UserDAO;
+import com.example.crm_gym.models.*;
+import com.example.crm_gym.support.sql.SqlBudgetTestConfiguration;
+import com.example.crm_gym.support.sql.SqlBudgetVerifier;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(SqlBudgetTestConfiguration.class)
+class QueryIndexUsageTest {
+
+    @Autowired
+    private SqlBudgetVerifier sqlBudget;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TrainingDAO trainingDAO;
+
+    @Autowired
+    private UserDAO userDAO;
+
+    @Autowired
+    private TrainerDAO trainerDAO;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            TrainingType yoga = persist(new TrainingType(TrainingTypeName.YOGA));
+            Trainer trainer = persist(new Trainer(yoga, persist(new User("Tom", "Trainer", "Tom.Trainer", "x", true))));
+            persist(new Trainer(yoga, persist(new User("Tia", "Coach", "Tia.Coach", "x", true))));
+            Trainee trainee = new Trainee(new Date(), "12 Long Street, Almaty", persist(new User("Ann", "Trainee", "Ann.Trainee", "x", true)));
+            trainee.setTrainers(new HashSet<>(Set.of(trainer)));
+            persist(trainee);
+            persist(new Training(trainee, trainer, "Morning flow", yoga, new Date(), 60));
+        });
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM Training").executeUpdate();
+            entityManager.createNativeQuery("DELETE FROM trainee_trainer").executeUpdate();
+            entityManager.createQuery("DELETE FROM Trainee").executeUpdate();
+            entityManager.createQuery("DELETE FROM Trainer").executeUpdate();
+            entityManager.createQuery("DELETE FROM User").executeUpdate();
+            entityManager.createQuery("DELETE FROM TrainingType").executeUpdate();
+        });
+    }
+
+    @Test
+    void traineeTrainingPage() throws Exception {
+        assertIndexed(plans(() -> trainingDAO.findTraineeTrainingsPage("Ann.Trainee", new Date(0), new Date(), null, null, null, 20)),
+                "trainings", "users");
+    }
+
+    @Test
+    void trainerTrainingPage() throws Exception {
+        assertIndexed(plans(() -> trainingDAO.findTrainerTrainingsPage("Tom.Trainer", new Date(0), new Date(), null, null, 20)),
+                "trainings", "users");
+    }
+
+    @Test
+    void traineeTrainingsByCriteria() throws Exception {
+        assertIndexed(plans(() -> trainingDAO.findTrainingsByTraineeUsernameAndCriteria("Ann.Trainee", new Date(0), new Date(), null, null)),
+                "trainings", "users");
+    }
+
+    @Test
+    void trainerTrainingsByCriteria() throws Exception {
+        assertIndexed(plans(() -> trainingDAO.findTrainingsByTrainerUsernameAndCriteria("Tom.Trainer", new Date(0), new Date(), null)),
+                "trainings", "users");
+    }
+
+    @Test
+    void userByName() throws Exception {
+        assertIndexed(plans(() -> userDAO.findByFirstAndLastName("Ann", "Trainee")), "users");
+    }
+
+    @Test
+    void registeredNames() throws Exception {
+        assertIndexed(plans(() -> userDAO.findRegisteredNames(Set.of("Ann", "Tom"), Set.of("Trainee", "Trainer"))), "users", "trainers", "trainees");
+    }
+
+    @Test
+    void trainerCardsByIds() throws Exception {
+        List<Long> trainerIds = transactionTemplate.execute(status -> trainerDAO.findActiveTrainerIds());
+        assertIndexed(plans(() -> trainerDAO.findTrainersByIds(trainerIds)), "trainers", "users");
+    }
+
+    private String plans(SqlBudgetVerifier.SqlAction action) throws Exception {
+        List<String> statements = sqlBudget.capture(() -> transactionTemplate.executeWithoutResult(status -> {
+            try {
+                action.run();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        })).getStatements();
+        StringBuilder plans = new StringBuilder();
+        for (String statement : statements) {
+            plans.append(jdbcTemplate.queryForObject("EXPLAIN " + statement, String.class)).append('\n');
+        }
+        return plans.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static void assertIndexed(String plan, String... tables) {
+        assertFalse(plan.isEmpty());
+        for (String table : tables) {
+            assertTrue(plan.contains("\"public\".\"" + table + "\""), plan);
+            assertFalse(plan.contains("public." + table + ".tablescan"), plan);
+        }
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+}
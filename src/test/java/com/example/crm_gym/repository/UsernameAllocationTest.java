@@ -0,0 +1,97 @@
+package com.example.crm_gym.repository;
+
+import com.example.crm_gym.dao.UserDAO;
+import com.example.crm_gym.models.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UsernameAllocationTest {
+
+    @Autowired
+    private UserDAO userDAO;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM User").executeUpdate();
+            entityManager.createNativeQuery("DELETE FROM username_counters").executeUpdate();
+        });
+    }
+
+    @Test
+    void testSuffixesFollowTheCounter() {
+        assertEquals("Bob.Stone", allocate("Bob", "Stone"));
+        assertEquals("Bob.Stone1", allocate("Bob", "Stone"));
+        assertEquals("Bob.Stone2", allocate("Bob", "Stone"));
+        assertEquals("Bob.Stones", allocate("Bob", "Stones"));
+    }
+
+    @Test
+    void testSuffixClashingWithAnotherBaseNameIsSkipped() {
+        assertEquals("Ann.Lee1", allocate("Ann", "Lee1"));
+        assertEquals("Ann.Lee", allocate("Ann", "Lee"));
+        assertEquals("Ann.Lee2", allocate("Ann", "Lee"));
+    }
+
+    @Test
+    void testBaseNameClashingWithAnotherSuffixIsSkipped() {
+        assertEquals("Ann.Lee", allocate("Ann", "Lee"));
+        assertEquals("Ann.Lee1", allocate("Ann", "Lee"));
+        assertEquals("Ann.Lee11", allocate("Ann", "Lee1"));
+    }
+
+    @Test
+    void testConcurrentAllocationsGetDistinctSuffixes() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return allocate("Eve", "Park");
+                }));
+            }
+            start.countDown();
+            Set<String> usernames = new HashSet<>();
+            for (Future<String> future : futures) {
+                usernames.add(future.get(30, TimeUnit.SECONDS));
+            }
+            assertEquals(Set.of("Eve.Park", "Eve.Park1", "Eve.Park2", "Eve.Park3", "Eve.Park4", "Eve.Park5", "Eve.Park6",
+                    "Eve.Park7"), usernames);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private String allocate(String firstName, String lastName) {
+        return transactionTemplate.execute(status -> {
+            String username = userDAO.generateUniqueUsername(firstName, lastName);
+            entityManager.persist(new User(firstName, lastName, username, "x", true));
+            return username;
+        });
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.crm_gym.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "security.login.ip-max-attempts=3")
+@ActiveProfiles("test")
+class ForwardedClientAddressTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void testFailedLoginsAreCountedPerForwardedClient() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(401, login("Nobody.Here" + i, "203.0.113.7"));
+        }
+
+        assertEquals(403, login("Nobody.Else", "203.0.113.7"));
+        assertEquals(401, login("Nobody.Else", "198.51.100.9"));
+    }
+
+    private int login(String username, String forwardedFor) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/user/login"))
+                .header("Content-Type", "application/json")
+                .header("X-Forwarded-For", forwardedFor)
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\": \"" + username + "\", \"password\": \"wrong-password\"}"))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.crm_gym.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginAttemptStoreTest {
+
+    private MutableClock clock;
+    private LoginAttemptStore store;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        store = new LoginAttemptStore(3, Duration.ofMinutes(5), 10, Duration.ofMinutes(5), 4, clock);
+    }
+
+    @Test
+    void testLocksAfterMaxAttempts() {
+        assertFalse(store.recordFailure("John.Doe"));
+        assertFalse(store.recordFailure("John.Doe"));
+        assertTrue(store.recordFailure("John.Doe"));
+
+        assertTrue(store.isLocked("John.Doe"));
+        assertFalse(store.isLocked("Jane.Smith"));
+    }
+
+    @Test
+    void testLockExpires() {
+        for (int i = 0; i < 3; i++) {
+            store.recordFailure("John.Doe");
+        }
+        clock.advance(Duration.ofMinutes(6));
+
+        assertFalse(store.isLocked("John.Doe"));
+        assertEquals(0, store.trackedKeys());
+    }
+
+    @Test
+    void testOldAttemptsSlideOutOfWindow() {
+        store.recordFailure("John.Doe");
+        store.recordFailure("John.Doe");
+        clock.advance(Duration.ofMinutes(5));
+
+        assertFalse(store.recordFailure("John.Doe"));
+        assertEquals(1, store.attempts("John.Doe"));
+    }
+
+    @Test
+    void testResetClearsAttempts() {
+        store.recordFailure("John.Doe");
+        store.reset("John.Doe");
+
+        assertEquals(0, store.attempts("John.Doe"));
+        assertEquals(0, store.trackedKeys());
+    }
+
+    @Test
+    void testTrackedKeysStayWithinCap() {
+        for (int i = 0; i < 100; i++) {
+            store.recordFailure("user" + i);
+        }
+
+        assertEquals(4, store.trackedKeys());
+        assertEquals(0, store.evictions());
+        assertEquals(96, store.overflows());
+    }
+
+    @Test
+    void testLiveKeysAreNeverEvicted() {
+        for (int i = 0; i < 3; i++) {
+            store.recordFailure("locked");
+        }
+        for (int i = 0; i < 10; i++) {
+            store.recordFailure("user" + i);
+        }
+
+        assertTrue(store.isLocked("locked"));
+        assertEquals(1, store.attempts("user0"));
+    }
+
+    @Test
+    void testOverflowKeysAreLockedTogether() {
+        for (int i = 0; i < 4; i++) {
+            store.recordFailure("user" + i);
+        }
+        assertFalse(store.recordFailure("new1"));
+        assertFalse(store.recordFailure("new2"));
+        assertTrue(store.recordFailure("new3"));
+
+        assertTrue(store.isLocked("new4"));
+        assertFalse(store.isLocked("user0"));
+        clock.advance(Duration.ofMinutes(5).plusSeconds(1));
+        assertFalse(store.isLocked("new4"));
+    }
+
+    @Test
+    void testConcurrentFailuresAreAllCounted() throws Exception {
+        LoginAttemptStore wide = new LoginAttemptStore(1_000_000, Duration.ofMinutes(5), 10, Duration.ofMinutes(5), 4, clock);
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    wide.recordFailure("John.Doe");
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(8000, wide.attempts("John.Doe"));
+    }
+
+    @Test
+    void testIdleKeysAreEvictedBeforeLiveOnes() {
+        for (int i = 0; i < 3; i++) {
+            store.recordFailure("locked");
+        }
+        store.recordFailure("a");
+        store.recordFailure("b");
+        store.recordFailure("c");
+        clock.advance(Duration.ofMinutes(5).plusSeconds(1));
+        for (int i = 0; i < 3; i++) {
+            store.recordFailure("fresh");
+        }
+
+        assertEquals(1, store.trackedKeys());
+        assertTrue(store.isLocked("fresh"));
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.crm_gym.services;
+
+import com.example.crm_gym.dao.PeopleScanDAO;
+import com.example.crm_gym.dto.PersonDTO;
+import com.example.crm_gym.events.PersonChangedEvent;
+import com.example.crm_gym.events.PersonRemovedEvent;
+import com.example.crm_gym.models.User;
+import com.example.crm_gym.security.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PeopleSearchIndexTest {
+
+    private PeopleSearchIndex index;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        List<PersonDTO> people = List.of(
+                new PersonDTO("Alexander.Petrov", "Alexander", "Petrov", true, Role.TRAINEE),
+                new PersonDTO("Alexandra.Ivanova", "Alexandra", "Ivanova", false, Role.TRAINER),
+                new PersonDTO("Alex.Kim", "Alex", "Kim", true, Role.TRAINER),
+                new PersonDTO("Marina.Sokolova", "Marina", "Sokolova", true, Role.TRAINEE),
+                new PersonDTO("John.Lee", "John", "Lee", true, Role.TRAINEE));
+        PeopleScanDAO peopleScanDAO = mock(PeopleScanDAO.class);
+        when(peopleScanDAO.streamPeople(any())).thenAnswer(invocation -> {
+            people.forEach(invocation.<Consumer<PersonDTO>>getArgument(0));
+            return (long) people.size();
+        });
+        index = new PeopleSearchIndex(peopleScanDAO);
+        index.rebuild();
+    }
+
+    @Test
+    void testExactMatchRanksAbovePrefixMatches() {
+        assertEquals(List.of("Alex.Kim", "Alexander.Petrov", "Alexandra.Ivanova"), usernames(index.search("alex", 10)));
+    }
+
+    @Test
+    void testTyposAndTransposedLetters() {
+        assertEquals(List.of("Marina.Sokolova"), usernames(index.search("sokolvoa", 10)));
+        assertEquals(List.of("Alexander.Petrov"), usernames(index.search("alexandr petorv", 10)));
+    }
+
+    @Test
+    void testTyposInShortTokensWithoutSharedTrigrams() {
+        assertEquals(List.of("John.Lee"), usernames(index.search("jhon", 10)));
+        assertEquals(List.of("Alex.Kim"), usernames(index.search("kmi", 10)));
+        assertEquals(List.of("John.Lee"), usernames(index.search("jonh lea", 10)));
+    }
+
+    @Test
+    void testEveryQueryTokenMustMatch() {
+        assertEquals(List.of("Alexandra.Ivanova"), usernames(index.search("alex ivanova", 10)));
+        assertTrue(index.search("alex marina", 10).isEmpty());
+        assertTrue(index.search(" ,. ", 10).isEmpty());
+    }
+
+    @Test
+    void testWritesReplaceIndexedTerms() {
+        User renamed = new User("Marina", "Orlova", "Marina.Sokolova", "secret", false);
+        index.onPersonChanged(PersonChangedEvent.of(renamed, null));
+        PersonDTO person = index.search("orlova", 10).get(0);
+        assertEquals(Role.TRAINEE, person.getRole());
+        assertFalse(person.isActive());
+
+        index.onPersonRemoved(new PersonRemovedEvent("Alex.Kim"));
+        assertEquals(List.of("Alexander.Petrov", "Alexandra.Ivanova"), usernames(index.search("alex", 2)));
+        assertTrue(index.search("kim", 10).isEmpty());
+        assertTrue(index.search("kmi", 10).isEmpty());
+    }
+
+    private static List<String> usernames(List<PersonDTO> people) {
+        return people.stream().map(PersonDTO::getUsername).toList();
+    }
+}
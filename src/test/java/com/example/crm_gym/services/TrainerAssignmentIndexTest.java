@@ -0,0 +1,56 @@
+package com.example.crm_gym.services;
+
+import com.example.crm_gym.dao.TraineeDAO;
+import com.example.crm_gym.dao.TrainerDAO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TrainerAssignmentIndexTest {
+
+    private TrainerAssignmentIndex index;
+
+    @BeforeEach
+    void setUp() {
+        TrainerDAO trainerDAO = mock(TrainerDAO.class);
+        TraineeDAO traineeDAO = mock(TraineeDAO.class);
+        when(trainerDAO.findActiveTrainerIds()).thenReturn(List.of(100L, 150L, 200L));
+        when(traineeDAO.findTrainerAssignments()).thenReturn(Map.of("Ann.Trainee", List.of(150L, 250L)));
+        index = new TrainerAssignmentIndex(trainerDAO, traineeDAO, mock(TrainerDirectoryIndex.class));
+        index.reload();
+    }
+
+    @Test
+    void testUnassignedActiveTrainers() {
+        assertEquals(List.of(100L, 200L), index.findUnassignedActiveTrainerIds("Ann.Trainee"));
+        assertEquals(List.of(100L, 150L, 200L), index.findUnassignedActiveTrainerIds("Bob.Trainee"));
+    }
+
+    @Test
+    void testAssignmentWrites() {
+        index.assign("Ann.Trainee", 100L);
+        index.unassign("Ann.Trainee", 150L);
+        assertEquals(List.of(150L, 200L), index.findUnassignedActiveTrainerIds("Ann.Trainee"));
+
+        index.replaceAssignments("Ann.Trainee", List.of(200L));
+        assertEquals(List.of(100L, 150L), index.findUnassignedActiveTrainerIds("Ann.Trainee"));
+
+        index.removeTrainee("Ann.Trainee");
+        assertEquals(List.of(100L, 150L, 200L), index.findUnassignedActiveTrainerIds("Ann.Trainee"));
+    }
+
+    @Test
+    void testTrainerWrites() {
+        index.updateTrainer(250L, true);
+        index.updateTrainer(300L, true);
+        index.updateTrainer(100L, false);
+        index.removeTrainer(200L);
+        assertEquals(List.of(300L), index.findUnassignedActiveTrainerIds("Ann.Trainee"));
+    }
+}
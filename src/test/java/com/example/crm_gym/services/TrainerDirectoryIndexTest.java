@@ -0,0 +1,67 @@
+package com.example.crm_gym.services;
+
+import com.example.crm_gym.dao.TrainerDAO;
+import com.example.crm_gym.dto.TrainerDirectoryDTO;
+import com.example.crm_gym.events.TrainerChangedEvent;
+import com.example.crm_gym.models.Trainer;
+import com.example.crm_gym.models.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TrainerDirectoryIndexTest {
+
+    private TrainerDirectoryIndex index;
+    private Trainer tom;
+
+    @BeforeEach
+    void setUp() {
+        tom = trainer(100L, "Tom.Trainer");
+        Trainer tia = trainer(200L, "Tia.Coach");
+        TrainerDAO trainerDAO = mock(TrainerDAO.class);
+        when(trainerDAO.findAll()).thenReturn(Optional.of(List.of(tom, tia)));
+        when(trainerDAO.countTraineesPerTrainer()).thenReturn(Map.of(100L, 3));
+        index = new TrainerDirectoryIndex(trainerDAO, mock(TrainingTypeRegistry.class));
+        index.reload();
+    }
+
+    @Test
+    void testRemovedTrainerLeavesNoLoadFacet() {
+        index.removeTrainer(100L);
+
+        TrainerDirectoryDTO result = index.search(null, null, null, null, 10);
+        assertEquals(1, result.getTotal());
+        assertEquals(0, result.getFacets().get("traineeLoad").get("1-5"));
+        assertEquals(1, result.getFacets().get("traineeLoad").get("0"));
+    }
+
+    @Test
+    void testReindexedTrainerKeepsItsLoad() {
+        index.removeTrainer(100L);
+        index.onTrainerChanged(TrainerChangedEvent.of(tom));
+
+        assertEquals(1, index.search(null, null, 3, 3, 10).getTotal());
+    }
+
+    @Test
+    void testLoadNeverGoesNegative() {
+        index.adjustLoad(200L, -1);
+
+        assertEquals(1, index.search(null, null, 0, 0, 10).getTotal());
+        assertEquals(0, index.search(null, null, null, -1, 10).getTotal());
+    }
+
+    private static Trainer trainer(Long id, String username) {
+        Trainer trainer = mock(Trainer.class);
+        when(trainer.getId()).thenReturn(id);
+        when(trainer.getUser()).thenReturn(new User(username, username, username, true));
+        return trainer;
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.crm_gym.services;
+
+import com.example.crm_gym.dao.TrainingFactScanDAO;
+import com.example.crm_gym.dto.TraineeDashboardDTO;
+import com.example.crm_gym.dto.TrainingFactDTO;
+import com.example.crm_gym.dto.TrainingTypeDTO;
+import com.example.crm_gym.events.TrainingSnapshot;
+import com.example.crm_gym.models.TrainingTypeName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TrainingColumnStoreTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 15);
+    private static final Long YOGA_ID = 7L;
+
+    @Test
+    void testDashboardTotalsWeeksTrendAndStreaks() {
+        TrainingColumnStore store = store(List.of(
+                fact(1L, 20L, TrainingTypeName.CARDIO, LocalDate.of(2024, 5, 13), 60),
+                fact(2L, 20L, TrainingTypeName.STRENGTH, LocalDate.of(2024, 5, 7), 30),
+                fact(3L, 20L, TrainingTypeName.CARDIO, LocalDate.of(2024, 4, 22), 45),
+                fact(4L, 20L, TrainingTypeName.HIIT, LocalDate.of(2024, 4, 15), 20),
+                fact(5L, 20L, TrainingTypeName.CARDIO, LocalDate.of(2024, 4, 8), 10),
+                fact(6L, 21L, TrainingTypeName.CARDIO, LocalDate.of(2024, 5, 14), 90)));
+
+        TraineeDashboardDTO dashboard = store.dashboard(20L, "Ann.Trainee", 4, TODAY);
+
+        assertEquals(5, dashboard.getSessions());
+        assertEquals(165, dashboard.getTotalMinutes());
+        assertEquals(Map.of("CARDIO", 115L, "STRENGTH", 30L, "HIIT", 20L), dashboard.getMinutesByType());
+        assertEquals(LocalDate.of(2024, 4, 22), dashboard.getWeeklyMinutes().get(0).getWeekStart());
+        assertEquals(List.of(45L, 0L, 30L, 60L), dashboard.getWeeklyMinutes().stream().map(TraineeDashboardDTO.Week::getMinutes).toList());
+        assertEquals(7.5, dashboard.getWeeklyTrend(), 1e-9);
+        assertEquals(2, dashboard.getCurrentStreakWeeks());
+        assertEquals(3, dashboard.getLongestStreakWeeks());
+    }
+
+    @Test
+    void testWritesAreReflectedInDashboards() {
+        TrainingColumnStore store = store(List.of(
+                fact(1L, 20L, TrainingTypeName.CARDIO, LocalDate.of(2024, 5, 13), 60),
+                fact(2L, 20L, TrainingTypeName.STRENGTH, LocalDate.of(2024, 5, 7), 30)));
+
+        store.append(training(3L, 20L, 10L, LocalDate.of(2024, 4, 30), 40));
+        store.remove(training(1L, 20L, 10L, LocalDate.of(2024, 5, 13), 60));
+        TraineeDashboardDTO dashboard = store.dashboard(20L, "Ann.Trainee", 2, TODAY);
+
+        assertEquals(2, dashboard.getSessions());
+        assertEquals(Map.of("STRENGTH", 30L, "YOGA", 40L), dashboard.getMinutesByType());
+        assertEquals(2, dashboard.getCurrentStreakWeeks());
+
+        store.removeTrainer(10L);
+        assertEquals(1, store.dashboard(20L, "Ann.Trainee", 2, TODAY).getSessions());
+        store.removeTrainee(20L);
+        assertEquals(0, store.dashboard(20L, "Ann.Trainee", 2, TODAY).getSessions());
+    }
+
+    @Test
+    void testAppendsReplayedOntoAReloadAreNotCountedTwice() {
+        AtomicReference<TrainingColumnStore> store = new AtomicReference<>();
+        store.set(unloadedStore(scan -> {
+            // Committed while the scan runs, and also read by it.
+            store.get().append(training(1L, 20L, 11L, LocalDate.of(2024, 5, 13), 60));
+            scan.accept(fact(1L, 20L, TrainingTypeName.YOGA, LocalDate.of(2024, 5, 13), 60));
+            return 1L;
+        }));
+
+        store.get().reload();
+
+        assertEquals(1, store.get().dashboard(20L, "Ann.Trainee", 2, TODAY).getSessions());
+    }
+
+    @Test
+    void testDeletedRowsAreCompactedAway() {
+        List<TrainingFactDTO> facts = new ArrayList<>();
+        for (long id = 1; id <= 3000; id++) {
+            facts.add(fact(id, id % 3 == 0 ? 40L : 41L, TrainingTypeName.CARDIO, TODAY.minusDays(id % 30), 1));
+        }
+        TrainingColumnStore store = store(facts);
+
+        store.removeTrainee(41L);
+        store.append(training(3001L, 40L, 11L, TODAY, 5));
+        store.remove(training(3L, 40L, 11L, TODAY.minusDays(3), 1));
+
+        TraineeDashboardDTO dashboard = store.dashboard(40L, "Kept.Trainee", 4, TODAY);
+        assertEquals(1000, dashboard.getSessions());
+        assertEquals(1004, dashboard.getTotalMinutes());
+        assertEquals(0, store.dashboard(41L, "Removed.Trainee", 4, TODAY).getSessions());
+        store.removeTrainer(11L);
+        assertEquals(0, store.dashboard(40L, "Kept.Trainee", 4, TODAY).getSessions());
+    }
+
+    @Test
+    void testLongHistoriesAreReducedInParallel() {
+        List<TrainingFactDTO> facts = new ArrayList<>();
+        for (long id = 1; id <= 100_000; id++) {
+            facts.add(fact(id, 30L, TrainingTypeName.YOGA, TODAY.minusDays(id % 700), 1));
+        }
+        TraineeDashboardDTO dashboard = store(facts).dashboard(30L, "Long.History", 104, TODAY);
+
+        assertEquals(100_000, dashboard.getSessions());
+        assertEquals(Map.of("YOGA", 100_000L), dashboard.getMinutesByType());
+        assertEquals(101, dashboard.getCurrentStreakWeeks());
+    }
+
+    private static TrainingColumnStore store(List<TrainingFactDTO> facts) {
+        TrainingColumnStore store = unloadedStore(scan -> {
+            facts.forEach(scan);
+            return (long) facts.size();
+        });
+        store.reload();
+        return store;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TrainingColumnStore unloadedStore(Function<Consumer<TrainingFactDTO>, Long> scanner) {
+        TrainingFactScanDAO trainingFactScanDAO = mock(TrainingFactScanDAO.class);
+        when(trainingFactScanDAO.streamTrainingFacts(any()))
+                .thenAnswer(invocation -> scanner.apply(invocation.<Consumer<TrainingFactDTO>>getArgument(0)));
+        TrainingTypeRegistry trainingTypeRegistry = mock(TrainingTypeRegistry.class);
+        when(trainingTypeRegistry.findById(YOGA_ID)).thenReturn(Optional.of(new TrainingTypeDTO(YOGA_ID, TrainingTypeName.YOGA)));
+        return new TrainingColumnStore(trainingFactScanDAO, trainingTypeRegistry);
+    }
+
+    private static TrainingFactDTO fact(Long id, Long traineeId, TrainingTypeName type, LocalDate day, int duration) {
+        return new TrainingFactDTO(id, traineeId, 11L, type, Date.valueOf(day), duration);
+    }
+
+    private static TrainingSnapshot training(Long id, Long traineeId, Long trainerId, LocalDate day, int duration) {
+        return new TrainingSnapshot(id, traineeId, trainerId, YOGA_ID, Date.valueOf(day), null, duration);
+    }
+}
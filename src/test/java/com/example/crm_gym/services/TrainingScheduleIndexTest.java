@@ -0,0 +1,102 @@
+package com.example.crm_gym.services;
+
+import com.example.crm_gym.dao.TrainingDAO;
+import com.example.crm_gym.dto.TrainingSlotDTO;
+import com.example.crm_gym.exception.BookingConflictException;
+import com.example.crm_gym.models.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TrainingScheduleIndexTest {
+
+    private static final Date DAY = Date.valueOf(LocalDate.of(2024, 5, 1));
+
+    private TrainingScheduleIndex index;
+
+    @BeforeEach
+    void setUp() {
+        TrainingDAO trainingDAO = mock(TrainingDAO.class);
+        when(trainingDAO.findScheduledSlots()).thenReturn(List.of(
+                new TrainingSlotDTO(1L, 10L, 20L, DAY, LocalTime.of(9, 0), 60),
+                new TrainingSlotDTO(7L, 12L, 22L, DAY, LocalTime.of(15, 0), 30),
+                new TrainingSlotDTO(8L, 12L, 23L, DAY, LocalTime.of(15, 0), 90)));
+        index = new TrainingScheduleIndex(trainingDAO);
+        index.reload();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testOverlapsAreRejectedForTrainerAndTrainee() {
+        assertThrows(BookingConflictException.class, () -> index.reserve(training(2L, 10L, 21L, LocalTime.of(9, 30), 15)));
+        assertThrows(BookingConflictException.class, () -> index.reserve(training(3L, 11L, 20L, LocalTime.of(8, 30), 31)));
+        assertDoesNotThrow(() -> index.reserve(training(4L, 10L, 20L, LocalTime.of(10, 0), 30)));
+        assertDoesNotThrow(() -> index.reserve(training(5L, 10L, 20L, LocalTime.of(8, 0), 60)));
+        assertDoesNotThrow(() -> index.reserve(training(6L, 10L, 20L, null, 600)));
+    }
+
+    @Test
+    void testRolledBackReservationFreesTheSlot() {
+        TransactionSynchronizationManager.initSynchronization();
+        index.reserve(training(2L, 11L, 21L, LocalTime.of(12, 0), 60));
+        assertThrows(BookingConflictException.class, () -> index.reserve(training(3L, 11L, 22L, LocalTime.of(12, 30), 60)));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertDoesNotThrow(() -> index.reserve(training(4L, 11L, 22L, LocalTime.of(12, 30), 60)));
+    }
+
+    @Test
+    void testBookingsWithEqualStartsAreBothKept() {
+        index.removeTraining(8L);
+        assertThrows(BookingConflictException.class, () -> index.reserve(training(2L, 12L, 24L, LocalTime.of(15, 15), 10)));
+        index.removeTraining(7L);
+        assertDoesNotThrow(() -> index.reserve(training(3L, 12L, 24L, LocalTime.of(15, 15), 10)));
+    }
+
+    @Test
+    void testMovedTrainingIgnoresItsOwnBooking() {
+        assertDoesNotThrow(() -> index.reserve(training(1L, 10L, 20L, LocalTime.of(9, 30), 60)));
+        assertDoesNotThrow(() -> index.reserve(training(2L, 10L, 21L, LocalTime.of(9, 0), 30)));
+        assertThrows(BookingConflictException.class, () -> index.reserve(training(1L, 12L, 20L, LocalTime.of(15, 0), 30)));
+    }
+
+    @Test
+    void testRemovedTrainingsFreeTheirSlots() {
+        index.removeTraining(1L);
+        assertDoesNotThrow(() -> index.reserve(training(2L, 10L, 20L, LocalTime.of(9, 0), 60)));
+        index.removeTrainee(20L);
+        assertDoesNotThrow(() -> index.reserve(training(3L, 10L, 21L, LocalTime.of(9, 0), 60)));
+    }
+
+    private static Training training(Long id, Long trainerId, Long traineeId, LocalTime startTime, int duration) {
+        Trainer trainer = new Trainer();
+        ReflectionTestUtils.setField(trainer, "id", trainerId);
+        Trainee trainee = new Trainee();
+        ReflectionTestUtils.setField(trainee, "id", traineeId);
+        Training training = new Training(trainee, trainer, "Session " + id, DAY, duration);
+        training.setStartTime(startTime);
+        ReflectionTestUtils.setField(training, "id", id);
+        return training;
+    }
+}
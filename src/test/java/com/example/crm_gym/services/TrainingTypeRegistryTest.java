@@ -0,0 +1,45 @@
+package com.example.crm_gym.services;
+
+import com.example.crm_gym.dao.TrainingTypeDAO;
+import com.example.crm_gym.dto.TrainingTypeDTO;
+import com.example.crm_gym.models.TrainingType;
+import com.example.crm_gym.models.TrainingTypeName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TrainingTypeRegistryTest {
+
+    private TrainingTypeRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        TrainingType yoga = mock(TrainingType.class);
+        when(yoga.getId()).thenReturn(1L);
+        when(yoga.getName()).thenReturn(TrainingTypeName.YOGA);
+        TrainingTypeDAO trainingTypeDAO = mock(TrainingTypeDAO.class);
+        when(trainingTypeDAO.findAll()).thenReturn(Optional.of(List.of(yoga)));
+        registry = new TrainingTypeRegistry(trainingTypeDAO);
+        registry.reload();
+    }
+
+    @Test
+    void testCallersCannotChangeSharedEntries() {
+        TrainingTypeDTO handedOut = registry.findById(1L).orElseThrow();
+        handedOut.setName(TrainingTypeName.FITNESS);
+        handedOut.setTrainers(List.of());
+        registry.getAll().get(0).setId(2L);
+
+        TrainingTypeDTO current = registry.findByName(TrainingTypeName.YOGA).orElseThrow();
+        assertEquals(1L, current.getId());
+        assertEquals(TrainingTypeName.YOGA, current.getName());
+        assertNull(current.getTrainers());
+    }
+}
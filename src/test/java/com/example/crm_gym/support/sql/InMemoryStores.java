@@ -0,0 +1,57 @@
+package com.example.crm_gym.support.sql;
+
+import com.example.crm_gym.services.CalendarFeedCache;
+import com.example.crm_gym.services.PeopleSearchIndex;
+import com.example.crm_gym.services.TrainerAssignmentIndex;
+import com.example.crm_gym.services.TrainerDirectoryIndex;
+import com.example.crm_gym.services.TrainerUtilizationRollup;
+import com.example.crm_gym.services.TrainingColumnStore;
+import com.example.crm_gym.services.TrainingScheduleIndex;
+import com.example.crm_gym.services.TrainingTypeRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * The in-memory stores that follow committed writes. Fixtures written straight through the entity manager publish no
+ * events, so tests reload the stores from the database after seeding and after cleaning up.
+ */
+public class InMemoryStores {
+
+    @Autowired
+    private TrainingTypeRegistry trainingTypeRegistry;
+
+    @Autowired
+    private TrainerAssignmentIndex trainerAssignmentIndex;
+
+    @Autowired
+    private TrainerDirectoryIndex trainerDirectoryIndex;
+
+    @Autowired
+    private PeopleSearchIndex peopleSearchIndex;
+
+    @Autowired
+    private TrainingScheduleIndex trainingScheduleIndex;
+
+    @Autowired
+    private TrainerUtilizationRollup trainerUtilizationRollup;
+
+    @Autowired
+    private TrainingColumnStore trainingColumnStore;
+
+    @Autowired
+    private CalendarFeedCache calendarFeedCache;
+
+    /**
+     * Reloads every store; the utilization summary is rebuilt from the trainings table first, since fixtures do not
+     * maintain it.
+     */
+    public void reload() {
+        trainingTypeRegistry.reload();
+        trainerAssignmentIndex.reload();
+        trainerDirectoryIndex.reload();
+        peopleSearchIndex.rebuild();
+        trainingScheduleIndex.reload();
+        trainerUtilizationRollup.rebuild();
+        trainingColumnStore.reload();
+        calendarFeedCache.clear();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.crm_gym.support.sql;
+
+public final class SqlBudget {
+
+    private final String endpoint;
+    private int maxStatements = Integer.MAX_VALUE;
+    private long maxCollectionFetches = Long.MAX_VALUE;
+    private long maxEntityFetches = Long.MAX_VALUE;
+    private long maxEntityLoads = Long.MAX_VALUE;
+
+    private SqlBudget(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public static SqlBudget of(String endpoint) {
+        return new SqlBudget(endpoint);
+    }
+
+    public SqlBudget statements(int max) {
+        this.maxStatements = max;
+        return this;
+    }
+
+    public SqlBudget collectionFetches(long max) {
+        this.maxCollectionFetches = max;
+        return this;
+    }
+
+    public SqlBudget entityFetches(long max) {
+        this.maxEntityFetches = max;
+        return this;
+    }
+
+    public SqlBudget entityLoads(long max) {
+        this.maxEntityLoads = max;
+        return this;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public int getMaxStatements() {
+        return maxStatements;
+    }
+
+    public long getMaxCollectionFetches() {
+        return maxCollectionFetches;
+    }
+
+    public long getMaxEntityFetches() {
+        return maxEntityFetches;
+    }
+
+    public long getMaxEntityLoads() {
+        return maxEntityLoads;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.crm_gym.support.sql;
+
+import com.example.crm_gym.models.*;
+import com.example.crm_gym.security.Role;
+import com.example.crm_gym.utils.JwtUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Shared fixture of the endpoint SQL budget tests, one subclass per controller: Tom.Trainer teaches yoga, Tia.Coach
+ * teaches fitness, and Ann.Trainee is assigned to Tom.Trainer with two yoga trainings. The in-memory stores are
+ * reloaded after seeding and after cleaning up, so every budget starts from the same state.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(SqlBudgetTestConfiguration.class)
+public abstract class SqlBudgetEndpointTestSupport {
+
+    protected static final String PASSWORD = "secret-password";
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected SqlBudgetVerifier sqlBudget;
+
+    @Autowired
+    protected TransactionTemplate transactionTemplate;
+
+    @Autowired
+    protected JwtUtil jwtUtil;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private InMemoryStores inMemoryStores;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    protected TrainingType yoga;
+    protected Trainee trainee;
+    protected Trainer trainer;
+    protected Trainer otherTrainer;
+    protected String traineeToken;
+    protected String trainerToken;
+
+    @BeforeEach
+    void seed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            yoga = persist(new TrainingType(TrainingTypeName.YOGA));
+            TrainingType fitness = persist(new TrainingType(TrainingTypeName.FITNESS));
+            trainer = persist(new Trainer(yoga, persist(user("Tom", "Trainer"))));
+            otherTrainer = persist(new Trainer(fitness, persist(user("Tia", "Coach"))));
+            trainee = new Trainee(new Date(), "12 Long Street, Almaty", persist(user("Ann", "Trainee")));
+            trainee.setTrainers(new HashSet<>(Set.of(trainer)));
+            persist(trainee);
+            persist(new Training(trainee, trainer, "Morning flow", yoga, new Date(), 60));
+            persist(new Training(trainee, trainer, "Evening flow", yoga, new Date(), 45));
+        });
+        inMemoryStores.reload();
+        traineeToken = "Bearer " + jwtUtil.generateToken(trainee.getUser(), Role.TRAINEE);
+        trainerToken = "Bearer " + jwtUtil.generateToken(trainer.getUser(), Role.TRAINER);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createNativeQuery("DELETE FROM trainer_daily_utilization").executeUpdate();
+            entityManager.createNativeQuery("DELETE FROM username_counters").executeUpdate();
+            entityManager.createQuery("DELETE FROM Training").executeUpdate();
+            entityManager.createNativeQuery("DELETE FROM trainee_trainer").executeUpdate();
+            entityManager.createQuery("DELETE FROM Trainee").executeUpdate();
+            entityManager.createQuery("DELETE FROM Trainer").executeUpdate();
+            entityManager.createQuery("DELETE FROM User").executeUpdate();
+            entityManager.createQuery("DELETE FROM TrainingType").executeUpdate();
+        });
+        inMemoryStores.reload();
+    }
+
+    protected void expect(SqlBudget budget, MockHttpServletRequestBuilder request, ResultMatcher expectedStatus) throws Exception {
+        sqlBudget.assertWithin(budget, () -> mockMvc.perform(request).andExpect(expectedStatus));
+    }
+
+    protected MockHttpServletRequestBuilder booking(String traineeUsername, String trainerUsername, String startTime, int duration) {
+        return post("/trainings").header("Authorization", traineeToken)
+                .param("traineeUsername", traineeUsername).param("trainerUsername", trainerUsername)
+                .param("trainingName", "Booked session").param("trainingDate", "2024-05-01")
+                .param("startTime", startTime).param("trainingDuration", String.valueOf(duration));
+    }
+
+    private User user(String firstName, String lastName) {
+        return new User(firstName, lastName, firstName + "." + lastName, passwordEncoder.encode(PASSWORD), true);
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.crm_gym.support.sql;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+@TestConfiguration
+public class SqlBudgetTestConfiguration {
+
+    @Bean
+    public SqlBudgetVerifier sqlBudgetVerifier(EntityManagerFactory entityManagerFactory) {
+        return new SqlBudgetVerifier(entityManagerFactory);
+    }
+
+    @Bean
+    public InMemoryStores inMemoryStores() {
+        return new InMemoryStores();
+    }
+}
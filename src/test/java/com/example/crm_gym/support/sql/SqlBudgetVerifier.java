@@ -0,0 +1,45 @@
+package com.example.crm_gym.support.sql;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+public class SqlBudgetVerifier {
+
+    @FunctionalInterface
+    public interface SqlAction {
+        void run() throws Exception;
+    }
+
+    private final Statistics statistics;
+
+    public SqlBudgetVerifier(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.statistics.setStatisticsEnabled(true);
+    }
+
+    public SqlCapture capture(SqlAction action) throws Exception {
+        statistics.clear();
+        SqlStatementRecorder.start();
+        List<String> statements;
+        try {
+            action.run();
+        } finally {
+            statements = SqlStatementRecorder.stop();
+        }
+        return new SqlCapture(statements, statistics.getCollectionFetchCount(), statistics.getEntityFetchCount(),
+                statistics.getEntityLoadCount());
+    }
+
+    public SqlCapture assertWithin(SqlBudget budget, SqlAction action) throws Exception {
+        SqlCapture capture = capture(action);
+        if (!capture.isWithin(budget)) {
+            fail(capture.describe(budget));
+        }
+        return capture;
+    }
+}
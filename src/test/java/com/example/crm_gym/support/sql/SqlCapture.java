@@ -0,0 +1,67 @@
+package com.example.crm_gym.support.sql;
+
+import java.util.List;
+
+public class SqlCapture {
+
+    private final List<String> statements;
+    private final long collectionFetches;
+    private final long entityFetches;
+    private final long entityLoads;
+
+    SqlCapture(List<String> statements, long collectionFetches, long entityFetches, long entityLoads) {
+        this.statements = statements;
+        this.collectionFetches = collectionFetches;
+        this.entityFetches = entityFetches;
+        this.entityLoads = entityLoads;
+    }
+
+    public List<String> getStatements() {
+        return statements;
+    }
+
+    public int getStatementCount() {
+        return statements.size();
+    }
+
+    public long getCollectionFetches() {
+        return collectionFetches;
+    }
+
+    public long getEntityFetches() {
+        return entityFetches;
+    }
+
+    public long getEntityLoads() {
+        return entityLoads;
+    }
+
+    public boolean isWithin(SqlBudget budget) {
+        return getStatementCount() <= budget.getMaxStatements()
+                && collectionFetches <= budget.getMaxCollectionFetches()
+                && entityFetches <= budget.getMaxEntityFetches()
+                && entityLoads <= budget.getMaxEntityLoads();
+    }
+
+    public String describe(SqlBudget budget) {
+        StringBuilder message = new StringBuilder()
+                .append(budget.getEndpoint())
+                .append(" issued ").append(getStatementCount()).append(" statements")
+                .append(limit(budget.getMaxStatements()))
+                .append(", ").append(collectionFetches).append(" collection fetches")
+                .append(limit(budget.getMaxCollectionFetches()))
+                .append(", ").append(entityFetches).append(" entity fetches")
+                .append(limit(budget.getMaxEntityFetches()))
+                .append(", ").append(entityLoads).append(" entities hydrated")
+                .append(limit(budget.getMaxEntityLoads()))
+                .append(':');
+        for (int i = 0; i < statements.size(); i++) {
+            message.append(System.lineSeparator()).append("  ").append(i + 1).append(". ").append(statements.get(i));
+        }
+        return message.toString();
+    }
+
+    private static String limit(long max) {
+        return max == Integer.MAX_VALUE || max == Long.MAX_VALUE ? "" : " (budget " + max + ")";
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.crm_gym.support.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SqlStatementRecorder implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new ArrayList<>();
+    private static volatile boolean recording;
+
+    @Override
+    public String inspect(String sql) {
+        if (recording) {
+            synchronized (STATEMENTS) {
+                STATEMENTS.add(sql);
+            }
+        }
+        return sql;
+    }
+
+    static void start() {
+        synchronized (STATEMENTS) {
+            STATEMENTS.clear();
+        }
+        recording = true;
+    }
+
+    static List<String> stop() {
+        recording = false;
+        synchronized (STATEMENTS) {
+            return new ArrayList<>(STATEMENTS);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.crm_gym.utils;
+
+import com.example.crm_gym.dto.CalendarEntryDTO;
+import com.example.crm_gym.models.TrainingTypeName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ICalendarWriterTest {
+
+    private static final Instant STAMP = Instant.parse("2024-05-01T06:30:00Z");
+
+    @Test
+    void testTimedAndAllDayEvents() throws IOException {
+        List<String> lines = render(
+                new CalendarEntryDTO(7L, LocalDate.of(2024, 5, 1), LocalTime.of(23, 30), 60, "Late flow", TrainingTypeName.YOGA,
+                        "Ann.Trainee", "Tom.Trainer"),
+                new CalendarEntryDTO(8L, LocalDate.of(2024, 5, 2), null, 45, "Open gym", null, "Ann.Trainee", "Tom.Trainer"));
+
+        assertEquals("BEGIN:VCALENDAR", lines.get(0));
+        assertEquals("END:VCALENDAR", lines.get(lines.size() - 1));
+        assertTrue(lines.contains("UID:training-7@crm-gym"));
+        assertTrue(lines.contains("DTSTAMP:20240501T063000Z"));
+        assertTrue(lines.contains("DTSTART:20240501T233000"));
+        assertTrue(lines.contains("DTEND:20240502T003000"));
+        assertTrue(lines.contains("DTSTART;VALUE=DATE:20240502"));
+        assertTrue(lines.contains("DTEND;VALUE=DATE:20240503"));
+        assertEquals(2, lines.stream().filter("BEGIN:VEVENT"::equals).count());
+    }
+
+    @Test
+    void testTextIsEscapedAndLongLinesAreFolded() throws IOException {
+        String name = "Stretch, breathe; relax\\repeat\n" + "Ж".repeat(60);
+        StringWriter out = new StringWriter();
+        ICalendarWriter writer = new ICalendarWriter(out);
+        writer.writeEvent(new CalendarEntryDTO(9L, LocalDate.of(2024, 5, 1), null, 30, name, TrainingTypeName.YOGA,
+                "Ann.Trainee", "Tom.Trainer"), STAMP);
+
+        String rendered = out.toString();
+        assertTrue(rendered.startsWith("BEGIN:VEVENT\r\n"));
+        for (String line : rendered.split("\r\n")) {
+            assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75, line);
+        }
+        String summary = rendered.substring(rendered.indexOf("SUMMARY:"), rendered.indexOf("\r\nCATEGORIES:")).replace("\r\n ", "");
+        assertEquals("SUMMARY:Stretch\\, breathe\\; relax\\\\repeat\\n" + "Ж".repeat(60), summary);
+    }
+
+    private static List<String> render(CalendarEntryDTO... entries) throws IOException {
+        StringWriter out = new StringWriter();
+        ICalendarWriter writer = new ICalendarWriter(out);
+        writer.beginCalendar("Ann.Trainee trainings");
+        for (CalendarEntryDTO entry : entries) {
+            writer.writeEvent(entry, STAMP);
+        }
+        writer.endCalendar();
+        return List.of(out.toString().split("\r\n"));
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.crm_gym.utils;
+
+import com.example.crm_gym.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrainingCursorTest {
+
+    @Test
+    void testEncodeDecodeRoundTrip() {
+        TrainingCursor cursor = new TrainingCursor(LocalDate.of(2024, 5, 1), 42L);
+
+        TrainingCursor decoded = TrainingCursor.decode(cursor.encode());
+
+        assertEquals(java.sql.Date.valueOf("2024-05-01"), decoded.getTrainingDate());
+        assertEquals(42L, decoded.getId());
+    }
+
+    @Test
+    void testEncodedCursorIsOpaqueAndUrlSafe() {
+        String token = new TrainingCursor(LocalDate.of(2024, 5, 1), 42L).encode();
+
+        assertFalse(token.contains("2024"));
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void testDecodeRejectsMalformedTokens() {
+        assertThrows(InvalidCursorException.class, () -> TrainingCursor.decode("not a cursor!"));
+        assertThrows(InvalidCursorException.class, () -> TrainingCursor.decode("bm9zZXBhcmF0b3I"));
+        assertThrows(InvalidCursorException.class, () -> TrainingCursor.decode("MjAyNC0xMy0wMTox"));
+    }
+}